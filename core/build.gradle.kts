@@ -62,7 +62,12 @@ val testAppClasses = listOf(
     "de.pottgames.tuningfork.test.SoundLoaderAudioStreamTest",
     "de.pottgames.tuningfork.test.unit.DurationTest",
     "de.pottgames.tuningfork.test.unit.SoundSourceUnitTest",
-    "de.pottgames.tuningfork.test.unit.SoundLoaderUnitTest"
+    "de.pottgames.tuningfork.test.unit.SoundLoaderUnitTest",
+    "de.pottgames.tuningfork.test.unit.SoundSourcePoolUnitTest",
+    "de.pottgames.tuningfork.test.unit.AudioCommandQueueUnitTest",
+    "de.pottgames.tuningfork.test.unit.AudioStreamSeekUnitTest",
+    "de.pottgames.tuningfork.test.unit.ParallelDecoderUnitTest",
+    "de.pottgames.tuningfork.test.unit.ImaAdpcmStreamingUnitTest"
 )
 
 buildscript {
@@ -24,6 +24,9 @@ import org.openjdk.jmh.annotations.*;
 @State(Scope.Thread)
 public class Load16BitFlac {
 
+    @Param({ "true", "false" })
+    public boolean nativeDecoders;
+
     private Audio audio;
     private SoundBuffer soundBuffer;
 
@@ -38,6 +41,7 @@ public class Load16BitFlac {
     public void setup() {
         final AudioConfig config = new AudioConfig();
         config.setLogger(new MockLogger());
+        config.setUseNativeDecoders(nativeDecoders);
         this.audio = Audio.init(config);
     }
 
@@ -34,6 +34,13 @@ public class LoadQoa {
         );
     }
 
+    @Benchmark
+    public void loadParallel() {
+        this.soundBuffer = QoaLoader.loadParallel(
+            new File("src/jmh/resources/bench.qoa")
+        );
+    }
+
     @Setup(Level.Iteration)
     public void setup() {
         final AudioConfig config = new AudioConfig();
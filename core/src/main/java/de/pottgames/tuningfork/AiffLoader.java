@@ -47,14 +47,19 @@ public abstract class AiffLoader {
     }
 
     /**
-     * Loads an aiff file into a {@link SoundBuffer}.
+     * Loads an aiff file into a {@link SoundBuffer}. Uncompressed 8-bit and 16-bit data of files that are present on the file system is read into off-heap
+     * memory and converted to OpenAL's byte order in place, without copying it to the heap first.
      *
      * @param file the file handle
      *
      * @return the SoundBuffer
      */
     public static SoundBuffer load(FileHandle file) {
-        final AiffInputStream input = new AiffInputStream(file);
+        final SoundBuffer direct = DirectPcmLoader.loadAiff(file);
+        if (direct != null) {
+            return direct;
+        }
+        final AiffInputStream input = new AiffInputStream(file, true);
         return AiffLoader.load(input);
     }
 
@@ -78,7 +83,7 @@ public abstract class AiffLoader {
      * @return the SoundBuffer
      */
     public static SoundBuffer load(InputStream stream) {
-        final AiffInputStream input = new AiffInputStream(stream);
+        final AiffInputStream input = new AiffInputStream(stream, true);
         return AiffLoader.load(input);
     }
 
@@ -25,6 +25,7 @@ import de.pottgames.tuningfork.decoder.WavDecoderProvider;
 import de.pottgames.tuningfork.decoder.WavInputStream;
 import de.pottgames.tuningfork.logger.TuningForkLogger;
 import org.lwjgl.openal.AL10;
+import org.lwjgl.openal.SOFTEvents;
 
 /**
  * The main management and entry point of TuningFork. This class initializes the sound device and gives access to SoundSource's for advanced manual playback
@@ -38,14 +39,18 @@ public class Audio implements Disposable {
 
     private final boolean nativeDecoderAvailable;
     final StreamManager streamManager;
+    private final AudioCommandQueue commandQueue;
     final Filter publicFilter;
     private final WavDecoderProvider wavDecoderProvider;
     private final SoundListener listener;
     private final SoundSourcePool sourcePool;
+    private final boolean eventDrivenStreaming;
+    private final boolean sourceStateCache;
     private final Array<SoundSource> managedSources = new Array<>();
     private final TuningForkLogger logger;
     private final AudioDevice device;
     private final AudioSettings defaultSettings = new AudioSettings();
+    private int updateDepth = 0;
 
     /**
      * Initializes an Audio instance with the default {@link AudioConfig}. Errors are logged but exceptions are silently ignored. Call
@@ -156,7 +161,24 @@ public class Audio implements Disposable {
         wavDecoderProvider = config.getResamplerProvider();
         Audio.instance = this;
         publicFilter = new Filter(1f, 1f);
+        commandQueue = new AudioCommandQueue(
+            config.getCommandQueueCapacity(),
+            logger
+        );
         streamManager = new StreamManager(config, logger);
+        eventDrivenStreaming = config.isEventDrivenStreaming();
+        sourceStateCache = config.isSourceStateCache();
+        if (eventDrivenStreaming) {
+            device.enableEvents(
+                SOFTEvents.AL_EVENT_TYPE_BUFFER_COMPLETED_SOFT,
+                SOFTEvents.AL_EVENT_TYPE_SOURCE_STATE_CHANGED_SOFT
+            );
+        } else {
+            // the source pool tracks free sources via state change events
+            device.enableEvents(
+                SOFTEvents.AL_EVENT_TYPE_SOURCE_STATE_CHANGED_SOFT
+            );
+        }
         final AssetManager assetManager = config.getAssetManager();
         if (assetManager != null) {
             registerAssetManagerLoaders(assetManager);
@@ -171,7 +193,12 @@ public class Audio implements Disposable {
         listener = new SoundListener();
 
         // CREATE SOURCES
-        sourcePool = new SoundSourcePool(config.getSimultaneousSources());
+        sourcePool = new SoundSourcePool(
+            config.getSimultaneousSources(),
+            config.getMaxVoices(),
+            config.getVoiceStealing(),
+            listener
+        );
     }
 
     /**
@@ -375,30 +402,48 @@ public class Audio implements Disposable {
     public BufferedSoundSource obtainSource(SoundBuffer buffer) {
         // FIND FREE SOUND SOURCE
         final BufferedSoundSource source = sourcePool.findFreeSource(
-            defaultSettings
+            defaultSettings,
+            null,
+            Integer.MAX_VALUE,
+            true
         );
 
         // PREPARE SOURCE
-        source.obtained = true;
         source.setBuffer(buffer);
         source.setRelative(false);
 
         return source;
     }
 
-    private BufferedSoundSource obtainRelativeSource(
+    /**
+     * Returns a source for fire-and-forget playback or null if the voice limit is reached and there's no voice with a lower or equal priority to steal. Returns
+     * null as well if a limit of the buffer rejects the sound, see {@link SoundBuffer#setMaxInstances(int, SoundBuffer.InstanceLimit)}.
+     *
+     * @param buffer the sound buffer
+     * @param relative true if the position of the source is relative to the listener
+     * @param priority the priority of the sound
+     *
+     * @return the source or null
+     */
+    private BufferedSoundSource obtainVoice(
         SoundBuffer buffer,
-        boolean looping
+        boolean relative,
+        int priority
     ) {
         // FIND FREE SOUND SOURCE
         final BufferedSoundSource source = sourcePool.findFreeSource(
-            defaultSettings
+            defaultSettings,
+            buffer,
+            priority,
+            false
         );
+        if (source == null) {
+            return null;
+        }
 
         // PREPARE SOURCE
-        source.obtained = true;
         source.setBuffer(buffer);
-        source.setRelative(true);
+        source.setRelative(relative);
 
         return source;
     }
@@ -409,9 +454,16 @@ public class Audio implements Disposable {
      * @param buffer the sound buffer
      */
     protected void play(SoundBuffer buffer) {
-        final BufferedSoundSource source = obtainRelativeSource(buffer, false);
+        final BufferedSoundSource source = obtainVoice(
+            buffer,
+            true,
+            buffer.getPriority()
+        );
+        if (source == null) {
+            return;
+        }
         source.play();
-        source.obtained = false;
+        sourcePool.onSourceReleased(source);
     }
 
     /**
@@ -422,9 +474,16 @@ public class Audio implements Disposable {
      * @param time the time in nanoseconds, use {@link AudioDevice#getClockTime()} to get the current time
      */
     protected void playAtTime(SoundBuffer buffer, long time) {
-        final BufferedSoundSource source = obtainRelativeSource(buffer, false);
+        final BufferedSoundSource source = obtainVoice(
+            buffer,
+            true,
+            buffer.getPriority()
+        );
+        if (source == null) {
+            return;
+        }
         source.playAtTime(time);
-        source.obtained = false;
+        sourcePool.onSourceReleased(source);
     }
 
     /**
@@ -434,10 +493,17 @@ public class Audio implements Disposable {
      * @param effect the sound effect
      */
     protected void play(SoundBuffer buffer, SoundEffect effect) {
-        final BufferedSoundSource source = obtainRelativeSource(buffer, false);
+        final BufferedSoundSource source = obtainVoice(
+            buffer,
+            true,
+            buffer.getPriority()
+        );
+        if (source == null) {
+            return;
+        }
         source.attachEffect(effect);
         source.play();
-        source.obtained = false;
+        sourcePool.onSourceReleased(source);
     }
 
     /**
@@ -447,10 +513,17 @@ public class Audio implements Disposable {
      * @param volume in the range of 0.0 - 1.0 with 0 being silent and 1 being the maximum volume. (default 1)
      */
     protected void play(SoundBuffer buffer, float volume) {
-        final BufferedSoundSource source = obtainRelativeSource(buffer, false);
+        final BufferedSoundSource source = obtainVoice(
+            buffer,
+            true,
+            buffer.getPriority()
+        );
+        if (source == null) {
+            return;
+        }
         source.setVolume(volume);
         source.play();
-        source.obtained = false;
+        sourcePool.onSourceReleased(source);
     }
 
     /**
@@ -461,11 +534,18 @@ public class Audio implements Disposable {
      * @param effect the sound effect
      */
     protected void play(SoundBuffer buffer, float volume, SoundEffect effect) {
-        final BufferedSoundSource source = obtainRelativeSource(buffer, false);
+        final BufferedSoundSource source = obtainVoice(
+            buffer,
+            true,
+            buffer.getPriority()
+        );
+        if (source == null) {
+            return;
+        }
         source.setVolume(volume);
         source.attachEffect(effect);
         source.play();
-        source.obtained = false;
+        sourcePool.onSourceReleased(source);
     }
 
     /**
@@ -476,11 +556,18 @@ public class Audio implements Disposable {
      * @param pitch in the range of 0.5 - 2.0 with values &lt; 1 making the sound slower and values &gt; 1 making it faster (default 1)
      */
     protected void play(SoundBuffer buffer, float volume, float pitch) {
-        final BufferedSoundSource source = obtainRelativeSource(buffer, false);
+        final BufferedSoundSource source = obtainVoice(
+            buffer,
+            true,
+            buffer.getPriority()
+        );
+        if (source == null) {
+            return;
+        }
         source.setVolume(volume);
         source.setPitch(pitch);
         source.play();
-        source.obtained = false;
+        sourcePool.onSourceReleased(source);
     }
 
     /**
@@ -499,12 +586,19 @@ public class Audio implements Disposable {
         float lowFreqVolume,
         float highFreqVolume
     ) {
-        final BufferedSoundSource source = obtainRelativeSource(buffer, false);
+        final BufferedSoundSource source = obtainVoice(
+            buffer,
+            true,
+            buffer.getPriority()
+        );
+        if (source == null) {
+            return;
+        }
         source.setVolume(volume);
         source.setPitch(pitch);
         source.setFilter(lowFreqVolume, highFreqVolume);
         source.play();
-        source.obtained = false;
+        sourcePool.onSourceReleased(source);
     }
 
     /**
@@ -521,12 +615,19 @@ public class Audio implements Disposable {
         float pitch,
         SoundEffect effect
     ) {
-        final BufferedSoundSource source = obtainRelativeSource(buffer, false);
+        final BufferedSoundSource source = obtainVoice(
+            buffer,
+            true,
+            buffer.getPriority()
+        );
+        if (source == null) {
+            return;
+        }
         source.setVolume(volume);
         source.setPitch(pitch);
         source.attachEffect(effect);
         source.play();
-        source.obtained = false;
+        sourcePool.onSourceReleased(source);
     }
 
     /**
@@ -543,13 +644,35 @@ public class Audio implements Disposable {
         float pitch,
         float pan
     ) {
-        final BufferedSoundSource source = obtainRelativeSource(buffer, false);
+        this.play(buffer, volume, pitch, pan, buffer.getPriority());
+    }
+
+    /**
+     * Plays the sound with the given volume, pitch, pan and priority.
+     *
+     * @param buffer the sound buffer
+     * @param volume in the range of 0.0 - 1.0 with 0 being silent and 1 being the maximum volume. (default 1)
+     * @param pitch in the range of 0.5 - 2.0 with values &lt; 1 making the sound slower and values &gt; 1 making it faster (default 1)
+     * @param pan in the range of -1.0 (full left) to 1.0 (full right). (default center 0.0)
+     * @param priority the priority that is used to decide which sound is stopped when the voice limit is reached
+     */
+    protected void play(
+        SoundBuffer buffer,
+        float volume,
+        float pitch,
+        float pan,
+        int priority
+    ) {
+        final BufferedSoundSource source = obtainVoice(buffer, true, priority);
+        if (source == null) {
+            return;
+        }
         source.setVolume(volume);
         source.setPitch(pitch);
         source.setAttenuationFactor(0f);
         source.setPosition(pan, 0, (float) -Math.sqrt(1d - pan * pan));
         source.play();
-        source.obtained = false;
+        sourcePool.onSourceReleased(source);
     }
 
     /**
@@ -568,14 +691,21 @@ public class Audio implements Disposable {
         float pan,
         SoundEffect effect
     ) {
-        final BufferedSoundSource source = obtainRelativeSource(buffer, false);
+        final BufferedSoundSource source = obtainVoice(
+            buffer,
+            true,
+            buffer.getPriority()
+        );
+        if (source == null) {
+            return;
+        }
         source.setVolume(volume);
         source.setPitch(pitch);
         source.setAttenuationFactor(0f);
         source.setPosition(pan, 0, (float) -Math.sqrt(1d - pan * pan));
         source.attachEffect(effect);
         source.play();
-        source.obtained = false;
+        sourcePool.onSourceReleased(source);
     }
 
     /**
@@ -585,10 +715,17 @@ public class Audio implements Disposable {
      * @param position the position in 3D space
      */
     protected void play3D(SoundBuffer buffer, Vector3 position) {
-        final BufferedSoundSource source = obtainSource(buffer);
+        final BufferedSoundSource source = obtainVoice(
+            buffer,
+            false,
+            buffer.getPriority()
+        );
+        if (source == null) {
+            return;
+        }
         source.setPosition(position);
         source.play();
-        source.obtained = false;
+        sourcePool.onSourceReleased(source);
     }
 
     /**
@@ -605,11 +742,18 @@ public class Audio implements Disposable {
         float lowFreqVolume,
         float highFreqVolume
     ) {
-        final BufferedSoundSource source = obtainSource(buffer);
+        final BufferedSoundSource source = obtainVoice(
+            buffer,
+            false,
+            buffer.getPriority()
+        );
+        if (source == null) {
+            return;
+        }
         source.setPosition(position);
         source.setFilter(lowFreqVolume, highFreqVolume);
         source.play();
-        source.obtained = false;
+        sourcePool.onSourceReleased(source);
     }
 
     /**
@@ -624,11 +768,18 @@ public class Audio implements Disposable {
         Vector3 position,
         SoundEffect effect
     ) {
-        final BufferedSoundSource source = obtainSource(buffer);
+        final BufferedSoundSource source = obtainVoice(
+            buffer,
+            false,
+            buffer.getPriority()
+        );
+        if (source == null) {
+            return;
+        }
         source.setPosition(position);
         source.attachEffect(effect);
         source.play();
-        source.obtained = false;
+        sourcePool.onSourceReleased(source);
     }
 
     /**
@@ -647,12 +798,19 @@ public class Audio implements Disposable {
         float highFreqVolume,
         SoundEffect effect
     ) {
-        final BufferedSoundSource source = obtainSource(buffer);
+        final BufferedSoundSource source = obtainVoice(
+            buffer,
+            false,
+            buffer.getPriority()
+        );
+        if (source == null) {
+            return;
+        }
         source.setPosition(position);
         source.attachEffect(effect);
         source.setFilter(lowFreqVolume, highFreqVolume);
         source.play();
-        source.obtained = false;
+        sourcePool.onSourceReleased(source);
     }
 
     /**
@@ -663,11 +821,18 @@ public class Audio implements Disposable {
      * @param position the position in 3D space
      */
     protected void play3D(SoundBuffer buffer, float volume, Vector3 position) {
-        final BufferedSoundSource source = obtainSource(buffer);
+        final BufferedSoundSource source = obtainVoice(
+            buffer,
+            false,
+            buffer.getPriority()
+        );
+        if (source == null) {
+            return;
+        }
         source.setVolume(volume);
         source.setPosition(position);
         source.play();
-        source.obtained = false;
+        sourcePool.onSourceReleased(source);
     }
 
     /**
@@ -686,12 +851,19 @@ public class Audio implements Disposable {
         float lowFreqVolume,
         float highFreqVolume
     ) {
-        final BufferedSoundSource source = obtainSource(buffer);
+        final BufferedSoundSource source = obtainVoice(
+            buffer,
+            false,
+            buffer.getPriority()
+        );
+        if (source == null) {
+            return;
+        }
         source.setVolume(volume);
         source.setPosition(position);
         source.setFilter(lowFreqVolume, highFreqVolume);
         source.play();
-        source.obtained = false;
+        sourcePool.onSourceReleased(source);
     }
 
     /**
@@ -708,12 +880,19 @@ public class Audio implements Disposable {
         Vector3 position,
         SoundEffect effect
     ) {
-        final BufferedSoundSource source = obtainSource(buffer);
+        final BufferedSoundSource source = obtainVoice(
+            buffer,
+            false,
+            buffer.getPriority()
+        );
+        if (source == null) {
+            return;
+        }
         source.setVolume(volume);
         source.setPosition(position);
         source.attachEffect(effect);
         source.play();
-        source.obtained = false;
+        sourcePool.onSourceReleased(source);
     }
 
     /**
@@ -730,12 +909,38 @@ public class Audio implements Disposable {
         float pitch,
         Vector3 position
     ) {
-        final BufferedSoundSource source = obtainSource(buffer);
+        this.play3D(buffer, volume, pitch, position, buffer.getPriority());
+    }
+
+    /**
+     * Plays a spatial sound with the given volume, pitch and priority at the given position.
+     *
+     * @param buffer the sound buffer
+     * @param volume in the range of 0.0 - 1.0 with 0 being silent and 1 being the maximum volume. (default 1)
+     * @param pitch in the range of 0.5 - 2.0 with values &lt; 1 making the sound slower and values &gt; 1 making it faster (default 1)
+     * @param position the position in 3D space
+     * @param priority the priority that is used to decide which sound is stopped when the voice limit is reached
+     */
+    protected void play3D(
+        SoundBuffer buffer,
+        float volume,
+        float pitch,
+        Vector3 position,
+        int priority
+    ) {
+        final BufferedSoundSource source = obtainVoice(
+            buffer,
+            false,
+            priority
+        );
+        if (source == null) {
+            return;
+        }
         source.setVolume(volume);
         source.setPitch(pitch);
         source.setPosition(position);
         source.play();
-        source.obtained = false;
+        sourcePool.onSourceReleased(source);
     }
 
     /**
@@ -754,13 +959,20 @@ public class Audio implements Disposable {
         Vector3 position,
         SoundEffect effect
     ) {
-        final BufferedSoundSource source = obtainSource(buffer);
+        final BufferedSoundSource source = obtainVoice(
+            buffer,
+            false,
+            buffer.getPriority()
+        );
+        if (source == null) {
+            return;
+        }
         source.setVolume(volume);
         source.setPitch(pitch);
         source.setPosition(position);
         source.attachEffect(effect);
         source.play();
-        source.obtained = false;
+        sourcePool.onSourceReleased(source);
     }
 
     /**
@@ -913,6 +1125,30 @@ public class Audio implements Disposable {
         return wavDecoderProvider;
     }
 
+    /**
+     * Invoked by the {@link AudioDevice} on an arbitrary OpenAL thread when a source related event occurs.
+     *
+     * @param event the OpenAL event
+     */
+    void onSourceEvent(AlEvent event) {
+        if (
+            event.getEventType() ==
+            SOFTEvents.AL_EVENT_TYPE_SOURCE_STATE_CHANGED_SOFT
+        ) {
+            final SoundSourcePool sourcePool = this.sourcePool;
+            if (sourcePool != null) {
+                sourcePool.onSourceStateChanged(
+                    event.getObject(),
+                    event.getParam()
+                );
+            }
+        }
+        final StreamManager streamManager = this.streamManager;
+        if (streamManager != null && eventDrivenStreaming) {
+            streamManager.onSourceEvent(event.getObject());
+        }
+    }
+
     void onBufferDisposal(SoundBuffer buffer) {
         sourcePool.onBufferDisposal(buffer);
     }
@@ -930,6 +1166,63 @@ public class Audio implements Disposable {
         return nativeDecoderAvailable;
     }
 
+    /**
+     * Starts a batch of updates. All property changes of sources and the listener (position, volume, pitch, speed, direction, etc.) made until
+     * {@link #endUpdate()} is called are deferred and then applied at once, so the mixer never sees them half-applied. This is useful when many sources are
+     * moved each frame.<br>
+     * Calls can be nested, the changes are applied when the outermost batch ends. Call both methods from the same thread and don't forget to end the batch,
+     * deferred changes aren't audible until then.<br>
+     * Uses AL_SOFT_deferred_updates if available and falls back to suspending the context otherwise, which might be a no-op on some implementations.
+     */
+    public void beginUpdate() {
+        if (updateDepth++ == 0) {
+            device.deferUpdates();
+        }
+    }
+
+    /**
+     * Ends a batch of updates started with {@link #beginUpdate()} and applies all deferred property changes at once.
+     */
+    public void endUpdate() {
+        if (updateDepth <= 0) {
+            throw new IllegalStateException(
+                "endUpdate() was called without a matching beginUpdate()"
+            );
+        }
+        if (--updateDepth == 0) {
+            device.processUpdates();
+        }
+    }
+
+    /**
+     * Returns the command queue that lets any thread play sounds and control sources without having to marshal the calls to one thread.
+     *
+     * @return the command queue
+     */
+    public AudioCommandQueue getCommandQueue() {
+        return commandQueue;
+    }
+
+    /**
+     * Returns true if sound sources cache the properties they have sent to OpenAL, see {@link AudioConfig#setSourceStateCache(boolean)}.
+     *
+     * @return true if the source state cache is enabled
+     */
+    public boolean isSourceStateCacheEnabled() {
+        return sourceStateCache;
+    }
+
+    /**
+     * Returns true if the given OpenAL extension is available on the current device.
+     *
+     * @param extension the extension
+     *
+     * @return true if available
+     */
+    public boolean isExtensionAvailable(ALExtension extension) {
+        return device.isExtensionAvailable(extension);
+    }
+
     /**
      * Shuts down TuningFork.
      */
@@ -937,6 +1230,7 @@ public class Audio implements Disposable {
     public void dispose() {
         publicFilter.dispose();
         streamManager.dispose();
+        commandQueue.dispose();
         stopAllBufferedSources();
         sourcePool.dispose();
 
@@ -0,0 +1,387 @@
+/**
+ * Copyright 2024 Matthias Finke
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package de.pottgames.tuningfork;
+
+import com.badlogic.gdx.math.Vector3;
+import de.pottgames.tuningfork.logger.TuningForkLogger;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A queue that lets any thread issue audio commands, which are executed in order on a dedicated command thread. The queue is a lock-free ring of preallocated
+ * command objects with multiple producers and a single consumer, so posting a command neither locks nor allocates. If the ring is full, the posting thread
+ * spins until the command thread has caught up.<br>
+ * <br>
+ * Commands aren't synchronized with calls you make directly on other threads, so don't use the same {@link SoundSource} from the queue and from another
+ * thread at the same time. Playing sounds directly while commands are executed is fine.<br>
+ * Use {@link Audio#getCommandQueue()} to access the queue.
+ *
+ * @author Matthias
+ */
+public class AudioCommandQueue implements Executor {
+
+    private final Command[] commands;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private long head = 0L;
+    private final AtomicBoolean waiting = new AtomicBoolean(false);
+    private final Thread commandThread;
+    private volatile boolean running = true;
+    private final TuningForkLogger logger;
+
+    AudioCommandQueue(int capacity, TuningForkLogger logger) {
+        this.logger = logger;
+
+        // THE CAPACITY MUST BE A POWER OF TWO
+        int size = 2;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        mask = size - 1;
+        commands = new Command[size];
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            commands[i] = new Command();
+            sequences.set(i, i);
+        }
+
+        commandThread = new Thread(this::processCommands);
+        commandThread.setName("TuningFork-Command-Thread");
+        commandThread.setDaemon(true);
+        commandThread.start();
+    }
+
+    /**
+     * Plays the sound on the command thread.
+     *
+     * @param buffer the sound buffer
+     * @param volume in the range of 0.0 - 1.0 with 0 being silent and 1 being the maximum volume. (default 1)
+     * @param pitch in the range of 0.5 - 2.0 with values &lt; 1 making the sound slower and values &gt; 1 making it faster (default 1)
+     * @param pan in the range of -1.0 (full left) to 1.0 (full right). (default center 0.0)
+     */
+    public void play(SoundBuffer buffer, float volume, float pitch, float pan) {
+        final Command command = claim();
+        if (command != null) {
+            command.action = CommandAction.PLAY;
+            command.buffer = buffer;
+            command.volume = volume;
+            command.pitch = pitch;
+            command.pan = pan;
+            publish(command);
+        }
+    }
+
+    /**
+     * Plays a spatial sound at the given position on the command thread.
+     *
+     * @param buffer the sound buffer
+     * @param volume in the range of 0.0 - 1.0 with 0 being silent and 1 being the maximum volume. (default 1)
+     * @param pitch in the range of 0.5 - 2.0 with values &lt; 1 making the sound slower and values &gt; 1 making it faster (default 1)
+     * @param x x
+     * @param y y
+     * @param z z
+     */
+    public void play3D(
+        SoundBuffer buffer,
+        float volume,
+        float pitch,
+        float x,
+        float y,
+        float z
+    ) {
+        this.play3D(buffer, volume, pitch, x, y, z, null);
+    }
+
+    /**
+     * Plays a spatial sound with the given effect at the given position on the command thread.
+     *
+     * @param buffer the sound buffer
+     * @param volume in the range of 0.0 - 1.0 with 0 being silent and 1 being the maximum volume. (default 1)
+     * @param pitch in the range of 0.5 - 2.0 with values &lt; 1 making the sound slower and values &gt; 1 making it faster (default 1)
+     * @param x x
+     * @param y y
+     * @param z z
+     * @param effect the effect, may be null
+     */
+    public void play3D(
+        SoundBuffer buffer,
+        float volume,
+        float pitch,
+        float x,
+        float y,
+        float z,
+        SoundEffect effect
+    ) {
+        final Command command = claim();
+        if (command != null) {
+            command.action = CommandAction.PLAY_3D;
+            command.buffer = buffer;
+            command.volume = volume;
+            command.pitch = pitch;
+            command.position.set(x, y, z);
+            command.effect = effect;
+            publish(command);
+        }
+    }
+
+    /**
+     * Stops the sound source on the command thread.
+     *
+     * @param source the sound source
+     */
+    public void stop(SoundSource source) {
+        final Command command = claim();
+        if (command != null) {
+            command.action = CommandAction.STOP;
+            command.source = source;
+            publish(command);
+        }
+    }
+
+    /**
+     * Sets the position of the sound source on the command thread.
+     *
+     * @param source the sound source
+     * @param x x
+     * @param y y
+     * @param z z
+     */
+    public void setPosition(SoundSource source, float x, float y, float z) {
+        final Command command = claim();
+        if (command != null) {
+            command.action = CommandAction.SET_POSITION;
+            command.source = source;
+            command.position.set(x, y, z);
+            publish(command);
+        }
+    }
+
+    /**
+     * Attaches the effect to the sound source on the command thread, see {@link SoundSource#attachEffect(SoundEffect)}.
+     *
+     * @param source the sound source
+     * @param effect the effect
+     */
+    public void attachEffect(SoundSource source, SoundEffect effect) {
+        final Command command = claim();
+        if (command != null) {
+            command.action = CommandAction.ATTACH_EFFECT;
+            command.source = source;
+            command.effect = effect;
+            publish(command);
+        }
+    }
+
+    /**
+     * Executes the runnable on the command thread.
+     *
+     * @param runnable the runnable
+     */
+    @Override
+    public void execute(Runnable runnable) {
+        final Command command = claim();
+        if (command != null) {
+            command.action = CommandAction.RUN;
+            command.runnable = runnable;
+            publish(command);
+        }
+    }
+
+    /**
+     * Claims the next free slot of the ring. Spins if the ring is full, unless this is called from the command thread itself, which would never catch up. In
+     * that case a temporary command is returned and executed right away on publishing.
+     *
+     * @return the command or null if the queue has been disposed
+     */
+    private Command claim() {
+        while (running) {
+            final long ticket = tail.get();
+            final int index = (int) (ticket & mask);
+            final long sequence = sequences.get(index);
+            if (sequence == ticket) {
+                if (tail.compareAndSet(ticket, ticket + 1L)) {
+                    final Command command = commands[index];
+                    command.ticket = ticket;
+                    return command;
+                }
+            } else if (sequence < ticket) {
+                // THE RING IS FULL
+                if (Thread.currentThread() == commandThread) {
+                    final Command command = new Command();
+                    command.ticket = -1L;
+                    return command;
+                }
+                Thread.yield();
+            }
+        }
+
+        return null;
+    }
+
+    private void publish(Command command) {
+        if (command.ticket < 0L) {
+            run(command);
+            return;
+        }
+
+        sequences.set((int) (command.ticket & mask), command.ticket + 1L);
+        if (waiting.get() && waiting.compareAndSet(true, false)) {
+            LockSupport.unpark(commandThread);
+        }
+    }
+
+    private void processCommands() {
+        while (true) {
+            if (poll()) {
+                continue;
+            }
+            if (!running) {
+                break;
+            }
+
+            // A PRODUCER THAT PUBLISHES AFTER THE FLAG IS SET WAKES THIS THREAD UP
+            waiting.set(true);
+            if (isEmpty() && running) {
+                LockSupport.park(this);
+            }
+            waiting.set(false);
+        }
+    }
+
+    private boolean isEmpty() {
+        return sequences.get((int) (head & mask)) != head + 1L;
+    }
+
+    private boolean poll() {
+        if (isEmpty()) {
+            return false;
+        }
+
+        final int index = (int) (head & mask);
+        try {
+            run(commands[index]);
+        } finally {
+            sequences.set(index, head + commands.length);
+            head++;
+        }
+
+        return true;
+    }
+
+    private void run(Command command) {
+        final Audio audio = Audio.get();
+        try {
+            switch (command.action) {
+                case PLAY:
+                    audio.play(
+                        command.buffer,
+                        command.volume,
+                        command.pitch,
+                        command.pan
+                    );
+                    break;
+                case PLAY_3D:
+                    if (command.effect != null) {
+                        audio.play3D(
+                            command.buffer,
+                            command.volume,
+                            command.pitch,
+                            command.position,
+                            command.effect
+                        );
+                    } else {
+                        audio.play3D(
+                            command.buffer,
+                            command.volume,
+                            command.pitch,
+                            command.position
+                        );
+                    }
+                    break;
+                case STOP:
+                    command.source.stop();
+                    break;
+                case SET_POSITION:
+                    command.source.setPosition(command.position);
+                    break;
+                case ATTACH_EFFECT:
+                    command.source.attachEffect(command.effect);
+                    break;
+                case RUN:
+                    command.runnable.run();
+                    break;
+            }
+        } catch (final RuntimeException e) {
+            logger.error(
+                this.getClass(),
+                "Failed to execute the " +
+                    command.action +
+                    " command: " +
+                    e.getMessage()
+            );
+        } finally {
+            command.reset();
+        }
+    }
+
+    void dispose() {
+        running = false;
+        LockSupport.unpark(commandThread);
+        try {
+            commandThread.join(500L);
+        } catch (final InterruptedException e) {
+            // ignore
+        }
+        if (commandThread.isAlive()) {
+            logger.debug(
+                this.getClass(),
+                "The command thread timed out on shutdown."
+            );
+        }
+    }
+
+    private enum CommandAction {
+        PLAY,
+        PLAY_3D,
+        STOP,
+        SET_POSITION,
+        ATTACH_EFFECT,
+        RUN,
+    }
+
+    private static class Command {
+
+        private long ticket;
+        private CommandAction action;
+        private SoundBuffer buffer;
+        private SoundSource source;
+        private SoundEffect effect;
+        private Runnable runnable;
+        private float volume;
+        private float pitch;
+        private float pan;
+        private final Vector3 position = new Vector3();
+
+        private void reset() {
+            action = null;
+            buffer = null;
+            source = null;
+            effect = null;
+            runnable = null;
+        }
+    }
+}
@@ -36,6 +36,12 @@ public class AudioConfig {
     protected TuningForkLogger logger;
     protected WavDecoderProvider wavDecoderProvider;
     protected boolean useNativeDecoders = true;
+    protected boolean eventDrivenStreaming = false;
+    protected boolean sourceStateCache = true;
+    protected int streamThreads = 1;
+    protected int commandQueueCapacity = 1024;
+    protected int maxVoices = 0;
+    protected VoiceStealing voiceStealing = VoiceStealing.OLDEST;
     protected AssetManager assetManager;
 
     /**
@@ -202,6 +208,81 @@ public class AudioConfig {
         return this;
     }
 
+    public int getStreamThreads() {
+        return streamThreads;
+    }
+
+    /**
+     * Sets the number of worker threads that decode and refill {@link StreamedSoundSource}s. The tasks of a single source are always processed in order, but
+     * different sources are processed in parallel when more than one thread is available. The default is 1, only go higher if you plan to make heavy use of
+     * {@link StreamedSoundSource}s simultaneously.
+     *
+     * @param streamThreads the number of threads, values &lt; 1 are treated as 1
+     *
+     * @return this
+     */
+    public AudioConfig setStreamThreads(int streamThreads) {
+        this.streamThreads = Math.max(streamThreads, 1);
+        return this;
+    }
+
+    public int getCommandQueueCapacity() {
+        return commandQueueCapacity;
+    }
+
+    /**
+     * Sets the number of commands the {@link AudioCommandQueue} can hold before posting threads have to wait for the command thread. The capacity is rounded
+     * up to the next power of two. The default is 1024.
+     *
+     * @param capacity the capacity
+     *
+     * @return this
+     */
+    public AudioConfig setCommandQueueCapacity(int capacity) {
+        commandQueueCapacity = Math.max(capacity, 2);
+        return this;
+    }
+
+    public int getMaxVoices() {
+        return maxVoices;
+    }
+
+    /**
+     * Sets a hard limit for the number of sources that are used to play sounds via {@link SoundBuffer#play() SoundBuffer.play()} and
+     * {@link SoundBuffer#play3D(com.badlogic.gdx.math.Vector3) SoundBuffer.play3D()}. When the limit is reached, a playing sound with a lower or equal
+     * priority is stopped to make room for the new one, see {@link #setVoiceStealing(VoiceStealing)}. If there is no such sound, the new sound is dropped.<br>
+     * Sources obtained via {@link Audio#obtainSource(SoundBuffer)} count towards the limit and may steal voices, but are never stolen themselves and are
+     * created even if the limit is reached.<br>
+     * The default is 0, which means there is no limit and new sources are created on demand.
+     *
+     * @param maxVoices the maximum number of voices, values &lt; 1 disable the limit
+     *
+     * @return this
+     */
+    public AudioConfig setMaxVoices(int maxVoices) {
+        this.maxVoices = Math.max(maxVoices, 0);
+        return this;
+    }
+
+    public VoiceStealing getVoiceStealing() {
+        return voiceStealing;
+    }
+
+    /**
+     * Sets the policy to choose the voice that gets stopped when the voice limit is reached. The voice with the lowest priority is always chosen first, the
+     * policy decides between voices of the same priority. The default is {@link VoiceStealing#OLDEST}.
+     *
+     * @param voiceStealing the voice stealing policy
+     *
+     * @return this
+     *
+     * @see #setMaxVoices(int)
+     */
+    public AudioConfig setVoiceStealing(VoiceStealing voiceStealing) {
+        this.voiceStealing = Objects.requireNonNull(voiceStealing);
+        return this;
+    }
+
     public Spatialization getSpatialization() {
         return spatialization;
     }
@@ -278,6 +359,42 @@ public class AudioConfig {
         return this;
     }
 
+    public boolean isEventDrivenStreaming() {
+        return eventDrivenStreaming;
+    }
+
+    /**
+     * If set to true, {@link StreamedSoundSource}s are refilled as soon as OpenAL reports that one of their buffers has been processed or that their
+     * playback state changed (AL_SOFT_EVENTS), instead of being polled every 100 ms. Polling is still performed at a much lower rate as a fallback. The
+     * default is false.
+     *
+     * @param value true to enable event driven streaming
+     *
+     * @return this
+     */
+    public AudioConfig setEventDrivenStreaming(boolean value) {
+        eventDrivenStreaming = value;
+        return this;
+    }
+
+    public boolean isSourceStateCache() {
+        return sourceStateCache;
+    }
+
+    /**
+     * If set to true, every {@link SoundSource} keeps a copy of the properties it has sent to OpenAL (volume, pitch, position, speed, direction, relative
+     * flag, attenuation, filter etc.). Setters that don't change a value skip the OpenAL call and getters don't query OpenAL. Disable this if you modify
+     * sources with raw OpenAL calls, otherwise the copy runs out of sync. The default is true.
+     *
+     * @param value true to enable the state cache
+     *
+     * @return this
+     */
+    public AudioConfig setSourceStateCache(boolean value) {
+        sourceStateCache = value;
+        return this;
+    }
+
     public TuningForkLogger getLogger() {
         return logger;
     }
@@ -354,6 +471,29 @@ public class AudioConfig {
         }
     }
 
+    /**
+     * Holds the policies to choose a voice to stop when the voice limit is reached. The voice with the lowest priority is always chosen first, the policy
+     * decides between voices of the same priority.
+     *
+     * @author Matthias
+     */
+    public enum VoiceStealing {
+        /**
+         * Stops the voice that started playing first.
+         */
+        OLDEST,
+
+        /**
+         * Stops the voice with the lowest volume.
+         */
+        QUIETEST,
+
+        /**
+         * Stops the voice that is farthest away from the {@link SoundListener}.
+         */
+        FARTHEST,
+    }
+
     /**
      * Holds different options for enabling/disabling the virtualization that is performed when playing non-mono audio.
      *
@@ -32,6 +32,7 @@ import org.lwjgl.openal.ALUtil;
 import org.lwjgl.openal.EXTDisconnect;
 import org.lwjgl.openal.EXTEfx;
 import org.lwjgl.openal.EnumerateAllExt;
+import org.lwjgl.openal.SOFTDeferredUpdates;
 import org.lwjgl.openal.SOFTDeviceClock;
 import org.lwjgl.openal.SOFTEventProcI;
 import org.lwjgl.openal.SOFTEvents;
@@ -810,16 +811,66 @@ public class AudioDevice {
         return clockLatencyCache;
     }
 
+    /**
+     * Defers all subsequent property changes of sources and the listener until {@link #processUpdates()} is called. Uses AL_SOFT_deferred_updates if
+     * available and falls back to suspending the context otherwise.
+     */
+    void deferUpdates() {
+        if (isExtensionAvailable(ALExtension.AL_SOFT_DEFERRED_UPDATES)) {
+            SOFTDeferredUpdates.alDeferUpdatesSOFT();
+            errorLogger.checkLogError("Failed to defer updates");
+        } else {
+            ALC10.alcSuspendContext(context);
+            errorLogger.checkLogAlcError(
+                deviceHandle,
+                "Failed to suspend the context"
+            );
+        }
+    }
+
+    /**
+     * Applies all property changes that have been deferred since {@link #deferUpdates()} at once.
+     */
+    void processUpdates() {
+        if (isExtensionAvailable(ALExtension.AL_SOFT_DEFERRED_UPDATES)) {
+            SOFTDeferredUpdates.alProcessUpdatesSOFT();
+            errorLogger.checkLogError("Failed to process deferred updates");
+        } else {
+            ALC10.alcProcessContext(context);
+            errorLogger.checkLogAlcError(
+                deviceHandle,
+                "Failed to process the context"
+            );
+        }
+    }
+
+    /**
+     * Enables the delivery of the given OpenAL event types to {@link #onAlEvent(AlEvent)}. Event types that have been enabled before stay enabled.
+     *
+     * @param eventTypes the event types, see {@link SOFTEvents}
+     */
+    protected void enableEvents(int... eventTypes) {
+        SOFTEvents.alEventControlSOFT(eventTypes, true);
+        errorLogger.checkLogError("Failed to enable OpenAL events");
+    }
+
     /**
      * This method is invoked from OpenAL on an arbitrary thread when an event occurs for which TuningFork has registered.
      *
      * @param event the OpenAL event
      */
     protected void onAlEvent(AlEvent event) {
-        if (
-            event.getEventType() == SOFTEvents.AL_EVENT_TYPE_DISCONNECTED_SOFT
-        ) {
-            Gdx.app.postRunnable(this::onDisconnect);
+        switch (event.getEventType()) {
+            case SOFTEvents.AL_EVENT_TYPE_DISCONNECTED_SOFT:
+                Gdx.app.postRunnable(this::onDisconnect);
+                break;
+            case SOFTEvents.AL_EVENT_TYPE_BUFFER_COMPLETED_SOFT:
+            case SOFTEvents.AL_EVENT_TYPE_SOURCE_STATE_CHANGED_SOFT:
+                final Audio audio = Audio.get();
+                if (audio != null) {
+                    audio.onSourceEvent(event);
+                }
+                break;
         }
     }
 
@@ -16,6 +16,7 @@ import com.badlogic.gdx.math.Vector3;
 import de.pottgames.tuningfork.jukebox.song.SongSource;
 import de.pottgames.tuningfork.logger.ErrorLogger;
 import de.pottgames.tuningfork.logger.TuningForkLogger;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.lwjgl.openal.AL10;
 import org.lwjgl.openal.AL11;
 import org.lwjgl.openal.SOFTSourceStartDelay;
@@ -31,9 +32,16 @@ public class BufferedSoundSource extends SongSource {
     private SoundBuffer buffer;
     private final TuningForkLogger logger;
     private final ErrorLogger errorLogger;
-    boolean obtained = false;
-
-    BufferedSoundSource() {
+    private final SoundSourcePool pool;
+    volatile boolean obtained = false;
+    final AtomicBoolean inFreeList = new AtomicBoolean(false);
+    final AtomicBoolean stopEventReceived = new AtomicBoolean(false);
+    volatile boolean stealPending = false;
+    int priority;
+    long playOrder;
+
+    BufferedSoundSource(SoundSourcePool pool) {
+        this.pool = pool;
         final Audio audio = Audio.get();
         logger = audio.getLogger();
         errorLogger = new ErrorLogger(this.getClass(), logger);
@@ -293,9 +301,9 @@ public class BufferedSoundSource extends SongSource {
                 "Invalid call to BufferedSoundSource.free(), you are not the owner of this sound source."
             );
         }
-        stop();
+        pool.rewind(this);
         setBuffer(null);
         detachAllEffects();
-        obtained = false;
+        pool.onSourceFreed(this);
     }
 }
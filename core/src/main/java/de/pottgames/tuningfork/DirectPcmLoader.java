@@ -0,0 +1,354 @@
+/**
+ * Copyright 2024 Matthias Finke
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package de.pottgames.tuningfork;
+
+import com.badlogic.gdx.Files.FileType;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.StreamUtils;
+import de.pottgames.tuningfork.PcmFormat.PcmDataType;
+import de.pottgames.tuningfork.decoder.PcmDecoder;
+import de.pottgames.tuningfork.decoder.WavDecoder;
+import de.pottgames.tuningfork.decoder.WavFmtChunk;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import org.lwjgl.system.MemoryUtil;
+
+/**
+ * Loads uncompressed wav and aiff files that are present on the file system by reading them into off-heap memory in one go. The audio data is handed to
+ * OpenAL straight from there, without copying it to the heap first, and the memory is freed right after the upload. Big-endian aiff data is converted to the
+ * byte order OpenAL expects in place.<br>
+ * The files aren't memory-mapped on purpose: a mapping can't be released deterministically before Java 9 and keeps the file locked on Windows until the
+ * garbage collector gets to it.<br>
+ * All methods return null if the file can't be loaded this way, in which case the caller is expected to fall back to the stream based loaders.
+ *
+ * @author Matthias
+ *
+ */
+abstract class DirectPcmLoader {
+
+    /**
+     * Loads a wav file with 8-bit or 16-bit integer or 32-bit or 64-bit float pcm data.
+     *
+     * @param file the file handle
+     *
+     * @return the SoundBuffer or null if the file isn't supported
+     */
+    static SoundBuffer loadWav(FileHandle file) {
+        final ByteBuffer data = DirectPcmLoader.read(file);
+        if (data == null) {
+            return null;
+        }
+        try {
+            return DirectPcmLoader.loadWav(data.order(ByteOrder.LITTLE_ENDIAN));
+        } finally {
+            MemoryUtil.memFree(data);
+        }
+    }
+
+    private static SoundBuffer loadWav(ByteBuffer content) {
+        if (
+            content.remaining() < 12 ||
+            !DirectPcmLoader.isId(content, 0, 'R', 'I', 'F', 'F') ||
+            !DirectPcmLoader.isId(content, 8, 'W', 'A', 'V', 'E')
+        ) {
+            return null;
+        }
+
+        WavFmtChunk fmtChunk = null;
+        int position = 12;
+        while (position + 8 <= content.limit()) {
+            final long chunkSize = content.getInt(position + 4) & 0xFFFFFFFFL;
+            final int chunkStart = position + 8;
+
+            if (DirectPcmLoader.isId(content, position, 'f', 'm', 't', ' ')) {
+                if (
+                    chunkSize < 16 ||
+                    chunkStart + chunkSize > content.limit()
+                ) {
+                    return null;
+                }
+                final int[] data = new int[(int) chunkSize];
+                for (int i = 0; i < data.length; i++) {
+                    data[i] = content.get(chunkStart + i) & 0xFF;
+                }
+                fmtChunk = new WavFmtChunk(data);
+            } else if (
+                DirectPcmLoader.isId(content, position, 'd', 'a', 't', 'a')
+            ) {
+                final WavDecoder decoder = DirectPcmLoader.findPcmDecoder(
+                    fmtChunk
+                );
+                if (decoder == null) {
+                    return null;
+                }
+                final int length = (int) Math.min(
+                    chunkSize,
+                    content.limit() - chunkStart
+                );
+                return DirectPcmLoader.upload(
+                    DirectPcmLoader.slice(content, chunkStart, length),
+                    decoder.outputChannels(),
+                    decoder.outputSampleRate(),
+                    decoder.outputBitsPerSample(),
+                    decoder.outputPcmDataType()
+                );
+            }
+
+            // CHUNKS ARE WORD ALIGNED
+            final long next = chunkStart + chunkSize + (chunkSize & 1L);
+            if (next > Integer.MAX_VALUE) {
+                return null;
+            }
+            position = (int) next;
+        }
+
+        return null;
+    }
+
+    /**
+     * Loads an aiff file with uncompressed 8-bit or 16-bit integer data.
+     *
+     * @param file the file handle
+     *
+     * @return the SoundBuffer or null if the file isn't supported
+     */
+    static SoundBuffer loadAiff(FileHandle file) {
+        final ByteBuffer data = DirectPcmLoader.read(file);
+        if (data == null) {
+            return null;
+        }
+        try {
+            return DirectPcmLoader.loadAiff(data.order(ByteOrder.BIG_ENDIAN));
+        } finally {
+            MemoryUtil.memFree(data);
+        }
+    }
+
+    private static SoundBuffer loadAiff(ByteBuffer content) {
+        if (
+            content.remaining() < 12 ||
+            !DirectPcmLoader.isId(content, 0, 'F', 'O', 'R', 'M') ||
+            !DirectPcmLoader.isId(content, 8, 'A', 'I', 'F', 'F')
+        ) {
+            return null;
+        }
+
+        int channels = 0;
+        int bitsPerSample = 0;
+        int sampleRate = 0;
+        int position = 12;
+        while (position + 8 <= content.limit()) {
+            final long chunkSize = content.getInt(position + 4) & 0xFFFFFFFFL;
+            final int chunkStart = position + 8;
+
+            if (DirectPcmLoader.isId(content, position, 'C', 'O', 'M', 'M')) {
+                if (chunkSize < 18 || chunkStart + 18 > content.limit()) {
+                    return null;
+                }
+                channels = content.getShort(chunkStart);
+                bitsPerSample = content.getShort(chunkStart + 6);
+                sampleRate = DirectPcmLoader.readExtendedPrecision(
+                    content,
+                    chunkStart + 8
+                );
+            } else if (
+                DirectPcmLoader.isId(content, position, 'S', 'S', 'N', 'D')
+            ) {
+                if (
+                    (bitsPerSample != 8 && bitsPerSample != 16) ||
+                    sampleRate <= 0 ||
+                    chunkSize < 8
+                ) {
+                    return null;
+                }
+                final long offset = content.getInt(chunkStart) & 0xFFFFFFFFL;
+                final long dataStart = chunkStart + 8L + offset;
+                final long dataEnd = Math.min(
+                    chunkStart + chunkSize,
+                    content.limit()
+                );
+                if (dataStart >= dataEnd) {
+                    return null;
+                }
+                final ByteBuffer data = DirectPcmLoader.slice(
+                    content,
+                    (int) dataStart,
+                    (int) (dataEnd - dataStart)
+                );
+                DirectPcmLoader.toNativeOrder(data, bitsPerSample);
+                return DirectPcmLoader.upload(
+                    data,
+                    channels,
+                    sampleRate,
+                    bitsPerSample,
+                    PcmDataType.INTEGER
+                );
+            }
+
+            final long next = chunkStart + chunkSize + (chunkSize & 1L);
+            if (next > Integer.MAX_VALUE) {
+                return null;
+            }
+            position = (int) next;
+        }
+
+        return null;
+    }
+
+    /**
+     * Reads the whole file into off-heap memory. Returns null if the file isn't present on the file system or can't be read. The returned buffer must be
+     * released via {@link MemoryUtil#memFree(java.nio.Buffer)}.
+     *
+     * @param fileHandle the file handle
+     *
+     * @return the file content or null
+     */
+    static ByteBuffer read(FileHandle fileHandle) {
+        if (fileHandle.type() == FileType.Classpath) {
+            return null;
+        }
+        final File file = fileHandle.file();
+        if (
+            !file.isFile() ||
+            file.length() < 12L ||
+            file.length() > Integer.MAX_VALUE
+        ) {
+            return null;
+        }
+
+        RandomAccessFile randomAccessFile = null;
+        ByteBuffer buffer = null;
+        try {
+            randomAccessFile = new RandomAccessFile(file, "r");
+            final FileChannel channel = randomAccessFile.getChannel();
+            buffer = MemoryUtil.memAlloc((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // keep reading
+            }
+            buffer.flip();
+            return buffer;
+        } catch (final IOException e) {
+            if (buffer != null) {
+                MemoryUtil.memFree(buffer);
+            }
+            return null;
+        } finally {
+            StreamUtils.closeQuietly(randomAccessFile);
+        }
+    }
+
+    /**
+     * Asks the {@link de.pottgames.tuningfork.decoder.WavDecoderProvider WavDecoderProvider} for a decoder and returns it if it is a plain
+     * {@link PcmDecoder}, which means the data can be handed to OpenAL as is. This way, custom providers are respected.
+     *
+     * @param fmtChunk the fmt chunk
+     *
+     * @return the decoder or null
+     */
+    private static WavDecoder findPcmDecoder(WavFmtChunk fmtChunk) {
+        if (fmtChunk == null) {
+            return null;
+        }
+        final WavDecoder decoder = Audio.get()
+            .getWavDecoderProvider()
+            .getDecoder(fmtChunk, false);
+        if (decoder == null || decoder.getClass() != PcmDecoder.class) {
+            return null;
+        }
+        return decoder;
+    }
+
+    private static SoundBuffer upload(
+        ByteBuffer data,
+        int channels,
+        int sampleRate,
+        int bitsPerSample,
+        PcmDataType pcmDataType
+    ) {
+        if (
+            PcmFormat.determineFormat(channels, bitsPerSample, pcmDataType) ==
+            null
+        ) {
+            return null;
+        }
+        return new SoundBuffer(
+            data,
+            channels,
+            sampleRate,
+            bitsPerSample,
+            pcmDataType,
+            -1
+        );
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, int start, int length) {
+        final ByteBuffer duplicate = buffer.duplicate();
+        duplicate.position(start);
+        duplicate.limit(start + length);
+        return duplicate.slice().order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Converts big-endian aiff data to native byte order in place. 8-bit data is converted from signed to unsigned.
+     *
+     * @param data the data
+     * @param bitsPerSample 8 or 16
+     */
+    private static void toNativeOrder(ByteBuffer data, int bitsPerSample) {
+        final int length = data.remaining();
+        if (bitsPerSample == 16) {
+            if (ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN) {
+                return;
+            }
+            for (int i = 0; i + 1 < length; i += 2) {
+                final byte high = data.get(i);
+                data.put(i, data.get(i + 1));
+                data.put(i + 1, high);
+            }
+        } else {
+            for (int i = 0; i < length; i++) {
+                data.put(i, (byte) (data.get(i) + 128));
+            }
+        }
+    }
+
+    private static int readExtendedPrecision(ByteBuffer buffer, int index) {
+        final int exponent = buffer.getShort(index) & 0x7FFF;
+        final long mantissa = buffer.getLong(index + 2);
+        final int shift = 16383 + 63 - exponent;
+        if (shift <= 0 || shift >= 64) {
+            return 0;
+        }
+        return (int) (mantissa >>> shift);
+    }
+
+    private static boolean isId(
+        ByteBuffer buffer,
+        int index,
+        char char1,
+        char char2,
+        char char3,
+        char char4
+    ) {
+        return (
+            buffer.get(index) == char1 &&
+            buffer.get(index + 1) == char2 &&
+            buffer.get(index + 2) == char3 &&
+            buffer.get(index + 3) == char4
+        );
+    }
+}
@@ -14,32 +14,57 @@ package de.pottgames.tuningfork;
 
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.utils.StreamUtils;
+import de.pottgames.tuningfork.PcmFormat.PcmDataType;
+import de.pottgames.tuningfork.bindings.FlacRs;
 import de.pottgames.tuningfork.decoder.FlacInputStream;
+import de.pottgames.tuningfork.decoder.FlacParallelDecoder;
 import de.pottgames.tuningfork.misc.PcmUtil;
 import java.io.File;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.lwjgl.system.MemoryUtil;
 
 public abstract class FlacLoader {
 
     /**
-     * Loads a flac file into a {@link SoundBuffer}.
+     * Files smaller than this number of bytes are always decoded sequentially by {@link #loadParallel(FileHandle)}, splitting them doesn't pay off.
+     */
+    public static final long PARALLEL_THRESHOLD = 1024L * 1024L;
+
+    /**
+     * Set once the native library turns out to lack {@link FlacRs#decodeFlacInto(ByteBuffer, int, ByteBuffer, int)}, which happens with natives that were
+     * built before it was added. The Java decoder is used from then on.
+     */
+    private static volatile boolean decodeIntoMissing = false;
+
+    /**
+     * Loads a flac file into a {@link SoundBuffer}. The native decoder is used if available, see {@link Audio#isNativeDecodersAvailable()}.
      *
      * @param file the file handle
      *
      * @return the SoundBuffer
      */
     public static SoundBuffer load(FileHandle file) {
+        final SoundBuffer result = FlacLoader.loadNative(file, false);
+        if (result != null) {
+            return result;
+        }
         return FlacLoader.load(new FlacInputStream(file), false);
     }
 
     /**
-     * Loads a flac file into a {@link ReadableSoundBuffer}.
+     * Loads a flac file into a {@link ReadableSoundBuffer}. The native decoder is used if available, see {@link Audio#isNativeDecodersAvailable()}.
      *
      * @param file the file handle
      *
      * @return the SoundBuffer
      */
     public static ReadableSoundBuffer loadReadable(FileHandle file) {
+        final SoundBuffer result = FlacLoader.loadNative(file, true);
+        if (result != null) {
+            return (ReadableSoundBuffer) result;
+        }
         return (ReadableSoundBuffer) FlacLoader.load(
             new FlacInputStream(file),
             true
@@ -47,28 +72,25 @@ public abstract class FlacLoader {
     }
 
     /**
-     * Loads a flac file into a {@link SoundBuffer}.
+     * Loads a flac file into a {@link SoundBuffer}. The native decoder is used if available, see {@link Audio#isNativeDecodersAvailable()}.
      *
      * @param file the file
      *
      * @return the SoundBuffer
      */
     public static SoundBuffer load(File file) {
-        return FlacLoader.load(new FlacInputStream(file), false);
+        return FlacLoader.load(new FileHandle(file));
     }
 
     /**
-     * Loads a flac file into a {@link ReadableSoundBuffer}.
+     * Loads a flac file into a {@link ReadableSoundBuffer}. The native decoder is used if available, see {@link Audio#isNativeDecodersAvailable()}.
      *
      * @param file the file
      *
      * @return the SoundBuffer
      */
     public static ReadableSoundBuffer loadReadable(File file) {
-        return (ReadableSoundBuffer) FlacLoader.load(
-            new FlacInputStream(file),
-            true
-        );
+        return FlacLoader.loadReadable(new FileHandle(file));
     }
 
     /**
@@ -96,6 +118,186 @@ public abstract class FlacLoader {
         );
     }
 
+    /**
+     * Loads a flac file into a {@link SoundBuffer} and decodes it on all available cores. The file is split into ranges of frames, found via the SEEKTABLE or
+     * by searching frame headers, which are decoded in parallel straight into a single buffer. This is meant for long files like music tracks.<br>
+     * Files smaller than {@link #PARALLEL_THRESHOLD} and files that can't be decoded this way are loaded sequentially like {@link #load(FileHandle)} does.
+     *
+     * @param file the file handle
+     *
+     * @return the SoundBuffer
+     */
+    public static SoundBuffer loadParallel(FileHandle file) {
+        if (file.length() < FlacLoader.PARALLEL_THRESHOLD) {
+            return FlacLoader.load(file);
+        }
+
+        final FlacParallelDecoder decoder;
+        ByteBuffer buffer = null;
+        try {
+            decoder = new FlacParallelDecoder(
+                file,
+                Runtime.getRuntime().availableProcessors() * 4
+            );
+            if (
+                decoder.getRangeCount() < 2 ||
+                decoder.getByteSize() > Integer.MAX_VALUE - 8
+            ) {
+                return FlacLoader.load(file);
+            }
+            buffer = MemoryUtil.memAlloc((int) decoder.getByteSize());
+            decoder.decode(buffer);
+            buffer.flip();
+        } catch (final RuntimeException e) {
+            if (buffer != null) {
+                MemoryUtil.memFree(buffer);
+            }
+            Audio.get()
+                .getLogger()
+                .debug(
+                    FlacLoader.class,
+                    "Parallel decoding failed, falling back to sequential decoding: " +
+                        e.getMessage()
+                );
+            return FlacLoader.load(file);
+        }
+
+        try {
+            return new SoundBuffer(
+                buffer,
+                decoder.getChannels(),
+                decoder.getSampleRate(),
+                decoder.getBitsPerSample(),
+                PcmDataType.INTEGER,
+                -1
+            );
+        } finally {
+            MemoryUtil.memFree(buffer);
+        }
+    }
+
+    /**
+     * Loads a flac file into a {@link SoundBuffer} and decodes it on all available cores, see {@link #loadParallel(FileHandle)}.
+     *
+     * @param file the file
+     *
+     * @return the SoundBuffer
+     */
+    public static SoundBuffer loadParallel(File file) {
+        return FlacLoader.loadParallel(new FileHandle(file));
+    }
+
+    /**
+     * Decodes a flac file with the native decoder straight into an off-heap buffer. Files on the file system are read into off-heap memory and handed to the
+     * decoder without copying them to the heap.<br>
+     * Returns null if the native decoders aren't available, the native library is outdated or the file has a format TuningFork doesn't support, the Java
+     * decoder takes over in that case.
+     *
+     * @param file the file handle
+     * @param readable true to create a {@link ReadableSoundBuffer}
+     *
+     * @return the SoundBuffer or null
+     */
+    private static SoundBuffer loadNative(FileHandle file, boolean readable) {
+        if (!Audio.get().isNativeDecodersAvailable() || decodeIntoMissing) {
+            return null;
+        }
+
+        ByteBuffer input = DirectPcmLoader.read(file);
+        if (input == null) {
+            final byte[] bytes = file.readBytes();
+            input = MemoryUtil.memAlloc(bytes.length);
+            input.put(bytes).flip();
+        }
+        input.order(ByteOrder.BIG_ENDIAN);
+
+        ByteBuffer output = null;
+        try {
+            // STREAMINFO IS ALWAYS THE FIRST METADATA BLOCK
+            if (
+                input.limit() < 42 ||
+                input.get(0) != 'f' ||
+                input.get(1) != 'L' ||
+                input.get(2) != 'a' ||
+                input.get(3) != 'C' ||
+                (input.get(4) & 0x7F) != 0
+            ) {
+                return null;
+            }
+            final int sampleRate =
+                ((input.get(18) & 0xFF) << 12) |
+                ((input.get(19) & 0xFF) << 4) |
+                ((input.get(20) & 0xFF) >>> 4);
+            final int channels = ((input.get(20) >>> 1) & 0x7) + 1;
+            final int bitsPerSample =
+                (((input.get(20) & 0x1) << 4) |
+                    ((input.get(21) & 0xFF) >>> 4)) +
+                1;
+            final long totalSamples =
+                ((long) (input.get(21) & 0xF) << 32) |
+                (input.getInt(22) & 0xFFFFFFFFL);
+            final long byteSize = totalSamples * channels * (bitsPerSample / 8);
+            if (
+                !PcmFormat.isSupportedChannelCount(channels) ||
+                (bitsPerSample != 8 && bitsPerSample != 16) ||
+                byteSize <= 0L ||
+                byteSize > Integer.MAX_VALUE - 8
+            ) {
+                return null;
+            }
+
+            output = MemoryUtil.memAlloc((int) byteSize);
+            final long written;
+            try {
+                written = FlacRs.decodeFlacInto(
+                    input,
+                    input.limit(),
+                    output,
+                    output.capacity()
+                );
+            } catch (final UnsatisfiedLinkError e) {
+                decodeIntoMissing = true;
+                Audio.get()
+                    .getLogger()
+                    .warn(
+                        FlacLoader.class,
+                        "The native decoders are outdated, falling back to the Java flac decoder: " +
+                            e.getMessage()
+                    );
+                return null;
+            }
+            if (written < 0L) {
+                throw new TuningForkRuntimeException("Error decoding " + file);
+            }
+            output.limit((int) written);
+
+            if (readable) {
+                final byte[] pcm = new byte[(int) written];
+                output.get(pcm);
+                return new ReadableSoundBuffer(
+                    pcm,
+                    channels,
+                    sampleRate,
+                    bitsPerSample,
+                    PcmDataType.INTEGER
+                );
+            }
+            return new SoundBuffer(
+                output,
+                channels,
+                sampleRate,
+                bitsPerSample,
+                PcmDataType.INTEGER,
+                -1
+            );
+        } finally {
+            if (output != null) {
+                MemoryUtil.memFree(output);
+            }
+            MemoryUtil.memFree(input);
+        }
+    }
+
     /**
      * Loads a {@link SoundBuffer} from a {@link FlacInputStream}.
      *
@@ -52,7 +52,7 @@ public abstract class Mp3Loader {
      * @return the SoundBuffer
      */
     public static SoundBuffer load(FileHandle file) {
-        return Mp3Loader.load(file.read());
+        return Mp3Loader.load(file.read(), file.length());
     }
 
     /**
@@ -74,9 +74,22 @@ public abstract class Mp3Loader {
      * @return the SoundBuffer
      */
     public static SoundBuffer load(InputStream stream) {
+        return Mp3Loader.load(stream, -1L);
+    }
+
+    /**
+     * Decodes the mp3 straight into an off-heap buffer. If the length of the stream is known, the buffer is preallocated based on the bitrate of the first
+     * frame.
+     *
+     * @param stream the input stream
+     * @param streamLength the length of the stream in bytes or -1 if unknown
+     *
+     * @return the SoundBuffer
+     */
+    private static SoundBuffer load(InputStream stream, long streamLength) {
         SoundBuffer result = null;
 
-        final ByteArrayOutputStream output = new ByteArrayOutputStream(4096);
+        PcmAccumulator output = null;
         final Bitstream bitstream = new Bitstream(stream);
         final MP3Decoder decoder = new MP3Decoder();
         try {
@@ -93,6 +106,13 @@ public abstract class Mp3Loader {
                     outputBuffer = new OutputBuffer(channels, false);
                     decoder.setOutputBuffer(outputBuffer);
                     sampleRate = header.getSampleRate();
+                    output = new PcmAccumulator(
+                        Mp3Loader.expectedBytes(
+                            header,
+                            streamLength,
+                            channels
+                        )
+                    );
                 }
                 try {
                     decoder.decodeFrame(header, bitstream);
@@ -103,23 +123,44 @@ public abstract class Mp3Loader {
                 output.write(outputBuffer.getBuffer(), 0, outputBuffer.reset());
             }
             bitstream.close();
+            if (output == null) {
+                throw new TuningForkRuntimeException("No mp3 frames found.");
+            }
             result = new SoundBuffer(
-                output.toByteArray(),
+                output.data(),
                 channels,
                 sampleRate,
                 16,
-                PcmDataType.INTEGER
+                PcmDataType.INTEGER,
+                -1
             );
         } catch (final Throwable ex) {
             throw new TuningForkRuntimeException(
                 "Error reading audio data.",
                 ex
             );
+        } finally {
+            if (output != null) {
+                output.dispose();
+            }
         }
 
         return result;
     }
 
+    private static long expectedBytes(
+        Header header,
+        long streamLength,
+        int channels
+    ) {
+        final int bitrate = header.bitrate();
+        if (streamLength <= 0L || bitrate <= 0) {
+            return -1L;
+        }
+        final double seconds = streamLength * 8d / bitrate;
+        return (long) (seconds * header.getSampleRate()) * channels * 2L;
+    }
+
     /**
      * Loads a mp3 into a {@link ReadableSoundBuffer} and closes the InputStream afterward.
      *
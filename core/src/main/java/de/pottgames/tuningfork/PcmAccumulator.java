@@ -0,0 +1,157 @@
+/**
+ * Copyright 2024 Matthias Finke
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package de.pottgames.tuningfork;
+
+import com.badlogic.gdx.utils.Disposable;
+import de.pottgames.tuningfork.decoder.AudioStream;
+import java.nio.ByteBuffer;
+import org.lwjgl.system.MemoryUtil;
+
+/**
+ * Collects decoded audio data in a single off-heap buffer that can be handed to OpenAL without further copies. The buffer is preallocated with the expected
+ * size and only grows geometrically if the expectation was too low. Must be disposed to free the native memory.
+ *
+ * @author Matthias
+ */
+class PcmAccumulator implements Disposable {
+
+    private static final int MIN_CAPACITY = 65536;
+    private static final int HEADROOM = 4096;
+
+    private ByteBuffer buffer;
+
+    /**
+     * Creates an accumulator.
+     *
+     * @param expectedBytes the expected number of bytes or a value &lt;= 0 if unknown
+     */
+    PcmAccumulator(long expectedBytes) {
+        final long capacity = expectedBytes > 0L
+            ? expectedBytes + PcmAccumulator.HEADROOM
+            : PcmAccumulator.MIN_CAPACITY;
+        buffer = MemoryUtil.memAlloc(
+            (int) Math.min(capacity, Integer.MAX_VALUE - 8)
+        );
+    }
+
+    /**
+     * Returns the expected number of bytes the stream will deliver based on its duration, or -1 if the duration is unknown.
+     *
+     * @param stream the audio stream
+     *
+     * @return expected number of bytes or -1
+     */
+    static long expectedBytes(AudioStream stream) {
+        final float duration = stream.getDuration();
+        if (duration <= 0f) {
+            return -1L;
+        }
+        final long frames = (long) Math.ceil(
+            (double) duration * stream.getSampleRate()
+        );
+        return (
+            (frames * stream.getChannels() * stream.getBitsPerSample() + 7L) /
+            8L
+        );
+    }
+
+    /**
+     * Reads the stream until it ends. Each read is offered at least {@value #HEADROOM} bytes, which is room for a whole sample frame of any format. Streams
+     * that decode bigger units, like mp3 frames, keep the part that doesn't fit for the next read.
+     *
+     * @param stream the audio stream
+     */
+    void readFully(AudioStream stream) {
+        while (true) {
+            ensureRemaining(PcmAccumulator.HEADROOM);
+            final int bytesRead = stream.read(buffer);
+            if (bytesRead <= 0) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Appends the given bytes.
+     *
+     * @param bytes the bytes
+     * @param offset the offset
+     * @param length the number of bytes
+     */
+    void write(byte[] bytes, int offset, int length) {
+        ensureRemaining(length);
+        buffer.put(bytes, offset, length);
+    }
+
+    /**
+     * Returns the number of bytes written so far.
+     *
+     * @return number of bytes
+     */
+    int size() {
+        return buffer.position();
+    }
+
+    /**
+     * Returns a view of the bytes written so far, ready to be uploaded.
+     *
+     * @return the data
+     */
+    ByteBuffer data() {
+        final ByteBuffer data = buffer.duplicate();
+        data.flip();
+        return data;
+    }
+
+    /**
+     * Copies the bytes written so far to a new array.
+     *
+     * @return the data
+     */
+    byte[] toByteArray() {
+        final byte[] result = new byte[buffer.position()];
+        data().get(result);
+        return result;
+    }
+
+    private void ensureRemaining(int bytes) {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        final long required = (long) buffer.position() + bytes;
+        final long grown = Math.max(
+            required,
+            buffer.capacity() + (buffer.capacity() >> 1)
+        );
+        if (required > Integer.MAX_VALUE - 8) {
+            throw new TuningForkRuntimeException(
+                "Audio data exceeds the maximum buffer size"
+            );
+        }
+        final int position = buffer.position();
+        buffer = MemoryUtil.memRealloc(
+            buffer,
+            (int) Math.min(grown, Integer.MAX_VALUE - 8)
+        );
+        buffer.limit(buffer.capacity());
+        buffer.position(position);
+    }
+
+    @Override
+    public void dispose() {
+        if (buffer != null) {
+            MemoryUtil.memFree(buffer);
+            buffer = null;
+        }
+    }
+}
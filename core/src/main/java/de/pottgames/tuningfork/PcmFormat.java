@@ -13,9 +13,12 @@
 package de.pottgames.tuningfork;
 
 import org.lwjgl.openal.AL10;
+import org.lwjgl.openal.EXTAlaw;
 import org.lwjgl.openal.EXTDouble;
 import org.lwjgl.openal.EXTFloat32;
+import org.lwjgl.openal.EXTIMA4;
 import org.lwjgl.openal.EXTMCFormats;
+import org.lwjgl.openal.EXTMulaw;
 import org.lwjgl.openal.SOFTMSADPCM;
 
 public enum PcmFormat {
@@ -96,7 +99,13 @@ public enum PcmFormat {
         2,
         4,
         PcmDataType.MS_ADPCM
-    );
+    ),
+    IMA4_MONO(EXTIMA4.AL_FORMAT_MONO_IMA4, 1, 4, PcmDataType.IMA4),
+    IMA4_STEREO(EXTIMA4.AL_FORMAT_STEREO_IMA4, 2, 4, PcmDataType.IMA4),
+    MULAW_MONO(EXTMulaw.AL_FORMAT_MONO_MULAW_EXT, 1, 8, PcmDataType.MULAW),
+    MULAW_STEREO(EXTMulaw.AL_FORMAT_STEREO_MULAW_EXT, 2, 8, PcmDataType.MULAW),
+    ALAW_MONO(EXTAlaw.AL_FORMAT_MONO_ALAW_EXT, 1, 8, PcmDataType.ALAW),
+    ALAW_STEREO(EXTAlaw.AL_FORMAT_STEREO_ALAW_EXT, 2, 8, PcmDataType.ALAW);
 
     private final int alId;
     private final int channels;
@@ -216,6 +225,27 @@ public enum PcmFormat {
                 case 2:
                     return PcmFormat.MS_ADPCM_STEREO;
             }
+        } else if (pcmDataType == PcmDataType.IMA4) {
+            switch (channels) {
+                case 1:
+                    return PcmFormat.IMA4_MONO;
+                case 2:
+                    return PcmFormat.IMA4_STEREO;
+            }
+        } else if (pcmDataType == PcmDataType.MULAW && bitsPerSample == 8) {
+            switch (channels) {
+                case 1:
+                    return PcmFormat.MULAW_MONO;
+                case 2:
+                    return PcmFormat.MULAW_STEREO;
+            }
+        } else if (pcmDataType == PcmDataType.ALAW && bitsPerSample == 8) {
+            switch (channels) {
+                case 1:
+                    return PcmFormat.ALAW_MONO;
+                case 2:
+                    return PcmFormat.ALAW_STEREO;
+            }
         }
 
         return null;
@@ -225,5 +255,8 @@ public enum PcmFormat {
         INTEGER,
         FLOAT,
         MS_ADPCM,
+        IMA4,
+        MULAW,
+        ALAW,
     }
 }
@@ -14,6 +14,7 @@ package de.pottgames.tuningfork;
 
 import com.badlogic.gdx.utils.Disposable;
 import com.badlogic.gdx.utils.IntArray;
+import de.pottgames.tuningfork.decoder.AudioStream;
 import de.pottgames.tuningfork.logger.ErrorLogger;
 import de.pottgames.tuningfork.logger.TuningForkLogger;
 import java.nio.ByteBuffer;
@@ -97,6 +98,32 @@ public class PcmSoundSource extends SoundSource implements Disposable {
         }
     }
 
+    /**
+     * Reads the next chunk of pcm data from the given stream directly into native memory and adds it to the queue of this sound source. The stream must
+     * deliver data in the pcm format and sample rate this sound source was created with.<br>
+     * <br>
+     * <b>Note:</b> An underflow of pcm data will cause the source to stop playing. If you want it to keep playing, call {@link SoundSource#play() play()} after
+     * queueing samples.
+     *
+     * @param stream the audio stream to read from
+     *
+     * @return number of bytes queued or -1 if the stream has no bytes left
+     */
+    public int queueSamples(AudioStream stream) {
+        unqueueProcessedBuffers();
+
+        tempBuffer.clear();
+        final int length = stream.read(tempBuffer);
+        if (length <= 0) {
+            return -1;
+        }
+        tempBuffer.flip();
+        final int alBufferId = getFreeBufferId();
+        AL10.alBufferData(alBufferId, formatAlId, tempBuffer, sampleRate);
+        AL10.alSourceQueueBuffers(sourceId, alBufferId);
+        return length;
+    }
+
     /**
      * Adds pcm data to the queue of this sound source.<br>
      * <br>
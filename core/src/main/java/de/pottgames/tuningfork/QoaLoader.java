@@ -15,13 +15,22 @@ package de.pottgames.tuningfork;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.utils.StreamUtils;
+import de.pottgames.tuningfork.PcmFormat.PcmDataType;
 import de.pottgames.tuningfork.decoder.QoaInputStream;
+import de.pottgames.tuningfork.decoder.QoaParallelDecoder;
 import de.pottgames.tuningfork.misc.PcmUtil;
 import java.io.File;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import org.lwjgl.system.MemoryUtil;
 
 public class QoaLoader {
 
+    /**
+     * Files smaller than this number of bytes are always decoded sequentially by {@link #loadParallel(FileHandle)}, splitting them doesn't pay off.
+     */
+    public static final long PARALLEL_THRESHOLD = 256L * 1024L;
+
     /**
      * Loads a qoa file into a {@link SoundBuffer}.
      *
@@ -70,6 +79,64 @@ public class QoaLoader {
         return QoaLoader.loadReadable(input);
     }
 
+    /**
+     * Loads a qoa file into a {@link SoundBuffer} and decodes it on all available cores. Qoa frames are self-contained, so ranges of frames are decoded in
+     * parallel straight into a single buffer. Files smaller than {@link #PARALLEL_THRESHOLD} are loaded sequentially like {@link #load(FileHandle)} does.
+     *
+     * @param file the file handle
+     *
+     * @return the SoundBuffer
+     */
+    public static SoundBuffer loadParallel(FileHandle file) {
+        if (file.length() < QoaLoader.PARALLEL_THRESHOLD) {
+            return QoaLoader.load(file);
+        }
+
+        final QoaParallelDecoder decoder = new QoaParallelDecoder(
+            file,
+            Runtime.getRuntime().availableProcessors() * 2
+        );
+        if (decoder.getRangeCount() < 2) {
+            return QoaLoader.load(file);
+        }
+        if (decoder.getByteSize() > Integer.MAX_VALUE - 8) {
+            throw new TuningForkRuntimeException(
+                "Audio data exceeds the maximum buffer size: " + file
+            );
+        }
+
+        final ByteBuffer buffer = MemoryUtil.memAlloc(
+            (int) decoder.getByteSize()
+        );
+        try {
+            decoder.decode(buffer);
+            buffer.flip();
+            return new SoundBuffer(
+                buffer,
+                decoder.getChannels(),
+                decoder.getSampleRate(),
+                decoder.getBitsPerSample(),
+                PcmDataType.INTEGER,
+                -1
+            );
+        } finally {
+            MemoryUtil.memFree(buffer);
+        }
+    }
+
+    /**
+     * Loads a qoa file into a {@link SoundBuffer} and decodes it on all available cores, see {@link #loadParallel(FileHandle)}.
+     *
+     * @param file the file
+     *
+     * @return the SoundBuffer
+     */
+    public static SoundBuffer loadParallel(File file) {
+        return QoaLoader.loadParallel(
+            Gdx.files.absolute(file.getAbsolutePath())
+        );
+    }
+
     /**
      * Loads a {@link SoundBuffer} from an {@link InputStream} and closes it afterwards.
      *
@@ -103,12 +170,17 @@ public class QoaLoader {
      */
     public static SoundBuffer load(QoaInputStream input) {
         SoundBuffer result = null;
+        ByteBuffer buffer = null;
         try {
-            final byte[] buffer =
-                new byte[(int) input.totalSamplesPerChannel() *
+            buffer = MemoryUtil.memAlloc(
+                (int) input.totalSamplesPerChannel() *
                     input.getChannels() *
-                    (input.getBitsPerSample() / 8)];
-            input.read(buffer);
+                    (input.getBitsPerSample() / 8)
+            );
+            while (buffer.hasRemaining() && input.read(buffer) > 0) {
+                // decode straight into the off-heap buffer
+            }
+            buffer.flip();
             result = new SoundBuffer(
                 buffer,
                 input.getChannels(),
@@ -118,6 +190,9 @@ public class QoaLoader {
                 input.getBlockAlign()
             );
         } finally {
+            if (buffer != null) {
+                MemoryUtil.memFree(buffer);
+            }
             StreamUtils.closeQuietly(input);
         }
 
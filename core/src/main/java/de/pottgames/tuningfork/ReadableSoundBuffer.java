@@ -62,7 +62,7 @@ public class ReadableSoundBuffer extends SoundBuffer {
      * @param sampleRate number of samples per second
      * @param bitsPerSample number of bits per sample
      * @param pcmDataType the pcm data type
-     * @param blockAlign the block alignment (currently only used for MS ADPCM data)
+     * @param blockAlign the block alignment (currently only used for ADPCM data)
      */
     public ReadableSoundBuffer(
         ShortBuffer pcm,
@@ -90,7 +90,7 @@ public class ReadableSoundBuffer extends SoundBuffer {
 
     /**
      * Creates a SoundBuffer with the given pcm data.<br>
-     * Consider using {@link #ReadableSoundBuffer(byte[], int, int, int, PcmDataType)} instead if you're not providing MS_ADPCM data.<br>
+     * Consider using {@link #ReadableSoundBuffer(byte[], int, int, int, PcmDataType)} instead if you're not providing ADPCM data.<br>
      * 8-bit data is expressed as an unsigned value over the range 0 to 255, 128 being an audio output level of zero .<br>
      * 16-bit data is expressed as a signed value over the range -32768 to 32767, 0 being an audio output level of zero.<br>
      * Stereo data is expressed in an interleaved format, left channel sample followed by the right channel sample.<br>
@@ -101,7 +101,7 @@ public class ReadableSoundBuffer extends SoundBuffer {
      * @param sampleRate number of samples per second
      * @param bitsPerSample number of bits per sample
      * @param pcmDataType the pcm data type
-     * @param blockAlign the block alignment (currently only used for MS ADPCM data)
+     * @param blockAlign the block alignment (currently only used for ADPCM data)
      */
     public ReadableSoundBuffer(
         byte[] pcm,
@@ -0,0 +1,320 @@
+/**
+ * Copyright 2024 Matthias Finke
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package de.pottgames.tuningfork;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.StreamUtils;
+import de.pottgames.tuningfork.PcmFormat.PcmDataType;
+import de.pottgames.tuningfork.decoder.AudioStream;
+import de.pottgames.tuningfork.logger.TuningForkLogger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A handle for a batch of sound files that are loaded in the background, see {@link SoundLoader#loadAll(Collection)}. The files are decoded in parallel on a
+ * pool with one thread per available processor. The decoded data is funneled into a single upload thread that creates the {@link SoundBuffer SoundBuffers}.
+ * Decoded data that waits for the upload is limited to a memory budget. The expected size of a file is reserved before it gets decoded, decoder threads
+ * block until the upload thread has released enough of the budget. The expectation is based on the duration of the file. If a file turns out bigger, it
+ * gives its reservation back and waits for its full size, so at most one file per decoder thread is held outside the budget.
+ *
+ * @author Matthias
+ */
+public class SoundBatch {
+
+    private final List<FileHandle> files;
+    private final List<CompletableFuture<SoundBuffer>> futures;
+    private final CompletableFuture<Void> allDone;
+    private final AtomicInteger loaded = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final Semaphore memoryBudget;
+    private final int memoryBudgetKb;
+    private final TuningForkLogger logger;
+
+    SoundBatch(Collection<FileHandle> files, long maxBytesInFlight) {
+        this.files = Collections.unmodifiableList(new ArrayList<>(files));
+        logger = Audio.get().getLogger();
+        memoryBudgetKb = (int) Math.max(
+            1L,
+            Math.min(maxBytesInFlight / 1024L, Integer.MAX_VALUE)
+        );
+        memoryBudget = new Semaphore(memoryBudgetKb);
+
+        final ForkJoinPool decodePool = new ForkJoinPool(
+            Runtime.getRuntime().availableProcessors()
+        );
+        final ExecutorService uploadService = Executors.newSingleThreadExecutor(
+            runnable -> {
+                final Thread thread = new Thread(
+                    runnable,
+                    "TuningFork-Upload-Thread"
+                );
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+
+        final List<CompletableFuture<SoundBuffer>> futures = new ArrayList<>(
+            this.files.size()
+        );
+        for (final FileHandle file : this.files) {
+            final CompletableFuture<SoundBuffer> future =
+                CompletableFuture.supplyAsync(() -> decode(file), decodePool)
+                    .thenApplyAsync(this::upload, uploadService)
+                    .whenComplete((buffer, throwable) -> {
+                        if (throwable != null) {
+                            failed.incrementAndGet();
+                            final Throwable cause = throwable.getCause() != null
+                                ? throwable.getCause()
+                                : throwable;
+                            logger.error(
+                                this.getClass(),
+                                "Failed to load " +
+                                    file +
+                                    ": " +
+                                    cause.getMessage()
+                            );
+                        } else {
+                            loaded.incrementAndGet();
+                        }
+                    });
+            futures.add(future);
+        }
+        this.futures = Collections.unmodifiableList(futures);
+
+        allDone = CompletableFuture.allOf(
+            futures.toArray(new CompletableFuture[0])
+        ).handle((result, throwable) -> null);
+        allDone.thenRun(() -> {
+            decodePool.shutdown();
+            uploadService.shutdown();
+        });
+    }
+
+    private DecodedSound decode(FileHandle file) {
+        final AudioStream stream = SoundLoader.createAudioStream(file, false);
+        if (stream == null) {
+            throw new TuningForkRuntimeException(
+                "Unsupported file type: " + file
+            );
+        }
+
+        PcmAccumulator accumulator = null;
+        int permits = 0;
+        try {
+            // RESERVE THE EXPECTED SIZE BEFORE DECODING
+            final long expectedBytes = PcmAccumulator.expectedBytes(stream);
+            final int reserved = permitsFor(expectedBytes);
+            memoryBudget.acquire(reserved);
+            permits = reserved;
+
+            accumulator = new PcmAccumulator(expectedBytes);
+            accumulator.readFully(stream);
+
+            // THE EXPECTATION WAS TOO LOW, WAIT UNTIL THE UPLOAD THREAD HAS CAUGHT UP
+            final int required = permitsFor(accumulator.size());
+            if (required > permits) {
+                // holding on to the reservation while waiting could deadlock the decoder threads
+                memoryBudget.release(permits);
+                permits = 0;
+                memoryBudget.acquire(required);
+                permits = required;
+            }
+
+            final DecodedSound sound = new DecodedSound(
+                accumulator,
+                stream.getChannels(),
+                stream.getSampleRate(),
+                stream.getBitsPerSample(),
+                stream.getPcmDataType(),
+                stream.getBlockAlign()
+            );
+            sound.permits = permits;
+            return sound;
+        } catch (final InterruptedException e) {
+            discard(accumulator, permits);
+            Thread.currentThread().interrupt();
+            throw new TuningForkRuntimeException(e);
+        } catch (final RuntimeException e) {
+            discard(accumulator, permits);
+            throw e;
+        } finally {
+            StreamUtils.closeQuietly(stream);
+        }
+    }
+
+    private int permitsFor(long bytes) {
+        return (int) Math.max(
+            1L,
+            Math.min((bytes + 1023L) / 1024L, memoryBudgetKb)
+        );
+    }
+
+    private void discard(PcmAccumulator accumulator, int permits) {
+        if (accumulator != null) {
+            accumulator.dispose();
+        }
+        memoryBudget.release(permits);
+    }
+
+    private SoundBuffer upload(DecodedSound sound) {
+        try {
+            return new SoundBuffer(
+                sound.data.data(),
+                sound.channels,
+                sound.sampleRate,
+                sound.bitsPerSample,
+                sound.pcmDataType,
+                sound.blockAlign
+            );
+        } finally {
+            sound.data.dispose();
+            memoryBudget.release(sound.permits);
+        }
+    }
+
+    /**
+     * Returns the number of files in this batch.
+     *
+     * @return number of files
+     */
+    public int size() {
+        return files.size();
+    }
+
+    /**
+     * Returns the file at the given index, in the order the files were passed in.
+     *
+     * @param index the index
+     *
+     * @return the file
+     */
+    public FileHandle getFile(int index) {
+        return files.get(index);
+    }
+
+    /**
+     * Returns the future of the file at the given index. It completes on the upload thread, exceptionally if the file couldn't be loaded.
+     *
+     * @param index the index
+     *
+     * @return the future
+     */
+    public CompletableFuture<SoundBuffer> getFuture(int index) {
+        return futures.get(index);
+    }
+
+    /**
+     * Returns the futures of all files, in the order the files were passed in.
+     *
+     * @return an unmodifiable list of futures
+     */
+    public List<CompletableFuture<SoundBuffer>> getFutures() {
+        return futures;
+    }
+
+    /**
+     * Returns the number of files that were loaded successfully so far.
+     *
+     * @return number of loaded files
+     */
+    public int getLoadedCount() {
+        return loaded.get();
+    }
+
+    /**
+     * Returns the number of files that failed to load so far.
+     *
+     * @return number of failed files
+     */
+    public int getFailedCount() {
+        return failed.get();
+    }
+
+    /**
+     * Returns the progress in the range of 0 - 1, failed files count as done.
+     *
+     * @return the progress
+     */
+    public float getProgress() {
+        if (files.isEmpty()) {
+            return 1f;
+        }
+        return (loaded.get() + failed.get()) / (float) files.size();
+    }
+
+    /**
+     * Returns true if all files are either loaded or failed.
+     *
+     * @return true if done
+     */
+    public boolean isDone() {
+        return allDone.isDone();
+    }
+
+    /**
+     * Blocks until all files are done and returns the SoundBuffers in the order the files were passed in. Files that failed to load are represented by
+     * null.
+     *
+     * @return a list of SoundBuffers
+     */
+    public List<SoundBuffer> await() {
+        final List<SoundBuffer> result = new ArrayList<>(futures.size());
+        for (final CompletableFuture<SoundBuffer> future : futures) {
+            try {
+                result.add(future.get());
+            } catch (final ExecutionException e) {
+                result.add(null);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TuningForkRuntimeException(e);
+            }
+        }
+        return result;
+    }
+
+    private static class DecodedSound {
+
+        private final PcmAccumulator data;
+        private final int channels;
+        private final int sampleRate;
+        private final int bitsPerSample;
+        private final PcmDataType pcmDataType;
+        private final int blockAlign;
+        private int permits;
+
+        private DecodedSound(
+            PcmAccumulator data,
+            int channels,
+            int sampleRate,
+            int bitsPerSample,
+            PcmDataType pcmDataType,
+            int blockAlign
+        ) {
+            this.data = data;
+            this.channels = channels;
+            this.sampleRate = sampleRate;
+            this.bitsPerSample = bitsPerSample;
+            this.pcmDataType = pcmDataType;
+            this.blockAlign = blockAlign;
+        }
+    }
+}
@@ -44,6 +44,13 @@ public class SoundBuffer implements Disposable {
     private final float duration;
     private final int samplesPerChannel;
     private final float[] loopPointCache = new float[2];
+    private volatile int priority = 0;
+    private volatile int maxInstances = 0;
+    private volatile InstanceLimit instanceLimit = InstanceLimit.REJECT;
+    private volatile long retriggerIntervalNanos = 0L;
+    long lastTriggerTime = Long.MIN_VALUE;
+    volatile int instanceLimitHits = 0;
+    volatile int retriggerLimitHits = 0;
 
     /**
      * Creates a SoundBuffer with the given pcm data.<br>
@@ -81,7 +88,7 @@ public class SoundBuffer implements Disposable {
      * @param sampleRate number of samples per second
      * @param bitsPerSample number of bits per sample
      * @param pcmDataType the pcm data type
-     * @param blockAlign the block alignment (currently only used for MS ADPCM data)
+     * @param blockAlign the block alignment (currently only used for ADPCM data)
      */
     public SoundBuffer(
         ShortBuffer pcm,
@@ -113,9 +120,54 @@ public class SoundBuffer implements Disposable {
         duration = fetchDuration();
     }
 
+    /**
+     * Creates a SoundBuffer with the given pcm data. The data is uploaded from the position to the limit of the buffer, which must be a direct buffer. The
+     * buffer isn't needed anymore once the constructor returns.<br>
+     * 8-bit data is expressed as an unsigned value over the range 0 to 255, 128 being an audio output level of zero .<br>
+     * 16-bit data is expressed as a signed value over the range -32768 to 32767, 0 being an audio output level of zero.<br>
+     * Stereo data is expressed in an interleaved format, left channel sample followed by the right channel sample.<br>
+     * The interleaved format also applies to surround sound.
+     *
+     * @param pcm the pcm data buffer
+     * @param channels number of channels
+     * @param sampleRate number of samples per second
+     * @param bitsPerSample number of bits per sample
+     * @param pcmDataType the pcm data type
+     * @param blockAlign the block alignment (currently only used for ADPCM data)
+     */
+    public SoundBuffer(
+        ByteBuffer pcm,
+        int channels,
+        int sampleRate,
+        int bitsPerSample,
+        PcmDataType pcmDataType,
+        int blockAlign
+    ) {
+        audio = Audio.get();
+        logger = audio.getLogger();
+        errorLogger = new ErrorLogger(this.getClass(), logger);
+
+        pcmFormat = PcmFormat.determineFormat(
+            channels,
+            bitsPerSample,
+            pcmDataType
+        );
+        if (pcmFormat == null) {
+            throw new TuningForkRuntimeException(
+                "Unsupported pcm format - channels: " +
+                    channels +
+                    ", sample depth: " +
+                    bitsPerSample
+            );
+        }
+        bufferId = generateBufferAndUpload(pcm, blockAlign, sampleRate);
+        samplesPerChannel = fetchSamplesPerChannel();
+        duration = fetchDuration();
+    }
+
     /**
      * Creates a SoundBuffer with the given pcm data.<br>
-     * Consider using {@link #SoundBuffer(byte[], int, int, int, PcmDataType)} instead if you're not providing MS_ADPCM data.<br>
+     * Consider using {@link #SoundBuffer(byte[], int, int, int, PcmDataType)} instead if you're not providing ADPCM data.<br>
      * 8-bit data is expressed as an unsigned value over the range 0 to 255, 128 being an audio output level of zero .<br>
      * 16-bit data is expressed as a signed value over the range -32768 to 32767, 0 being an audio output level of zero.<br>
      * Stereo data is expressed in an interleaved format, left channel sample followed by the right channel sample.<br>
@@ -126,7 +178,7 @@ public class SoundBuffer implements Disposable {
      * @param sampleRate number of samples per second
      * @param bitsPerSample number of bits per sample
      * @param pcmDataType the pcm data type
-     * @param blockAlign the block alignment (currently only used for MS ADPCM data)
+     * @param blockAlign the block alignment (currently only used for ADPCM data)
      */
     public SoundBuffer(
         byte[] pcm,
@@ -191,6 +243,28 @@ public class SoundBuffer implements Disposable {
         return bufferId;
     }
 
+    protected int generateBufferAndUpload(
+        ByteBuffer pcm,
+        int blockAlign,
+        int sampleRate
+    ) {
+        final int bufferId = AL10.alGenBuffers();
+        if (blockAlign > 0) {
+            AL11.alBufferi(
+                bufferId,
+                SOFTBlockAlignment.AL_UNPACK_BLOCK_ALIGNMENT_SOFT,
+                blockAlign
+            );
+        }
+        AL10.alBufferData(bufferId, pcmFormat.getAlId(), pcm, sampleRate);
+
+        if (!errorLogger.checkLogError("Failed to create the SoundBuffer")) {
+            logger.debug(this.getClass(), "SoundBuffer successfully created");
+        }
+
+        return bufferId;
+    }
+
     protected int fetchSamplesPerChannel() {
         return AL10.alGetBufferi(
             bufferId,
@@ -284,6 +358,112 @@ public class SoundBuffer implements Disposable {
         return loopPointCache;
     }
 
+    /**
+     * Sets the default priority of this sound. When the voice limit is reached (see {@link AudioConfig#setMaxVoices(int)}), a playing sound with a lower or
+     * equal priority is stopped to make room for a new one. Sounds with a lower priority than all playing sounds are dropped. The default is 0.
+     *
+     * @param priority the priority
+     */
+    public void setPriority(int priority) {
+        this.priority = priority;
+    }
+
+    /**
+     * Returns the default priority of this sound.
+     *
+     * @return the priority
+     *
+     * @see #setPriority(int)
+     */
+    public int getPriority() {
+        return priority;
+    }
+
+    /**
+     * Limits the number of instances of this sound that can play at the same time via {@link #play()}, {@link #play3D(Vector3)} and the other fire-and-forget
+     * methods. When the limit is reached, the policy decides whether the new sound is dropped or replaces a playing instance. Sources obtained via
+     * {@link Audio#obtainSource(SoundBuffer)} don't count. The default is 0, which means unlimited.
+     *
+     * @param maxInstances the maximum number of instances, 0 for unlimited
+     * @param policy the policy that is applied when the limit is reached
+     */
+    public void setMaxInstances(int maxInstances, InstanceLimit policy) {
+        this.maxInstances = Math.max(maxInstances, 0);
+        instanceLimit = policy != null ? policy : InstanceLimit.REJECT;
+    }
+
+    /**
+     * Returns the maximum number of instances of this sound that can play at the same time.
+     *
+     * @return the maximum number of instances, 0 means unlimited
+     *
+     * @see #setMaxInstances(int, InstanceLimit)
+     */
+    public int getMaxInstances() {
+        return maxInstances;
+    }
+
+    /**
+     * Returns the policy that is applied when the instance limit is reached.
+     *
+     * @return the policy
+     *
+     * @see #setMaxInstances(int, InstanceLimit)
+     */
+    public InstanceLimit getInstanceLimit() {
+        return instanceLimit;
+    }
+
+    /**
+     * Sets the minimum time that must pass between two fire-and-forget plays of this sound. Plays within this interval are dropped. The default is 0.
+     *
+     * @param seconds the interval in seconds
+     */
+    public void setRetriggerInterval(float seconds) {
+        retriggerIntervalNanos = (long) (Math.max(seconds, 0f) * 1_000_000_000d);
+    }
+
+    /**
+     * Returns the minimum time that must pass between two fire-and-forget plays of this sound.
+     *
+     * @return the interval in seconds
+     *
+     * @see #setRetriggerInterval(float)
+     */
+    public float getRetriggerInterval() {
+        return retriggerIntervalNanos / 1_000_000_000f;
+    }
+
+    long getRetriggerIntervalNanos() {
+        return retriggerIntervalNanos;
+    }
+
+    /**
+     * Returns how often the instance limit was hit, including the times a playing instance was replaced.
+     *
+     * @return the number of hits
+     */
+    public int getInstanceLimitHits() {
+        return instanceLimitHits;
+    }
+
+    /**
+     * Returns how often a play was dropped because of the retrigger interval.
+     *
+     * @return the number of hits
+     */
+    public int getRetriggerLimitHits() {
+        return retriggerLimitHits;
+    }
+
+    /**
+     * Resets the counters of {@link #getInstanceLimitHits()} and {@link #getRetriggerLimitHits()}.
+     */
+    public void resetLimitHits() {
+        instanceLimitHits = 0;
+        retriggerLimitHits = 0;
+    }
+
     /**
      * Plays the sound.
      */
@@ -385,6 +565,18 @@ public class SoundBuffer implements Disposable {
         audio.play(this, volume, pitch, pan);
     }
 
+    /**
+     * Plays the sound with the given volume, pitch, pan and priority.
+     *
+     * @param volume in the range of 0.0 - 1.0 with 0 being silent and 1 being the maximum volume. (default 1)
+     * @param pitch in the range of 0.5 - 2.0 with values &lt; 1 making the sound slower and values &gt; 1 making it faster (default 1)
+     * @param pan in the range of -1.0 (full left) to 1.0 (full right). (default center 0.0)
+     * @param priority the priority, overrides the default priority of this sound, see {@link #setPriority(int)}
+     */
+    public void play(float volume, float pitch, float pan, int priority) {
+        audio.play(this, volume, pitch, pan, priority);
+    }
+
     /**
      * Plays the sound with the given volume, pitch, pan and effect.
      *
@@ -497,6 +689,23 @@ public class SoundBuffer implements Disposable {
         audio.play3D(this, volume, pitch, position);
     }
 
+    /**
+     * Plays a spatial sound with the given volume, pitch and priority at the given position.
+     *
+     * @param volume in the range of 0.0 - 1.0 with 0 being silent and 1 being the maximum volume. (default 1)
+     * @param pitch in the range of 0.5 - 2.0 with values &lt; 1 making the sound slower and values &gt; 1 making it faster (default 1)
+     * @param position the position in 3D space
+     * @param priority the priority, overrides the default priority of this sound, see {@link #setPriority(int)}
+     */
+    public void play3D(
+        float volume,
+        float pitch,
+        Vector3 position,
+        int priority
+    ) {
+        audio.play3D(this, volume, pitch, position, priority);
+    }
+
     /**
      * Plays a spatial sound with the given volume, pitch and effect at the given position.
      *
@@ -544,4 +753,26 @@ public class SoundBuffer implements Disposable {
             logger.debug(this.getClass(), "SoundBuffer successfully disposed");
         }
     }
+
+    /**
+     * Holds the policies that can be applied when the instance limit of a {@link SoundBuffer} is reached.
+     *
+     * @author Matthias
+     */
+    public enum InstanceLimit {
+        /**
+         * The new sound is dropped.
+         */
+        REJECT,
+
+        /**
+         * The instance that started playing first is replaced by the new sound.
+         */
+        REPLACE_OLDEST,
+
+        /**
+         * The instance with the lowest volume is replaced by the new sound.
+         */
+        REPLACE_QUIETEST,
+    }
 }
@@ -20,6 +20,7 @@ public class SoundListener {
 
     private final float[] orientation = new float[6];
     private final Vector3 tempVector = new Vector3();
+    private final Vector3 position = new Vector3();
 
     SoundListener() {
         // hide public constructor
@@ -51,10 +52,22 @@ public class SoundListener {
     }
 
     public SoundListener setPosition(float x, float y, float z) {
+        position.set(x, y, z);
         AL10.alListener3f(AL10.AL_POSITION, x, y, z);
         return this;
     }
 
+    /**
+     * Retrieves the position of the listener.
+     *
+     * @param saveTo the vector to store the result in
+     *
+     * @return the saveTo vector
+     */
+    public Vector3 getPosition(Vector3 saveTo) {
+        return saveTo.set(position);
+    }
+
     public SoundListener setOrientation(Camera camera) {
         tempVector.set(camera.direction);
         tempVector.crs(camera.up);
@@ -13,10 +13,19 @@
 package de.pottgames.tuningfork;
 
 import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.StreamUtils;
 import de.pottgames.tuningfork.PcmFormat.PcmDataType;
+import de.pottgames.tuningfork.decoder.AiffInputStream;
 import de.pottgames.tuningfork.decoder.AudioStream;
-import java.io.ByteArrayOutputStream;
+import de.pottgames.tuningfork.decoder.FlacInputStream;
+import de.pottgames.tuningfork.decoder.FlacRsInputStream;
+import de.pottgames.tuningfork.decoder.ImaAdpcmRsInputStream;
+import de.pottgames.tuningfork.decoder.Mp3InputStream;
+import de.pottgames.tuningfork.decoder.OggInputStream;
+import de.pottgames.tuningfork.decoder.QoaInputStream;
+import de.pottgames.tuningfork.decoder.WavInputStream;
 import java.io.IOException;
+import java.util.Collection;
 
 /**
  * The SoundLoader class provides utility methods for loading audio files into SoundBuffers.<br>
@@ -33,6 +42,11 @@ import java.io.IOException;
  */
 public abstract class SoundLoader {
 
+    /**
+     * The default memory budget in bytes for decoded data that waits for the upload during batch loading, see {@link #loadAll(Collection)}.
+     */
+    public static final long DEFAULT_BATCH_MEMORY = 256L * 1024L * 1024L;
+
     /**
      * Loads an audio file from the specified FileHandle and returns a SoundBuffer.
      *
@@ -111,38 +125,39 @@ public abstract class SoundLoader {
         AudioStream stream,
         boolean readableBuffer
     ) {
-        final ByteArrayOutputStream buffer = new ByteArrayOutputStream(
-            4096 * 8
+        // DECODE STRAIGHT INTO A PREALLOCATED OFF-HEAP BUFFER
+        final PcmAccumulator accumulator = new PcmAccumulator(
+            PcmAccumulator.expectedBytes(stream)
         );
-        final byte[] tempBuffer = new byte[8192];
-        int numBytesRead = 0;
-        while ((numBytesRead = stream.read(tempBuffer)) > 0) {
-            buffer.write(tempBuffer, 0, numBytesRead);
-        }
+        try {
+            accumulator.readFully(stream);
 
-        final int channels = stream.getChannels();
-        final int sampleRate = stream.getSampleRate();
-        final int bitsPerSample = stream.getBitsPerSample();
-        final PcmDataType pcmDataType = stream.getPcmDataType();
-        final int blockAlign = stream.getBlockAlign();
-        if (readableBuffer) {
-            return new ReadableSoundBuffer(
-                buffer.toByteArray(),
+            final int channels = stream.getChannels();
+            final int sampleRate = stream.getSampleRate();
+            final int bitsPerSample = stream.getBitsPerSample();
+            final PcmDataType pcmDataType = stream.getPcmDataType();
+            final int blockAlign = stream.getBlockAlign();
+            if (readableBuffer) {
+                return new ReadableSoundBuffer(
+                    accumulator.toByteArray(),
+                    channels,
+                    sampleRate,
+                    bitsPerSample,
+                    pcmDataType,
+                    blockAlign
+                );
+            }
+            return new SoundBuffer(
+                accumulator.data(),
                 channels,
                 sampleRate,
                 bitsPerSample,
                 pcmDataType,
                 blockAlign
             );
+        } finally {
+            accumulator.dispose();
         }
-        return new SoundBuffer(
-            buffer.toByteArray(),
-            channels,
-            sampleRate,
-            bitsPerSample,
-            pcmDataType,
-            blockAlign
-        );
     }
 
     /**
@@ -274,4 +289,105 @@ public abstract class SoundLoader {
             "Couldn't identify file type: " + file
         );
     }
+
+    /**
+     * Loads all given audio files in the background and returns a handle to track the progress and to retrieve the results. The files are decoded in
+     * parallel, one thread per available processor, and uploaded to OpenAL one after another on a single upload thread. Decoded data that waits for the
+     * upload is limited to {@value #DEFAULT_BATCH_MEMORY} bytes.
+     *
+     * @param files the audio files
+     *
+     * @return the {@link SoundBatch}
+     */
+    public static SoundBatch loadAll(Collection<FileHandle> files) {
+        return SoundLoader.loadAll(files, SoundLoader.DEFAULT_BATCH_MEMORY);
+    }
+
+    /**
+     * Loads all given audio files in the background and returns a handle to track the progress and to retrieve the results. The files are decoded in
+     * parallel, one thread per available processor, and uploaded to OpenAL one after another on a single upload thread.
+     *
+     * @param files the audio files
+     * @param maxBytesInFlight the maximum number of bytes of decoded data that may wait for the upload, decoder threads block when it's exceeded. A single
+     *            file that is larger than this is still loaded.
+     *
+     * @return the {@link SoundBatch}
+     */
+    public static SoundBatch loadAll(
+        Collection<FileHandle> files,
+        long maxBytesInFlight
+    ) {
+        if (files == null) {
+            throw new TuningForkRuntimeException("files must not be null");
+        }
+        return new SoundBatch(files, maxBytesInFlight);
+    }
+
+    /**
+     * Opens an {@link AudioStream} for the given file. The file type is determined by the file extension or, if that fails, by the file header.
+     *
+     * @param file the file
+     * @param forStreaming true if the stream is used for streaming, which may restrict the choice of decoders. Flac and IMA ADPCM files on the file system are
+     *            streamed with the native decoders if available.
+     *
+     * @return the AudioStream or null if the file type couldn't be identified
+     */
+    static AudioStream createAudioStream(
+        FileHandle file,
+        boolean forStreaming
+    ) {
+        final String fileExtension = file.extension();
+        SoundFileType soundFileType = SoundFileType.getByFileEnding(
+            fileExtension
+        );
+        if (soundFileType == null) {
+            try {
+                soundFileType = SoundFileType.parseFromFile(file);
+            } catch (final IOException e) {
+                // ignore
+            }
+        }
+
+        if (soundFileType != null) {
+            switch (soundFileType) {
+                case FLAC:
+                    if (forStreaming) {
+                        final AudioStream nativeStream = FlacRsInputStream.open(
+                            file
+                        );
+                        if (nativeStream != null) {
+                            return nativeStream;
+                        }
+                    }
+                    return new FlacInputStream(file);
+                case OGG:
+                    return new OggInputStream(file, null);
+                case WAV:
+                    // streamed data goes to OpenAL directly, so it may be passed through. IMA ADPCM prefers the native decoder when it's available
+                    // because decoded pcm can be seeked and looped on any sample frame, passthrough only on block boundaries
+                    final WavInputStream wavStream = new WavInputStream(
+                        file,
+                        forStreaming,
+                        forStreaming
+                    );
+                    if (forStreaming) {
+                        final AudioStream nativeStream =
+                            ImaAdpcmRsInputStream.open(wavStream);
+                        if (nativeStream != null) {
+                            StreamUtils.closeQuietly(wavStream);
+                            return nativeStream;
+                        }
+                    }
+                    return wavStream;
+                case MP3:
+                    return new Mp3InputStream(file);
+                case AIFF:
+                    return new AiffInputStream(file, forStreaming);
+                case QOA:
+                    return new QoaInputStream(file);
+            }
+        }
+
+        return null;
+    }
 }
@@ -28,7 +28,9 @@ import org.lwjgl.openal.SOFTSourceSpatialize;
 
 /**
  * A sound source is used to represent the position, speed and other attributes of a sound in the virtual audio world . It enables you to play, pause, stop,
- * position sounds and let's you set different effects on it.
+ * position sounds and let's you set different effects on it.<br>
+ * Unless disabled via {@link AudioConfig#setSourceStateCache(boolean)}, the source keeps a copy of the properties it has sent to OpenAL. Setters skip the
+ * OpenAL call when the value didn't change and getters are answered from this copy.
  *
  * @author Matthias
  */
@@ -45,9 +47,26 @@ public abstract class SoundSource {
     private volatile int resamplerIndex = -1;
     private boolean directFilter = false;
 
+    // SHADOW STATE OF THE OPENAL SOURCE, ONLY USED IF THE STATE CACHE IS ENABLED
+    private final boolean stateCache;
+    private float alGain = 1f;
+    private float alPitch = 1f;
+    private final Vector3 alVelocity = new Vector3(0f, 0f, 0f);
+    private final Vector3 alDirection = new Vector3(0f, 0f, 0f);
+    private boolean alRelative = false;
+    private float alRolloff = 1f;
+    private float alReferenceDistance = 1f;
+    private float alMaxDistance = Float.MAX_VALUE;
+    private float alRadius = 0f;
+    private Virtualization alVirtualization;
+    private Spatialization alSpatialization;
+    private float alFilterLowFreqVolume = 1f;
+    private float alFilterHighFreqVolume = 1f;
+
     protected SoundSource() {
         final Audio audio = Audio.get();
         logger = audio.getLogger();
+        stateCache = audio.isSourceStateCacheEnabled();
         errorLogger = new ErrorLogger(this.getClass(), logger);
         effects = new SoundEffect[audio.getDevice().getNumberOfEffectSlots()];
 
@@ -74,7 +93,12 @@ public abstract class SoundSource {
      * @param volume in the range of 0.0 - 1.0 with 0 being silent and 1 being the maximum volume. (default 1)
      */
     public void setVolume(float volume) {
-        AL10.alSourcef(sourceId, AL10.AL_GAIN, MathUtils.clamp(volume, 0f, 1f));
+        volume = MathUtils.clamp(volume, 0f, 1f);
+        if (stateCache && volume == alGain) {
+            return;
+        }
+        alGain = volume;
+        AL10.alSourcef(sourceId, AL10.AL_GAIN, volume);
     }
 
     /**
@@ -83,6 +107,9 @@ public abstract class SoundSource {
      * @return volume in the range of 0.0 - 1.0 with 0 being silent and 1 being the maximum volume
      */
     public float getVolume() {
+        if (stateCache) {
+            return alGain;
+        }
         return AL10.alGetSourcef(sourceId, AL10.AL_GAIN);
     }
 
@@ -96,6 +123,10 @@ public abstract class SoundSource {
         if (pitch < 0f) {
             pitch = 0f;
         }
+        if (stateCache && pitch == alPitch) {
+            return;
+        }
+        alPitch = pitch;
         AL10.alSourcef(sourceId, AL10.AL_PITCH, pitch);
     }
 
@@ -105,6 +136,9 @@ public abstract class SoundSource {
      * @return pitch in the range of 0.5 - 2.0 with values &lt; 1 making the sound slower and values &gt; 1 making it faster
      */
     public float getPitch() {
+        if (stateCache) {
+            return alPitch;
+        }
         return AL10.alGetSourcef(sourceId, AL10.AL_PITCH);
     }
 
@@ -125,6 +159,10 @@ public abstract class SoundSource {
      * @param relative true = relative, false = absolute
      */
     public void setRelative(boolean relative) {
+        if (stateCache && relative == alRelative) {
+            return;
+        }
+        alRelative = relative;
         AL10.alSourcei(
             sourceId,
             AL10.AL_SOURCE_RELATIVE,
@@ -138,6 +176,9 @@ public abstract class SoundSource {
      * @return relative
      */
     public boolean isRelative() {
+        if (stateCache) {
+            return alRelative;
+        }
         return (
             AL10.alGetSourcei(sourceId, AL10.AL_SOURCE_RELATIVE) == AL10.AL_TRUE
         );
@@ -160,6 +201,14 @@ public abstract class SoundSource {
      * @param z z
      */
     public void setPosition(float x, float y, float z) {
+        if (
+            stateCache &&
+            x == position.x &&
+            y == position.y &&
+            z == position.z
+        ) {
+            return;
+        }
         position.set(x, y, z);
         AL10.alSource3f(sourceId, AL10.AL_POSITION, x, y, z);
     }
@@ -184,6 +233,10 @@ public abstract class SoundSource {
      */
     public void setRadius(float radius) {
         radius = MathUtils.clamp(radius, 0f, Float.MAX_VALUE);
+        if (stateCache && radius == alRadius) {
+            return;
+        }
+        alRadius = radius;
         AL10.alSourcef(sourceId, EXTSourceRadius.AL_SOURCE_RADIUS, radius);
     }
 
@@ -193,6 +246,9 @@ public abstract class SoundSource {
      * @return the radius
      */
     public float getRadius() {
+        if (stateCache) {
+            return alRadius;
+        }
         return AL10.alGetSourcef(sourceId, EXTSourceRadius.AL_SOURCE_RADIUS);
     }
 
@@ -217,6 +273,15 @@ public abstract class SoundSource {
      * @param z the speed on the z-axis
      */
     public void setSpeed(float x, float y, float z) {
+        if (
+            stateCache &&
+            x == alVelocity.x &&
+            y == alVelocity.y &&
+            z == alVelocity.z
+        ) {
+            return;
+        }
+        alVelocity.set(x, y, z);
         AL10.alSource3f(sourceId, AL10.AL_VELOCITY, x, y, z);
     }
 
@@ -255,14 +320,21 @@ public abstract class SoundSource {
      */
     public void setDirection(Vector3 direction) {
         if (directional) {
-            AL10.alSource3f(
-                sourceId,
-                AL10.AL_DIRECTION,
-                direction.x,
-                direction.y,
-                direction.z
-            );
+            sendDirection(direction.x, direction.y, direction.z);
+        }
+    }
+
+    private void sendDirection(float x, float y, float z) {
+        if (
+            stateCache &&
+            x == alDirection.x &&
+            y == alDirection.y &&
+            z == alDirection.z
+        ) {
+            return;
         }
+        alDirection.set(x, y, z);
+        AL10.alSource3f(sourceId, AL10.AL_DIRECTION, x, y, z);
     }
 
     /**
@@ -270,7 +342,7 @@ public abstract class SoundSource {
      */
     public void makeOmniDirectional() {
         directional = false;
-        AL10.alSource3f(sourceId, AL10.AL_DIRECTION, 0f, 0f, 0f);
+        sendDirection(0f, 0f, 0f);
         logger.trace(
             this.getClass(),
             "SoundSource successfully set to omnidirectional"
@@ -290,14 +362,22 @@ public abstract class SoundSource {
      * Enables the distance attenuation of this sound source.
      */
     public void enableAttenuation() {
-        AL10.alSourcef(sourceId, AL10.AL_ROLLOFF_FACTOR, attenuationFactor);
+        sendRolloff(attenuationFactor);
     }
 
     /**
      * Disables the distance attenuation of this sound source.
      */
     public void disableAttenuation() {
-        AL10.alSourcef(sourceId, AL10.AL_ROLLOFF_FACTOR, 0f);
+        sendRolloff(0f);
+    }
+
+    private void sendRolloff(float rolloff) {
+        if (stateCache && rolloff == alRolloff) {
+            return;
+        }
+        alRolloff = rolloff;
+        AL10.alSourcef(sourceId, AL10.AL_ROLLOFF_FACTOR, rolloff);
     }
 
     /**
@@ -308,7 +388,7 @@ public abstract class SoundSource {
      */
     public void setAttenuationFactor(float rolloff) {
         attenuationFactor = rolloff;
-        AL10.alSourcef(sourceId, AL10.AL_ROLLOFF_FACTOR, rolloff);
+        sendRolloff(rolloff);
     }
 
     /**
@@ -318,6 +398,10 @@ public abstract class SoundSource {
      * @param minDistance (default depends on the attenuation model)
      */
     public void setAttenuationMinDistance(float minDistance) {
+        if (stateCache && minDistance == alReferenceDistance) {
+            return;
+        }
+        alReferenceDistance = minDistance;
         AL10.alSourcef(sourceId, AL10.AL_REFERENCE_DISTANCE, minDistance);
     }
 
@@ -328,6 +412,10 @@ public abstract class SoundSource {
      * @param maxDistance (default depends on the attenuation model)
      */
     public void setAttenuationMaxDistance(float maxDistance) {
+        if (stateCache && maxDistance == alMaxDistance) {
+            return;
+        }
+        alMaxDistance = maxDistance;
         AL10.alSourcef(sourceId, AL10.AL_MAX_DISTANCE, maxDistance);
     }
 
@@ -337,6 +425,9 @@ public abstract class SoundSource {
      * @return the attenuation factor (default depends on the attenuation model)
      */
     public float getAttenuationFactor() {
+        if (stateCache) {
+            return alRolloff;
+        }
         return AL10.alGetSourcef(sourceId, AL10.AL_ROLLOFF_FACTOR);
     }
 
@@ -346,6 +437,9 @@ public abstract class SoundSource {
      * @return the attenuation min distance (default depends on the attenuation model)
      */
     public float getAttenuationMinDistance() {
+        if (stateCache) {
+            return alReferenceDistance;
+        }
         return AL10.alGetSourcef(sourceId, AL10.AL_REFERENCE_DISTANCE);
     }
 
@@ -355,6 +449,9 @@ public abstract class SoundSource {
      * @return the attenuation max distance (default depends on the attenuation model)
      */
     public float getAttenuationMaxDistance() {
+        if (stateCache) {
+            return alMaxDistance;
+        }
         return AL10.alGetSourcef(sourceId, AL10.AL_MAX_DISTANCE);
     }
 
@@ -374,7 +471,11 @@ public abstract class SoundSource {
      * @param virtualization null is a legal NOP
      */
     public void setVirtualization(Virtualization virtualization) {
+        if (stateCache && virtualization == alVirtualization) {
+            return;
+        }
         if (virtualization != null) {
+            alVirtualization = virtualization;
             AL10.alSourcei(
                 sourceId,
                 SOFTDirectChannels.AL_DIRECT_CHANNELS_SOFT,
@@ -389,6 +490,9 @@ public abstract class SoundSource {
      * @return the virtualization mode
      */
     public Virtualization getVirtualization() {
+        if (stateCache && alVirtualization != null) {
+            return alVirtualization;
+        }
         final int alId = AL10.alGetSourcei(
             sourceId,
             SOFTDirectChannels.AL_DIRECT_CHANNELS_SOFT
@@ -402,7 +506,11 @@ public abstract class SoundSource {
      * @param spatialization null is a legal NOP
      */
     public void setSpatialization(Spatialization spatialization) {
+        if (stateCache && spatialization == alSpatialization) {
+            return;
+        }
         if (spatialization != null) {
+            alSpatialization = spatialization;
             AL10.alSourcei(
                 sourceId,
                 SOFTSourceSpatialize.AL_SOURCE_SPATIALIZE_SOFT,
@@ -417,6 +525,9 @@ public abstract class SoundSource {
      * @return the spatialization mode
      */
     public Spatialization getSpatialization() {
+        if (stateCache && alSpatialization != null) {
+            return alSpatialization;
+        }
         final int alId = AL10.alGetSourcei(
             sourceId,
             SOFTSourceSpatialize.AL_SOURCE_SPATIALIZE_SOFT
@@ -480,6 +591,15 @@ public abstract class SoundSource {
      * @param highFreqVolume range: 0 - 1, 0 means completely silent, 1 means full loudness
      */
     public void setFilter(float lowFreqVolume, float highFreqVolume) {
+        if (
+            stateCache &&
+            lowFreqVolume == alFilterLowFreqVolume &&
+            highFreqVolume == alFilterHighFreqVolume
+        ) {
+            return;
+        }
+        alFilterLowFreqVolume = lowFreqVolume;
+        alFilterHighFreqVolume = highFreqVolume;
         directFilter = lowFreqVolume != 1f || highFreqVolume != 1f;
         Filter filter = null;
         if (directFilter) {
@@ -12,114 +12,412 @@
 
 package de.pottgames.tuningfork;
 
+import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.utils.Array;
 import de.pottgames.tuningfork.AudioConfig.Spatialization;
 import de.pottgames.tuningfork.AudioConfig.Virtualization;
+import de.pottgames.tuningfork.AudioConfig.VoiceStealing;
+import de.pottgames.tuningfork.SoundBuffer.InstanceLimit;
+import org.lwjgl.openal.AL10;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
+/**
+ * Holds the sources that are used to play sounds without a handle. Free sources are kept in a queue that is refilled by the source-stopped events of
+ * OpenAL and by the pool itself whenever it stops a source, so finding a free source doesn't require to poll the state of any source.<br>
+ * Sounds are played from the game thread as well as from the thread of the {@link AudioCommandQueue}, so all methods that touch the list of sources are
+ * synchronized.
+ */
 class SoundSourcePool {
 
     private final Array<BufferedSoundSource> sources = new Array<>();
-    private int nextSourceIndex = 0;
+    private final ConcurrentLinkedQueue<BufferedSoundSource> freeSources =
+        new ConcurrentLinkedQueue<>();
+    private final ConcurrentHashMap<Integer, BufferedSoundSource> sourcesById =
+        new ConcurrentHashMap<>();
+    private final int maxVoices;
+    private final VoiceStealing voiceStealing;
+    private final SoundListener listener;
+    private final Vector3 listenerPosition = new Vector3();
+    private final Vector3 tempVector = new Vector3();
+    private long playCounter = 0L;
 
-    SoundSourcePool(int simultaneousSources) {
-        for (int i = 0; i < simultaneousSources; i++) {
-            sources.add(new BufferedSoundSource());
+    SoundSourcePool(
+        int simultaneousSources,
+        int maxVoices,
+        VoiceStealing voiceStealing,
+        SoundListener listener
+    ) {
+        this.maxVoices = maxVoices;
+        this.voiceStealing = voiceStealing;
+        this.listener = listener;
+        final int initialSources = maxVoices > 0
+            ? Math.min(simultaneousSources, maxVoices)
+            : simultaneousSources;
+        for (int i = 0; i < initialSources; i++) {
+            release(createSource());
         }
     }
 
-    BufferedSoundSource findFreeSource(AudioSettings defaultSettings) {
+    private BufferedSoundSource createSource() {
+        final BufferedSoundSource source = new BufferedSoundSource(this);
+        sources.add(source);
+        sourcesById.put(source.sourceId, source);
+        return source;
+    }
+
+    /**
+     * Returns a free source. If there is none and the voice limit is reached, a playing voice with a lower or equal priority is stolen.
+     *
+     * If a buffer is passed, its instance limit and retrigger interval are enforced first, see {@link SoundBuffer#setMaxInstances(int, InstanceLimit)}.
+     *
+     * @param defaultSettings the settings the source is reset to
+     * @param buffer the buffer that is going to be played or null to skip the per buffer limits
+     * @param priority the priority of the sound that is going to be played
+     * @param force if true, a new source is created in case there's no voice to steal
+     *
+     * @return the source, already marked as obtained, or null if there's no free source and no voice can be stolen or a limit of the buffer rejected the sound
+     */
+    synchronized BufferedSoundSource findFreeSource(
+        AudioSettings defaultSettings,
+        SoundBuffer buffer,
+        int priority,
+        boolean force
+    ) {
         BufferedSoundSource result = null;
-        final int startSourceIndex = nextSourceIndex;
+        final long now = System.nanoTime();
+
+        // ENFORCE THE LIMITS OF THE BUFFER
+        if (buffer != null) {
+            if (isRetriggerBlocked(buffer, now)) {
+                buffer.retriggerLimitHits++;
+                return null;
+            }
+            final int maxInstances = buffer.getMaxInstances();
+            if (maxInstances > 0 && countInstances(buffer) >= maxInstances) {
+                buffer.instanceLimitHits++;
+                result = findInstanceToReplace(buffer);
+                if (result == null) {
+                    return null;
+                }
+            }
+        }
 
         // FIND FREE SOUND SOURCE
-        while (result == null) {
-            final BufferedSoundSource candidate = sources.get(nextSourceIndex);
-            if (!candidate.obtained && !candidate.isPlaying()) {
-                result = candidate;
+        if (result != null) {
+            // reset() rewinds the source, a stopped event that is still on its way must be ignored
+            prepareRewind(result);
+        } else if ((result = freeSources.poll()) != null) {
+            result.inFreeList.set(false);
+        } else if (maxVoices <= 0 || sources.size < maxVoices) {
+            // IF NO SOURCE IS FREE, CREATE A NEW ONE ON THE FLY
+            result = createSource();
+        } else {
+            // VOICE LIMIT REACHED, STEAL A VOICE
+            result = findVoiceToSteal(priority);
+            if (result != null) {
+                // reset() rewinds the source, a stopped event that is still on its way must be ignored
+                prepareRewind(result);
+            } else if (force) {
+                result = createSource();
+            } else {
+                return null;
+            }
+        }
+
+        result.stopEventReceived.set(false);
+        result.reset(defaultSettings);
+        // mark the source as obtained before leaving the lock, so no other thread can steal it while it's being prepared
+        result.obtained = true;
+        result.priority = priority;
+        result.playOrder = playCounter++;
+        if (buffer != null) {
+            buffer.lastTriggerTime = now;
+        }
+        return result;
+    }
+
+    private boolean isRetriggerBlocked(SoundBuffer buffer, long now) {
+        final long interval = buffer.getRetriggerIntervalNanos();
+        return (
+            interval > 0L &&
+            buffer.lastTriggerTime != Long.MIN_VALUE &&
+            now - buffer.lastTriggerTime < interval
+        );
+    }
+
+    private boolean isInstanceOf(
+        BufferedSoundSource source,
+        SoundBuffer buffer
+    ) {
+        // SOURCES THAT ARE OBTAINED BY THE USER DON'T COUNT
+        // every stopped voice ends up in the free list, either via its source-stopped event or directly if the pool rewound it
+        return (
+            !source.obtained &&
+            !source.inFreeList.get() &&
+            source.getBuffer() == buffer
+        );
+    }
+
+    private int countInstances(SoundBuffer buffer) {
+        int instances = 0;
+        for (int i = 0; i < sources.size; i++) {
+            if (isInstanceOf(sources.get(i), buffer)) {
+                instances++;
             }
-            nextSourceIndex++;
-            if (nextSourceIndex >= sources.size) {
-                nextSourceIndex = 0;
+        }
+        return instances;
+    }
+
+    /**
+     * Returns the instance of the buffer that should be replaced by a new one according to the {@link InstanceLimit} of the buffer.
+     *
+     * @param buffer the buffer
+     *
+     * @return the instance or null if the new sound must be rejected
+     */
+    private BufferedSoundSource findInstanceToReplace(SoundBuffer buffer) {
+        final InstanceLimit policy = buffer.getInstanceLimit();
+        if (policy == InstanceLimit.REJECT) {
+            return null;
+        }
+
+        BufferedSoundSource result = null;
+        for (int i = 0; i < sources.size; i++) {
+            final BufferedSoundSource candidate = sources.get(i);
+            if (!isInstanceOf(candidate, buffer)) {
+                continue;
             }
-            if (nextSourceIndex == startSourceIndex) {
-                break;
+            if (
+                result == null ||
+                (policy == InstanceLimit.REPLACE_QUIETEST
+                    ? candidate.getVolume() < result.getVolume()
+                    : candidate.playOrder < result.playOrder)
+            ) {
+                result = candidate;
             }
         }
 
-        // IF NO SOURCE WAS FOUND, CREATE A NEW ONE ON THE FLY
-        if (result == null) {
-            result = new BufferedSoundSource();
-            sources.add(result);
+        return result;
+    }
+
+    private BufferedSoundSource findVoiceToSteal(int priority) {
+        if (voiceStealing == VoiceStealing.FARTHEST) {
+            listener.getPosition(listenerPosition);
+        }
+
+        BufferedSoundSource result = null;
+        float resultScore = 0f;
+        for (int i = 0; i < sources.size; i++) {
+            final BufferedSoundSource candidate = sources.get(i);
+            if (
+                candidate.obtained ||
+                candidate.inFreeList.get() ||
+                candidate.priority > priority
+            ) {
+                continue;
+            }
+            final float score = stealScore(candidate);
+            if (
+                result == null ||
+                candidate.priority < result.priority ||
+                (candidate.priority == result.priority && score > resultScore)
+            ) {
+                result = candidate;
+                resultScore = score;
+            }
         }
 
-        result.reset(defaultSettings);
         return result;
     }
 
-    void resumeAll() {
+    /**
+     * Rates how suitable a voice is to be stolen among voices of the same priority, higher is more suitable.
+     *
+     * @param source the source
+     *
+     * @return the score
+     */
+    private float stealScore(BufferedSoundSource source) {
+        switch (voiceStealing) {
+            case QUIETEST:
+                return -source.getVolume();
+            case FARTHEST:
+                source.getPosition(tempVector);
+                return source.isRelative()
+                    ? tempVector.len2()
+                    : tempVector.dst2(listenerPosition);
+            case OLDEST:
+            default:
+                return -source.playOrder;
+        }
+    }
+
+    /**
+     * Invoked on an arbitrary OpenAL thread when the state of a source changed.
+     *
+     * @param sourceId the OpenAL source id
+     * @param state the new state
+     */
+    void onSourceStateChanged(int sourceId, int state) {
+        final BufferedSoundSource source = sourcesById.get(sourceId);
+        if (source == null) {
+            return;
+        }
+        if (state == AL10.AL_INITIAL) {
+            source.stealPending = false;
+            return;
+        }
+        if (state != AL10.AL_STOPPED || source.stealPending) {
+            return;
+        }
+
+        // an obtained source is released as soon as its owner lets go, see onSourceReleased
+        source.stopEventReceived.set(true);
+        if (!source.obtained && source.stopEventReceived.getAndSet(false)) {
+            release(source);
+        }
+    }
+
+    /**
+     * Must be called after the obtained flag of a source was reset. If the source stopped in the meantime, it's put back into the pool.
+     *
+     * @param source the source
+     */
+    void onSourceReleased(BufferedSoundSource source) {
+        source.obtained = false;
+        if (source.stopEventReceived.getAndSet(false)) {
+            release(source);
+        }
+    }
+
+    /**
+     * Must be called when the owner of a source frees it. The source must have been rewound via {@link #rewind(BufferedSoundSource)} before.
+     *
+     * @param source the source
+     */
+    void onSourceFreed(BufferedSoundSource source) {
+        source.obtained = false;
+        source.stopEventReceived.set(false);
+        release(source);
+    }
+
+    /**
+     * Must be called right before a source is rewound by the pool. Rewinding puts a source into AL_INITIAL instead of AL_STOPPED, so no source-stopped event
+     * will release it. Events that are still on their way are ignored until the AL_INITIAL event of the rewind arrives.
+     *
+     * @param source the source
+     */
+    private void prepareRewind(BufferedSoundSource source) {
+        // a source that already is in AL_INITIAL doesn't send another state change event
+        if (
+            AL10.alGetSourcei(source.sourceId, AL10.AL_SOURCE_STATE) !=
+            AL10.AL_INITIAL
+        ) {
+            source.stealPending = true;
+        }
+    }
+
+    /**
+     * Stops the source on behalf of the pool. The caller is responsible for releasing the source afterwards.
+     *
+     * @param source the source
+     */
+    void rewind(BufferedSoundSource source) {
+        prepareRewind(source);
+        AL10.alSourceRewind(source.sourceId);
+    }
+
+    /**
+     * Stops a source that isn't owned by the user, detaches its buffer and puts it back into the pool.
+     *
+     * @param source the source
+     */
+    private void recycle(BufferedSoundSource source) {
+        rewind(source);
+        source.obtained = true;
+        source.setBuffer(null);
+        onSourceFreed(source);
+    }
+
+    private void restoreObtained(
+        BufferedSoundSource source,
+        boolean obtainedState
+    ) {
+        if (obtainedState) {
+            source.obtained = true;
+        } else {
+            onSourceReleased(source);
+        }
+    }
+
+    private void release(BufferedSoundSource source) {
+        if (source.inFreeList.compareAndSet(false, true)) {
+            freeSources.offer(source);
+        }
+    }
+
+    synchronized void resumeAll() {
         for (final BufferedSoundSource source : sources) {
             if (source.isPaused()) {
                 final boolean obtainedState = source.obtained;
                 source.obtained = true;
                 source.play();
-                source.obtained = obtainedState;
+                restoreObtained(source, obtainedState);
             }
         }
     }
 
-    void pauseAll() {
+    synchronized void pauseAll() {
         for (final BufferedSoundSource source : sources) {
             if (source.isPlaying()) {
                 final boolean obtainedState = source.obtained;
                 source.obtained = true;
                 source.pause();
-                source.obtained = obtainedState;
+                restoreObtained(source, obtainedState);
             }
         }
     }
 
-    void stopAll() {
+    synchronized void stopAll() {
         for (final BufferedSoundSource source : sources) {
-            final boolean obtainedState = source.obtained;
-            source.obtained = true;
-            source.stop();
-            if (!obtainedState) {
-                source.setBuffer(null);
+            if (source.obtained) {
+                source.stop();
+            } else {
+                recycle(source);
             }
-            source.obtained = obtainedState;
         }
     }
 
-    void setResamplerByIndex(int index) {
+    synchronized void setResamplerByIndex(int index) {
         for (final BufferedSoundSource source : sources) {
             source.setResamplerByIndex(index);
         }
     }
 
-    void setVirtualization(Virtualization virtualization) {
+    synchronized void setVirtualization(Virtualization virtualization) {
         for (final BufferedSoundSource source : sources) {
             source.setVirtualization(virtualization);
         }
     }
 
-    void setSpatialization(Spatialization spatialization) {
+    synchronized void setSpatialization(Spatialization spatialization) {
         for (final BufferedSoundSource source : sources) {
             source.setSpatialization(spatialization);
         }
     }
 
-    void onBufferDisposal(SoundBuffer buffer) {
+    synchronized void onBufferDisposal(SoundBuffer buffer) {
         for (final BufferedSoundSource source : sources) {
             if (source.getBuffer() == buffer) {
-                source.obtained = true;
-                source.stop();
-                source.setBuffer(null);
-                source.obtained = false;
+                recycle(source);
             }
         }
     }
 
-    void dispose() {
+    synchronized void dispose() {
+        sourcesById.clear();
+        freeSources.clear();
         sources.forEach(BufferedSoundSource::dispose);
         sources.clear();
     }
@@ -0,0 +1,196 @@
+/**
+ * Copyright 2024 Matthias Finke
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package de.pottgames.tuningfork;
+
+import com.badlogic.gdx.utils.Array;
+import de.pottgames.tuningfork.logger.ErrorLogger;
+import de.pottgames.tuningfork.logger.TuningForkLogger;
+import java.nio.IntBuffer;
+import org.lwjgl.BufferUtils;
+import org.lwjgl.openal.AL10;
+import org.lwjgl.openal.SOFTSourceStartDelay;
+
+/**
+ * A group of sound sources that are started, paused and stopped together. This is useful for layered sounds that consist of multiple {@link SoundBuffer}s.
+ * All members are passed to OpenAL in a single call, which guarantees that they start in the same mixer period. With {@link #playAtTime(long)} all members
+ * start at exactly the same device clock time.<br>
+ * {@link BufferedSoundSource}s are only controlled while they're obtained. {@link StreamedSoundSource}s fill their buffers on a background thread before they
+ * can start, so they are started one by one and can't be aligned with the other members.
+ *
+ * @author Matthias
+ */
+public class SourceGroup {
+
+    private final Array<SoundSource> members = new Array<>();
+    private IntBuffer ids = BufferUtils.createIntBuffer(8);
+    private final TuningForkLogger logger;
+    private final ErrorLogger errorLogger;
+
+    /**
+     * Creates an empty group.
+     */
+    public SourceGroup() {
+        logger = Audio.get().getLogger();
+        errorLogger = new ErrorLogger(this.getClass(), logger);
+    }
+
+    /**
+     * Adds a sound source to this group. Adding a source that is already a member is a legal NOP.
+     *
+     * @param source the sound source
+     *
+     * @return this
+     */
+    public SourceGroup add(SoundSource source) {
+        if (!members.contains(source, true)) {
+            members.add(source);
+            if (ids.capacity() < members.size) {
+                ids = BufferUtils.createIntBuffer(ids.capacity() * 2);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Removes a sound source from this group.
+     *
+     * @param source the sound source
+     *
+     * @return true if the source was a member of this group
+     */
+    public boolean remove(SoundSource source) {
+        return members.removeValue(source, true);
+    }
+
+    /**
+     * Removes all sound sources from this group.
+     */
+    public void clear() {
+        members.clear();
+    }
+
+    /**
+     * Returns the number of sound sources in this group.
+     *
+     * @return the number of members
+     */
+    public int size() {
+        return members.size;
+    }
+
+    /**
+     * Starts the playback of all members that aren't playing already.
+     */
+    public void play() {
+        final IntBuffer sourceIds = collectIds(true);
+        if (sourceIds.hasRemaining()) {
+            AL10.alSourcePlayv(sourceIds);
+            errorLogger.checkLogError("Failed to play the SourceGroup");
+        }
+        playStreamedMembers();
+    }
+
+    /**
+     * Starts the playback of all members that aren't playing already at the specified time. Negative values for time will result in an error log entry but
+     * do nothing else. Positive values that point to the past will make the members play immediately. Falls back to {@link #play()} if
+     * AL_SOFT_source_start_delay isn't available. {@link StreamedSoundSource}s are started immediately.
+     *
+     * @param time the time in nanoseconds, use {@link AudioDevice#getClockTime()} to get the current time
+     */
+    public void playAtTime(long time) {
+        if (time < 0) {
+            logger.error(this.getClass(), "Invalid time parameter: " + time);
+            return;
+        }
+        if (
+            !Audio.get().isExtensionAvailable(
+                ALExtension.AL_SOFT_SOURCE_START_DELAY
+            )
+        ) {
+            play();
+            return;
+        }
+
+        final IntBuffer sourceIds = collectIds(true);
+        if (sourceIds.hasRemaining()) {
+            SOFTSourceStartDelay.alSourcePlayAtTimevSOFT(sourceIds, time);
+            errorLogger.checkLogError("Failed to play the SourceGroup");
+        }
+        playStreamedMembers();
+    }
+
+    /**
+     * Pauses the playback of all members.
+     */
+    public void pause() {
+        final IntBuffer sourceIds = collectIds(false);
+        if (sourceIds.hasRemaining()) {
+            AL10.alSourcePausev(sourceIds);
+            errorLogger.checkLogError("Failed to pause the SourceGroup");
+        }
+        for (int i = 0; i < members.size; i++) {
+            final SoundSource member = members.get(i);
+            if (member instanceof StreamedSoundSource) {
+                member.pause();
+            }
+        }
+    }
+
+    /**
+     * Stops the playback of all members and rewinds them, just like {@link SoundSource#stop()} does.
+     */
+    public void stop() {
+        final IntBuffer sourceIds = collectIds(false);
+        if (sourceIds.hasRemaining()) {
+            AL10.alSourceRewindv(sourceIds);
+            errorLogger.checkLogError("Failed to stop the SourceGroup");
+        }
+        for (int i = 0; i < members.size; i++) {
+            final SoundSource member = members.get(i);
+            if (member instanceof StreamedSoundSource) {
+                member.stop();
+            }
+        }
+    }
+
+    private void playStreamedMembers() {
+        for (int i = 0; i < members.size; i++) {
+            final SoundSource member = members.get(i);
+            if (member instanceof StreamedSoundSource) {
+                member.play();
+            }
+        }
+    }
+
+    private IntBuffer collectIds(boolean skipPlaying) {
+        ids.clear();
+        for (int i = 0; i < members.size; i++) {
+            final SoundSource member = members.get(i);
+            if (member instanceof StreamedSoundSource) {
+                continue;
+            }
+            if (
+                member instanceof BufferedSoundSource &&
+                !((BufferedSoundSource) member).obtained
+            ) {
+                continue;
+            }
+            if (skipPlaying && member.isPlaying()) {
+                continue;
+            }
+            ids.put(member.sourceId);
+        }
+        ids.flip();
+        return ids;
+    }
+}
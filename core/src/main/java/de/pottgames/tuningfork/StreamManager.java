@@ -4,17 +4,24 @@ import com.badlogic.gdx.utils.Array;
 import de.pottgames.tuningfork.AudioConfig.Spatialization;
 import de.pottgames.tuningfork.AudioConfig.Virtualization;
 import de.pottgames.tuningfork.logger.TuningForkLogger;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class StreamManager {
 
+    private static final long POLL_INTERVAL = 100L;
+    private static final long WATCHDOG_INTERVAL = 500L;
     private final ConcurrentLinkedQueue<AsyncTask> idleTasks =
         new ConcurrentLinkedQueue<>();
     private final ExecutorService taskService;
     private final Array<StreamedSoundSource> soundsToUpdate = new Array<>();
+    private final ConcurrentHashMap<Integer, StreamedSoundSource> soundsById =
+        new ConcurrentHashMap<>();
     private final Object lock = new Object();
     private final Thread updateThread;
     private volatile boolean running = true;
@@ -29,11 +36,19 @@ public class StreamManager {
         }
 
         // CREATE THE TASK SERVICE
-        taskService = Executors.newSingleThreadExecutor(runnable -> {
+        // tasks of a single sound are always executed in order by a SourceTaskQueue, different sounds are processed in parallel if there's more than one thread
+        // the service never shares its threads with the command queue, a slow refill must not delay queued commands
+        final int threads = config.getStreamThreads();
+        final AtomicInteger threadCounter = new AtomicInteger();
+        taskService = Executors.newFixedThreadPool(threads, runnable -> {
             final Thread thread = Executors.defaultThreadFactory().newThread(
                 runnable
             );
-            thread.setName("TuningFork-Task-Thread");
+            thread.setName(
+                threads > 1
+                    ? "TuningFork-Task-Thread-" + threadCounter.incrementAndGet()
+                    : "TuningFork-Task-Thread"
+            );
             thread.setDaemon(true);
             return thread;
         });
@@ -42,11 +57,15 @@ public class StreamManager {
         taskService.execute(new AsyncTask());
 
         // START UPDATE THREAD
+        // in event driven mode, the update thread only serves as a watchdog in case an event got lost
+        final long updateInterval = config.isEventDrivenStreaming()
+            ? StreamManager.WATCHDOG_INTERVAL
+            : StreamManager.POLL_INTERVAL;
         updateThread = new Thread(() -> {
             while (running) {
                 updateAsync();
                 try {
-                    Thread.sleep(100);
+                    Thread.sleep(updateInterval);
                 } catch (final InterruptedException e) {
                     // ignore
                 }
@@ -61,11 +80,35 @@ public class StreamManager {
         synchronized (lock) {
             for (int i = 0; i < soundsToUpdate.size; i++) {
                 final StreamedSoundSource sound = soundsToUpdate.get(i);
-                this.postTask(sound, TaskAction.UPDATE);
+                requestUpdate(sound);
             }
         }
     }
 
+    /**
+     * Schedules an update for the given sound unless there's already one pending.
+     *
+     * @param sound the sound
+     */
+    protected void requestUpdate(StreamedSoundSource sound) {
+        if (sound.updatePending.compareAndSet(false, true)) {
+            this.postTask(sound, TaskAction.UPDATE);
+        }
+    }
+
+    /**
+     * Invoked on an arbitrary OpenAL thread when a buffer of a source has been processed or a source changed its state. Only the affected source gets
+     * updated.
+     *
+     * @param sourceId the OpenAL source id
+     */
+    protected void onSourceEvent(int sourceId) {
+        final StreamedSoundSource sound = soundsById.get(sourceId);
+        if (sound != null) {
+            requestUpdate(sound);
+        }
+    }
+
     protected void setDefaultResampler(int resamplerIndex) {
         synchronized (lock) {
             for (int i = 0; i < soundsToUpdate.size; i++) {
@@ -97,9 +140,11 @@ public class StreamManager {
         synchronized (lock) {
             soundsToUpdate.add(source);
         }
+        soundsById.put(source.sourceId, source);
     }
 
     protected void removeSource(StreamedSoundSource sound) {
+        soundsById.remove(sound.sourceId);
         synchronized (lock) {
             soundsToUpdate.removeValue(sound, true);
         }
@@ -137,16 +182,24 @@ public class StreamManager {
         task.sound = sound;
         task.taskAction = action;
         task.floatParam = floatParam;
-        taskService.execute(task);
+        sound.taskQueue.add(task);
     }
 
+    /**
+     * Posts the action for every registered sound.
+     *
+     * @param action the action
+     */
     protected void postTask(TaskAction action) {
-        AsyncTask task = idleTasks.poll();
-        if (task == null) {
-            task = new AsyncTask();
+        synchronized (lock) {
+            for (int i = 0; i < soundsToUpdate.size; i++) {
+                this.postTask(soundsToUpdate.get(i), action);
+            }
         }
-        task.taskAction = action;
-        taskService.execute(task);
+    }
+
+    protected SourceTaskQueue createTaskQueue() {
+        return new SourceTaskQueue();
     }
 
     protected void dispose() {
@@ -173,6 +226,7 @@ public class StreamManager {
     }
 
     public enum TaskAction {
+        INIT,
         PLAY,
         STOP,
         PAUSE,
@@ -182,6 +236,7 @@ public class StreamManager {
         PAUSE_ALL,
         RESUME_ALL,
         DISPOSE_CALLBACK,
+        DISPOSE,
     }
 
     public class AsyncTask implements Runnable {
@@ -193,52 +248,46 @@ public class StreamManager {
         @Override
         public void run() {
             if (sound != null) {
-                synchronized (lock) {
-                    switch (taskAction) {
-                        case PAUSE:
+                // no global lock here, the sound synchronizes on itself and its tasks are never executed concurrently
+                switch (taskAction) {
+                    case INIT:
+                        sound.initAsync();
+                        break;
+                    case PAUSE:
+                        sound.pauseAsync();
+                        break;
+                    case PLAY:
+                        sound.playAsync();
+                        break;
+                    case STOP:
+                        sound.stopAsync();
+                        break;
+                    case UPDATE:
+                        sound.updatePending.set(false);
+                        sound.updateAsync();
+                        break;
+                    case SET_PLAYBACK_POSITION:
+                        sound.setPlaybackPositionAsync(floatParam);
+                        break;
+                    case STOP_ALL:
+                        sound.stopAsync();
+                        break;
+                    case PAUSE_ALL:
+                        if (sound.isPlaying()) {
                             sound.pauseAsync();
-                            break;
-                        case PLAY:
+                        }
+                        break;
+                    case RESUME_ALL:
+                        if (sound.isPaused()) {
                             sound.playAsync();
-                            break;
-                        case STOP:
-                            sound.stopAsync();
-                            break;
-                        case UPDATE:
-                            sound.updateAsync();
-                            break;
-                        case SET_PLAYBACK_POSITION:
-                            sound.setPlaybackPositionAsync(floatParam);
-                            break;
-                        case STOP_ALL:
-                            for (int i = 0; i < soundsToUpdate.size; i++) {
-                                final StreamedSoundSource sound =
-                                    soundsToUpdate.get(i);
-                                sound.stopAsync();
-                            }
-                            break;
-                        case PAUSE_ALL:
-                            for (int i = 0; i < soundsToUpdate.size; i++) {
-                                final StreamedSoundSource sound =
-                                    soundsToUpdate.get(i);
-                                if (sound.isPlaying()) {
-                                    sound.pauseAsync();
-                                }
-                            }
-                            break;
-                        case RESUME_ALL:
-                            for (int i = 0; i < soundsToUpdate.size; i++) {
-                                final StreamedSoundSource sound =
-                                    soundsToUpdate.get(i);
-                                if (sound.isPaused()) {
-                                    sound.playAsync();
-                                }
-                            }
-                            break;
-                        case DISPOSE_CALLBACK:
-                            sound.readyToDispose();
-                            break;
-                    }
+                        }
+                        break;
+                    case DISPOSE_CALLBACK:
+                        sound.readyToDispose();
+                        break;
+                    case DISPOSE:
+                        sound.disposeAsyncInternal();
+                        break;
                 }
 
                 // CLEAN UP
@@ -253,4 +302,38 @@ public class StreamManager {
             floatParam = 0f;
         }
     }
+
+    /**
+     * Holds the pending tasks of a single {@link StreamedSoundSource} and executes them one after another on the task service. This guarantees that the tasks
+     * of a sound are executed in the order they were posted, while tasks of different sounds may run in parallel.
+     */
+    protected class SourceTaskQueue implements Runnable {
+
+        private final ConcurrentLinkedQueue<AsyncTask> tasks =
+            new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+        protected void add(AsyncTask task) {
+            tasks.offer(task);
+            schedule();
+        }
+
+        private void schedule() {
+            if (!tasks.isEmpty() && scheduled.compareAndSet(false, true)) {
+                taskService.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            AsyncTask task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+            scheduled.set(false);
+
+            // a task might have been added after the last poll but before the flag was reset
+            schedule();
+        }
+    }
 }
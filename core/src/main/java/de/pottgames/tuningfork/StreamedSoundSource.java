@@ -16,24 +16,18 @@ import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.utils.Disposable;
 import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
 import com.badlogic.gdx.utils.StreamUtils;
 import de.pottgames.tuningfork.PcmFormat.PcmDataType;
 import de.pottgames.tuningfork.StreamManager.TaskAction;
-import de.pottgames.tuningfork.decoder.AiffInputStream;
 import de.pottgames.tuningfork.decoder.AudioStream;
-import de.pottgames.tuningfork.decoder.FlacInputStream;
-import de.pottgames.tuningfork.decoder.Mp3InputStream;
-import de.pottgames.tuningfork.decoder.OggInputStream;
-import de.pottgames.tuningfork.decoder.QoaInputStream;
-import de.pottgames.tuningfork.decoder.WavInputStream;
 import de.pottgames.tuningfork.decoder.util.Util;
 import de.pottgames.tuningfork.jukebox.song.SongSource;
 import de.pottgames.tuningfork.logger.ErrorLogger;
 import de.pottgames.tuningfork.logger.TuningForkLogger;
-import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.nio.IntBuffer;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 import org.lwjgl.BufferUtils;
 import org.lwjgl.openal.AL10;
 import org.lwjgl.openal.AL11;
@@ -48,14 +42,18 @@ public class StreamedSoundSource extends SongSource implements Disposable {
 
     public static final int BUFFER_SIZE_PER_CHANNEL = 65536;
     public static final int BUFFER_COUNT = 3;
+    public static final int ADAPTIVE_MAX_BUFFER_COUNT = 8;
+    private static final float ADAPTIVE_SHRINK_SECONDS = 30f;
     private final TuningForkLogger logger;
     private final ErrorLogger errorLogger;
     private AudioStream audioStream;
-    private final float secondsPerBuffer;
-    private final IntBuffer buffers;
-    private final PcmFormat pcmFormat;
-    private final ByteBuffer tempBuffer;
-    private final byte[] tempBytes;
+    private float secondsPerBuffer;
+    private final IntArray buffers;
+    private final int bufferCount;
+    private final int bufferSizePerChannel;
+    private volatile int bufferSize;
+    private PcmFormat pcmFormat;
+    private ByteBuffer tempBuffer;
     private final Audio audio;
     private final AtomicBoolean playing = new AtomicBoolean(false);
     private final AtomicBoolean stopped = new AtomicBoolean(true);
@@ -64,12 +62,31 @@ public class StreamedSoundSource extends SongSource implements Disposable {
     private volatile float loopEnd = 0f;
     private boolean manuallySetBehindLoopEnd = false;
     private volatile boolean readyToDispose = false;
-    private final float duration;
+    final AtomicBoolean updatePending = new AtomicBoolean(false);
+    final StreamManager.SourceTaskQueue taskQueue;
+    private volatile float duration = -1f;
+    private volatile boolean ready = false;
+    private volatile boolean failed = false;
+    private Supplier<AudioStream> pendingStream;
 
     private final FloatArray bufferTimeQueue;
     private volatile float processedTime;
     private float queuedSeconds;
-    private final float bytesPerSecond;
+    private float bytesPerSecond;
+    private int alignmentBytes;
+
+    private volatile boolean loopHeadCacheEnabled = false;
+    private ByteBuffer loopHead;
+    private float loopHeadStart = -1f;
+    private float loopHeadSeconds;
+    private boolean captureLoopHead = false;
+    private boolean spliceLoopHead = false;
+    private boolean skipBehindLoopHead = false;
+
+    private volatile boolean adaptiveBuffering = false;
+    private volatile int currentBufferCount;
+    private volatile int underrunCount = 0;
+    private float stableSeconds = 0f;
 
     /**
      * Creates a new {@link StreamedSoundSource} and loads the first bits of sound data.
@@ -77,7 +94,28 @@ public class StreamedSoundSource extends SongSource implements Disposable {
      * @param file the file
      */
     public StreamedSoundSource(FileHandle file) {
-        this(StreamedSoundSource.createAudioStream(file));
+        this(SoundLoader.createAudioStream(file, true));
+    }
+
+    /**
+     * Creates a new {@link StreamedSoundSource} with a custom buffer configuration and loads the first bits of sound data.
+     *
+     * @param file the file
+     * @param bufferSizePerChannel the size of each buffer in bytes per channel
+     * @param bufferCount the number of buffers that are queued
+     *
+     * @see #StreamedSoundSource(AudioStream, int, int)
+     */
+    public StreamedSoundSource(
+        FileHandle file,
+        int bufferSizePerChannel,
+        int bufferCount
+    ) {
+        this(
+            SoundLoader.createAudioStream(file, true),
+            bufferSizePerChannel,
+            bufferCount
+        );
     }
 
     /**
@@ -86,15 +124,55 @@ public class StreamedSoundSource extends SongSource implements Disposable {
      * @param stream the stream
      */
     public StreamedSoundSource(AudioStream stream) {
+        this(
+            stream,
+            StreamedSoundSource.BUFFER_SIZE_PER_CHANNEL,
+            StreamedSoundSource.BUFFER_COUNT
+        );
+    }
+
+    /**
+     * Creates a new {@link StreamedSoundSource} from a {@link AudioStream} with a custom buffer configuration and loads the first bits of sound data.<br>
+     * Small buffers reduce the latency of the stream, which is useful for things like voice chat. More or bigger buffers make the stream more robust against
+     * stalls of the streaming thread, which is useful for background music on a loaded machine. The defaults are {@link #BUFFER_SIZE_PER_CHANNEL} and
+     * {@link #BUFFER_COUNT}.
+     *
+     * @param stream the stream
+     * @param bufferSizePerChannel the size of each buffer in bytes per channel, rounded up to the next power of two or the next multiple of the block size
+     * @param bufferCount the number of buffers that are queued, must be at least 2
+     */
+    public StreamedSoundSource(
+        AudioStream stream,
+        int bufferSizePerChannel,
+        int bufferCount
+    ) {
+        this(bufferSizePerChannel, bufferCount);
         if (stream == null) {
             throw new TuningForkRuntimeException("stream is null");
         }
 
+        setupStream(stream);
+        ready = true;
+
+        // REGISTER IN AUDIO
+        audio.streamManager.registerSource(this);
+    }
+
+    private StreamedSoundSource(int bufferSizePerChannel, int bufferCount) {
+        if (bufferSizePerChannel <= 0) {
+            throw new TuningForkRuntimeException(
+                "bufferSizePerChannel must be > 0"
+            );
+        }
+        if (bufferCount < 2) {
+            throw new TuningForkRuntimeException("bufferCount must be >= 2");
+        }
+        this.bufferSizePerChannel = bufferSizePerChannel;
+        this.bufferCount = bufferCount;
+
         // FETCH AND SET DEPENDENCIES
-        bufferTimeQueue = new FloatArray(
-            true,
-            StreamedSoundSource.BUFFER_COUNT + 1
-        );
+        bufferTimeQueue = new FloatArray(true, bufferCount + 1);
+        buffers = new IntArray(bufferCount);
         audio = Audio.get();
         if (audio == null) {
             throw new TuningForkRuntimeException(
@@ -103,10 +181,106 @@ public class StreamedSoundSource extends SongSource implements Disposable {
         }
         logger = audio.getLogger();
         errorLogger = new ErrorLogger(this.getClass(), logger);
+        taskQueue = audio.streamManager.createTaskQueue();
+    }
+
+    /**
+     * Creates a new {@link StreamedSoundSource} without blocking the calling thread. Opening the file, parsing the header and the initial decoding are done on
+     * the stream thread. The returned source can be used right away: Calls to {@link #play()}, {@link #setPlaybackPosition(float)} and the like are executed
+     * in order as soon as the source is ready. Use {@link #isReady()} to check whether the source finished loading.
+     *
+     * @param file the file
+     *
+     * @return the sound source
+     */
+    public static StreamedSoundSource loadAsync(FileHandle file) {
+        return StreamedSoundSource.loadAsync(
+            file,
+            StreamedSoundSource.BUFFER_SIZE_PER_CHANNEL,
+            StreamedSoundSource.BUFFER_COUNT
+        );
+    }
+
+    /**
+     * Creates a new {@link StreamedSoundSource} with a custom buffer configuration without blocking the calling thread.
+     *
+     * @param file the file
+     * @param bufferSizePerChannel the size of each buffer in bytes per channel
+     * @param bufferCount the number of buffers that are queued, must be at least 2
+     *
+     * @return the sound source
+     *
+     * @see #loadAsync(FileHandle)
+     * @see #StreamedSoundSource(AudioStream, int, int)
+     */
+    public static StreamedSoundSource loadAsync(
+        FileHandle file,
+        int bufferSizePerChannel,
+        int bufferCount
+    ) {
+        return StreamedSoundSource.loadAsync(
+            () -> SoundLoader.createAudioStream(file, true),
+            bufferSizePerChannel,
+            bufferCount
+        );
+    }
+
+    /**
+     * Creates a new {@link StreamedSoundSource} with a custom buffer configuration without blocking the calling thread. The supplier is invoked on the stream
+     * thread and should open the {@link AudioStream}.
+     *
+     * @param streamSupplier supplies the stream
+     * @param bufferSizePerChannel the size of each buffer in bytes per channel
+     * @param bufferCount the number of buffers that are queued, must be at least 2
+     *
+     * @return the sound source
+     *
+     * @see #loadAsync(FileHandle)
+     */
+    public static StreamedSoundSource loadAsync(
+        Supplier<AudioStream> streamSupplier,
+        int bufferSizePerChannel,
+        int bufferCount
+    ) {
+        final StreamedSoundSource source = new StreamedSoundSource(
+            bufferSizePerChannel,
+            bufferCount
+        );
+        source.pendingStream = streamSupplier;
+        source.audio.streamManager.registerSource(source);
+        source.audio.streamManager.postTask(source, TaskAction.INIT);
+        return source;
+    }
+
+    void initAsync() {
+        synchronized (this) {
+            final Supplier<AudioStream> streamSupplier = pendingStream;
+            pendingStream = null;
+            try {
+                final AudioStream stream = streamSupplier.get();
+                if (stream == null) {
+                    throw new TuningForkRuntimeException("stream is null");
+                }
+                setupStream(stream);
+                ready = true;
+            } catch (final RuntimeException e) {
+                failed = true;
+                playing.set(false);
+                stopped.set(true);
+                StreamUtils.closeQuietly(audioStream);
+                logger.error(
+                    this.getClass(),
+                    "Failed to load the stream: " + e.getMessage()
+                );
+            }
+        }
+    }
+
+    private void setupStream(AudioStream stream) {
         audioStream = stream;
 
         // FETCH DATA & FORMAT FROM INPUT STREAM
-        duration = stream.getDuration();
+        final float duration = stream.getDuration();
         if (duration < 0f) {
             logger.debug(this.getClass(), "Unable to measure sound duration");
         }
@@ -131,55 +305,65 @@ public class StreamedSoundSource extends SongSource implements Disposable {
 
         // CREATE BUFFERS
         final int blockSize = audioStream.getBlockSize();
-        final int bufferSize = determineBufferSize(
+        bufferSize = determineBufferSize(
+            bufferSizePerChannel,
             channels,
             blockSize,
             (int) Math.ceil(audioStream.getBitsPerSample() / 8d)
         );
         tempBuffer = BufferUtils.createByteBuffer(bufferSize);
-        tempBytes = new byte[bufferSize];
-        secondsPerBuffer =
-            (float) bufferSize / (bytesPerSample * channels * sampleRate);
-        bytesPerSecond = bytesPerSample * channels * sampleRate;
-        buffers = BufferUtils.createIntBuffer(StreamedSoundSource.BUFFER_COUNT);
-        AL10.alGenBuffers(buffers);
-        errorLogger.checkLogError("Buffers couldn't be created");
-        if (blockSize > 0) {
-            for (int i = 0; i < StreamedSoundSource.BUFFER_COUNT; i++) {
-                final int bufferId = buffers.get(i);
-                final int blockAlign = audioStream.getBlockAlign();
-                AL11.alBufferi(
-                    bufferId,
-                    SOFTBlockAlignment.AL_UNPACK_BLOCK_ALIGNMENT_SOFT,
-                    blockAlign
-                );
-                errorLogger.checkLogError("Couldn't set blockAlign");
-                logger.trace(
-                    this.getClass(),
-                    "setting block align to " + blockAlign
-                );
-            }
+        final int blockAlign = audioStream.getBlockAlign();
+        if (blockSize > 0 && blockAlign > 0) {
+            // block based data like ADPCM that is passed through, each block of blockSize bytes holds blockAlign sample frames
+            bytesPerSecond = ((float) blockSize * sampleRate) / blockAlign;
+            alignmentBytes = blockSize;
+        } else {
+            bytesPerSecond = bytesPerSample * channels * sampleRate;
+            alignmentBytes = Math.max(bytesPerSample * channels, 1);
+        }
+        secondsPerBuffer = bufferSize / bytesPerSecond;
+        for (int i = 0; i < bufferCount; i++) {
+            buffers.add(createBuffer());
         }
+        currentBufferCount = bufferCount;
+        this.duration = duration;
 
         // INITIAL BUFFER FILL
         fillAllBuffersInternal();
         errorLogger.checkLogError("An error occured while pre-buffering");
+    }
 
-        // REGISTER IN AUDIO
-        audio.streamManager.registerSource(this);
+    /**
+     * Returns true if the source finished loading and is ready to play. Sources created by a constructor are always ready, sources created by
+     * {@link #loadAsync(FileHandle)} become ready after the initial buffering on the stream thread.
+     *
+     * @return true if ready
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns true if asynchronous loading of this source failed. The error is logged. A failed source stays silent and should be disposed.
+     *
+     * @return true if loading failed
+     */
+    public boolean hasFailed() {
+        return failed;
     }
 
     private int determineBufferSize(
+        int bufferSizePerChannel,
         int channels,
         int blockSize,
         int bytesPerSample
     ) {
-        int bufferSize = StreamedSoundSource.BUFFER_SIZE_PER_CHANNEL * channels;
+        int bufferSize = bufferSizePerChannel * channels;
 
         // keep block alignment
         if (blockSize > 0) {
             bufferSize = blockSize;
-            while (bufferSize < StreamedSoundSource.BUFFER_SIZE_PER_CHANNEL) {
+            while (bufferSize < bufferSizePerChannel) {
                 bufferSize += blockSize;
             }
             return bufferSize;
@@ -189,17 +373,41 @@ public class StreamedSoundSource extends SongSource implements Disposable {
         return bufferSize;
     }
 
+    private int createBuffer() {
+        final int bufferId = AL10.alGenBuffers();
+        errorLogger.checkLogError("Buffers couldn't be created");
+        final int blockSize = audioStream.getBlockSize();
+        if (blockSize > 0) {
+            final int blockAlign = audioStream.getBlockAlign();
+            AL11.alBufferi(
+                bufferId,
+                SOFTBlockAlignment.AL_UNPACK_BLOCK_ALIGNMENT_SOFT,
+                blockAlign
+            );
+            errorLogger.checkLogError("Couldn't set blockAlign");
+            logger.trace(
+                this.getClass(),
+                "setting block align to " + blockAlign
+            );
+        }
+        return bufferId;
+    }
+
     private void resetStream() {
         audioStream = audioStream.reset();
     }
 
     void updateAsync() {
         synchronized (this) {
+            if (!ready) {
+                return;
+            }
             int processedBufferCount = AL10.alGetSourcei(
                 sourceId,
                 AL10.AL_BUFFERS_PROCESSED
             );
             checkPlaybackPosResetAsync();
+            final boolean drained = processedBufferCount > 0;
 
             boolean end = false;
             while (processedBufferCount > 0) {
@@ -217,6 +425,12 @@ public class StreamedSoundSource extends SongSource implements Disposable {
                 if (end) {
                     continue;
                 }
+                if (adaptiveBuffering && processedSeconds > 0f) {
+                    stableSeconds += processedSeconds;
+                    if (shrinkBufferQueue(bufferId)) {
+                        continue;
+                    }
+                }
                 if (fillBufferInternal(bufferId)) {
                     AL10.alSourceQueueBuffers(sourceId, bufferId);
                 } else {
@@ -239,11 +453,56 @@ public class StreamedSoundSource extends SongSource implements Disposable {
                 queuedBuffers > 0
             ) {
                 // A buffer underflow will cause the source to stop, so we should resume playback in this case.
+                if (drained) {
+                    underrunCount++;
+                    if (adaptiveBuffering && !end) {
+                        growBufferQueue();
+                    }
+                }
                 AL10.alSourcePlay(sourceId);
             }
         }
     }
 
+    private void growBufferQueue() {
+        stableSeconds = 0f;
+        if (buffers.size >= StreamedSoundSource.ADAPTIVE_MAX_BUFFER_COUNT) {
+            return;
+        }
+        final int bufferId = createBuffer();
+        buffers.add(bufferId);
+        currentBufferCount = buffers.size;
+        if (fillBufferInternal(bufferId)) {
+            AL10.alSourceQueueBuffers(sourceId, bufferId);
+            errorLogger.checkLogError("error queueing buffers on the source");
+        }
+        logger.debug(
+            this.getClass(),
+            "buffer underrun, growing the queue to " + buffers.size + " buffers"
+        );
+    }
+
+    private boolean shrinkBufferQueue(int bufferId) {
+        if (
+            stableSeconds < StreamedSoundSource.ADAPTIVE_SHRINK_SECONDS ||
+            buffers.size <= bufferCount
+        ) {
+            return false;
+        }
+        stableSeconds = 0f;
+        buffers.removeValue(bufferId);
+        currentBufferCount = buffers.size;
+        AL10.alDeleteBuffers(bufferId);
+        errorLogger.checkLogError("Failed to delete a buffer");
+        logger.debug(
+            this.getClass(),
+            "stable playback, shrinking the queue to " +
+                buffers.size +
+                " buffers"
+        );
+        return true;
+    }
+
     private void checkPlaybackPosResetAsync() {
         if (bufferTimeQueue.size > 0) {
             final float value = bufferTimeQueue.get(0);
@@ -295,18 +554,190 @@ public class StreamedSoundSource extends SongSource implements Disposable {
         loopEnd = end;
     }
 
+    /**
+     * Enables or disables the loop head cache. When enabled, the first buffer of audio data after the loop start is kept decoded in native memory and is
+     * queued straight from there whenever the source loops, instead of jumping back in the stream and decoding it again at the loop boundary. This avoids
+     * stalls and audible gaps when looping sounds that are expensive to decode or to seek, like music with a long intro.<br>
+     * The cache costs one additional buffer of {@link #getBufferSize()} bytes and is only used if the loop is longer than two buffers and the stream is
+     * seekable, see {@link AudioStream#isSeekable()}. Continuing behind the cached head requires a jump in the stream, a stream that isn't seekable would
+     * have to be reset and decoded up to that point again, which is more work than not using the cache at all.
+     *
+     * @param enabled true to enable the loop head cache
+     */
+    public void setLoopHeadCache(boolean enabled) {
+        loopHeadCacheEnabled = enabled;
+    }
+
+    /**
+     * Returns true if the loop head cache is enabled.
+     *
+     * @return true if enabled
+     *
+     * @see #setLoopHeadCache(boolean)
+     */
+    public boolean isLoopHeadCache() {
+        return loopHeadCacheEnabled;
+    }
+
+    /**
+     * Enables or disables adaptive buffering. When enabled, the source queues an additional buffer every time a buffer underrun is detected, up to
+     * {@link #ADAPTIVE_MAX_BUFFER_COUNT} buffers. After a longer period of playback without underruns, the queue is shrunk again one buffer at a time, but
+     * never below the buffer count this source was created with.
+     *
+     * @param enabled true to enable adaptive buffering
+     */
+    public void setAdaptiveBuffering(boolean enabled) {
+        adaptiveBuffering = enabled;
+    }
+
+    /**
+     * Returns true if adaptive buffering is enabled.
+     *
+     * @return true if enabled
+     *
+     * @see #setAdaptiveBuffering(boolean)
+     */
+    public boolean isAdaptiveBuffering() {
+        return adaptiveBuffering;
+    }
+
+    /**
+     * Returns the number of buffer underruns since this source was created. An underrun happens when the source played all queued buffers before the
+     * streaming thread was able to refill them, which causes an audible gap.
+     *
+     * @return the number of underruns
+     */
+    public int getUnderrunCount() {
+        return underrunCount;
+    }
+
+    /**
+     * Returns the number of buffers this source currently uses. This only differs from the configured buffer count if adaptive buffering is enabled.
+     *
+     * @return the number of buffers
+     */
+    public int getBufferCount() {
+        return currentBufferCount;
+    }
+
+    /**
+     * Returns the size of each buffer in bytes.
+     *
+     * @return the buffer size in bytes
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    private boolean isLoopHeadCacheUsable() {
+        if (!loopHeadCacheEnabled || !audioStream.isSeekable()) {
+            return false;
+        }
+        if (loopEnd <= loopStart && duration < 0f) {
+            return true;
+        }
+        final float loopLength = loopEnd > 0f && loopEnd > loopStart
+            ? loopEnd - loopStart
+            : duration - loopStart;
+        return loopLength > 2f * secondsPerBuffer;
+    }
+
+    private boolean isLoopHeadCached() {
+        return (
+            isLoopHeadCacheUsable() &&
+            loopHeadStart >= 0f &&
+            loopHeadStart == loopStart
+        );
+    }
+
+    private void cacheLoopHead(int length) {
+        if (length < tempBuffer.capacity() || !isLoopHeadCacheUsable()) {
+            return;
+        }
+        if (loopHead == null) {
+            loopHead = BufferUtils.createByteBuffer(tempBuffer.capacity());
+        }
+        loopHead.clear();
+        loopHead.put(tempBuffer.duplicate()).flip();
+        loopHeadSeconds = length / bytesPerSecond;
+        loopHeadStart = loopStart;
+    }
+
+    private boolean queueLoopHead(int bufferId) {
+        bufferTimeQueue.add(loopHeadSeconds);
+        queuedSeconds = loopStart + loopHeadSeconds;
+        skipBehindLoopHead = true;
+        AL10.alBufferData(
+            bufferId,
+            pcmFormat.getAlId(),
+            loopHead,
+            audioStream.getSampleRate()
+        );
+        return true;
+    }
+
+    private void resetLoopHeadState() {
+        captureLoopHead = false;
+        spliceLoopHead = false;
+        skipBehindLoopHead = false;
+    }
+
     void skipStreamToPosition(final float seconds) {
         synchronized (this) {
-            resetStream();
-            int bytesToSkip = (int) (seconds * bytesPerSecond);
-            final int overbytes =
-                bytesToSkip % (audioStream.getBitsPerSample() / 8);
-            bytesToSkip -= overbytes;
-            final byte[] buffer = new byte[bytesToSkip];
-            audioStream.read(buffer);
+            final float position = seekStream(seconds);
+            if (position < seconds) {
+                discardStreamBytes(
+                    (long) ((seconds - position) * bytesPerSecond)
+                );
+            }
         }
     }
 
+    /**
+     * Moves the stream close to the given position. Uses {@link AudioStream#seek(long)} if the stream supports it, otherwise the stream is reset.
+     *
+     * @param seconds the target position in seconds
+     *
+     * @return the position in seconds the stream was moved to, which is at or before the target position
+     */
+    private float seekStream(float seconds) {
+        if (audioStream.isSeekable()) {
+            final int sampleRate = audioStream.getSampleRate();
+            final long frame = audioStream.seek((long) (seconds * sampleRate));
+            if (frame >= 0L) {
+                return (float) frame / sampleRate;
+            }
+        }
+        resetStream();
+        return 0f;
+    }
+
+    private void discardStreamBytes(long bytes) {
+        // block based data can only be discarded in whole blocks, the rest of the block is played
+        long remaining = bytes - (bytes % alignmentBytes);
+        while (remaining > 0L) {
+            tempBuffer.clear();
+            tempBuffer.limit((int) Math.min(remaining, tempBuffer.capacity()));
+            final int read = audioStream.read(tempBuffer);
+            if (read <= 0) {
+                return;
+            }
+            remaining -= read;
+        }
+    }
+
+    /**
+     * Reads the next chunk of the stream into the temp buffer and prepares the buffer for uploading.
+     *
+     * @return number of bytes read or -1 if the stream ended
+     */
+    private int readStream() {
+        tempBuffer.clear();
+        final int length = audioStream.read(tempBuffer);
+        tempBuffer.flip();
+        return length;
+    }
+
     /**
      * Sets the playback position of this sound source. Invalid values are ignored but an error is logged.
      *
@@ -329,19 +760,22 @@ public class StreamedSoundSource extends SongSource implements Disposable {
 
     void setPlaybackPositionAsync(final float seconds) {
         synchronized (this) {
+            if (!ready) {
+                return;
+            }
             final boolean playing = this.playing.get();
             final boolean stopped = this.stopped.get();
 
             // FULL RESET
             AL10.alSourceStop(sourceId);
-            resetStream();
             bufferTimeQueue.clear();
+            resetLoopHeadState();
+            float currentSeconds = seekStream(seconds);
 
             // SKIP THE INPUT STREAM UNTIL THE NEW POSITION IS IN REACH
-            float currentSeconds = 0f;
             boolean unreachable = false;
             while (currentSeconds < seconds - secondsPerBuffer) {
-                final int skippedBytes = audioStream.read(tempBytes);
+                final int skippedBytes = readStream();
                 if (skippedBytes <= 0) {
                     unreachable = true;
                     break;
@@ -394,6 +828,9 @@ public class StreamedSoundSource extends SongSource implements Disposable {
 
     void pauseAsync() {
         synchronized (this) {
+            if (!ready) {
+                return;
+            }
             pauseInternal();
         }
     }
@@ -414,6 +851,12 @@ public class StreamedSoundSource extends SongSource implements Disposable {
 
     void playAsync() {
         synchronized (this) {
+            if (!ready) {
+                // loading failed, otherwise the task would have been executed after loading
+                playing.set(false);
+                stopped.set(true);
+                return;
+            }
             playInternal();
         }
     }
@@ -434,6 +877,9 @@ public class StreamedSoundSource extends SongSource implements Disposable {
 
     void stopAsync() {
         synchronized (this) {
+            if (!ready) {
+                return;
+            }
             stopInternal();
         }
     }
@@ -445,6 +891,7 @@ public class StreamedSoundSource extends SongSource implements Disposable {
         processedTime = 0f;
         queuedSeconds = 0f;
         bufferTimeQueue.clear();
+        resetLoopHeadState();
         fillAllBuffersInternal();
         playing.set(false);
         stopped.set(true);
@@ -460,20 +907,41 @@ public class StreamedSoundSource extends SongSource implements Disposable {
     }
 
     private boolean fillBufferInternal(int bufferId) {
-        int length = audioStream.read(tempBytes);
+        // LOOP HEAD CACHE: QUEUE THE CACHED HEAD OR CONTINUE BEHIND IT
+        if (spliceLoopHead) {
+            spliceLoopHead = false;
+            if (isLoopHeadCached()) {
+                return queueLoopHead(bufferId);
+            }
+            skipStreamToPosition(loopStart);
+            captureLoopHead = loopHeadCacheEnabled;
+        } else if (skipBehindLoopHead) {
+            skipBehindLoopHead = false;
+            skipStreamToPosition(loopStart + loopHeadSeconds);
+        }
+
+        int length = readStream();
         if (length <= 0) {
             if (!looping || manuallySetBehindLoopEnd) {
                 bufferTimeQueue.add(Float.MAX_VALUE);
                 return false;
             }
-            skipStreamToPosition(loopStart);
             queuedSeconds = loopStart;
             bufferTimeQueue.add(Float.MIN_VALUE);
-            length = audioStream.read(tempBytes);
+            if (isLoopHeadCached()) {
+                return queueLoopHead(bufferId);
+            }
+            skipStreamToPosition(loopStart);
+            captureLoopHead = loopHeadCacheEnabled;
+            length = readStream();
             if (length <= 0) {
                 return false;
             }
         }
+        if (captureLoopHead) {
+            captureLoopHead = false;
+            cacheLoopHead(length);
+        }
 
         float secondsInUploadBuffer = length / bytesPerSecond;
         int bytesToUpload = length;
@@ -485,15 +953,15 @@ public class StreamedSoundSource extends SongSource implements Disposable {
             ) {
                 secondsInUploadBuffer = loopEnd - queuedSeconds;
                 bytesToUpload = (int) (bytesPerSecond * secondsInUploadBuffer);
-                final int overbytes =
-                    bytesToUpload % (audioStream.getBitsPerSample() / 8);
+                final int overbytes = bytesToUpload % alignmentBytes;
                 bytesToUpload = MathUtils.clamp(
                     bytesToUpload - overbytes,
                     0,
                     length
                 );
+                // block based data can only be cut at block boundaries, which may end the loop early
+                secondsInUploadBuffer = bytesToUpload / bytesPerSecond;
                 loopEndCut = true;
-                skipStreamToPosition(loopStart);
                 queuedSeconds = loopStart;
             }
         }
@@ -504,14 +972,23 @@ public class StreamedSoundSource extends SongSource implements Disposable {
             bufferTimeQueue.add(Float.MIN_VALUE);
             queuedSeconds = loopStart;
         }
-        tempBuffer.clear();
-        tempBuffer.put(tempBytes, 0, bytesToUpload).flip();
+        tempBuffer.limit(bytesToUpload);
         AL10.alBufferData(
             bufferId,
             pcmFormat.getAlId(),
             tempBuffer,
             audioStream.getSampleRate()
         );
+
+        // REWIND AFTER UPLOADING, THE TEMP BUFFER IS REUSED WHILE SKIPPING
+        if (loopEndCut) {
+            if (isLoopHeadCached()) {
+                spliceLoopHead = true;
+            } else {
+                skipStreamToPosition(loopStart);
+                captureLoopHead = loopHeadCacheEnabled;
+            }
+        }
         return true;
     }
 
@@ -519,7 +996,7 @@ public class StreamedSoundSource extends SongSource implements Disposable {
         AL10.alSourcei(sourceId, AL10.AL_BUFFER, 0); // removes all buffers from the source
         errorLogger.checkLogError("error removing buffers from the source");
         int filledBufferCount = 0;
-        for (int i = 0; i < StreamedSoundSource.BUFFER_COUNT; i++) {
+        for (int i = 0; i < buffers.size; i++) {
             final int bufferId = buffers.get(i);
             if (!fillBufferInternal(bufferId)) {
                 break;
@@ -546,7 +1023,8 @@ public class StreamedSoundSource extends SongSource implements Disposable {
      * Returns the duration of the attached sound in seconds.
      *
      * @return the duration of the attached sound<br>
-     *         Returns -1f if the duration couldn't be measured.
+     *         Returns -1f if the duration couldn't be measured.<br>
+     *         Returns -1f if the source is not {@link #isReady() ready} yet.
      */
     @Override
     public float getDuration() {
@@ -554,40 +1032,11 @@ public class StreamedSoundSource extends SongSource implements Disposable {
     }
 
     void readyToDispose() {
-        readyToDispose = true;
-    }
-
-    private static AudioStream createAudioStream(FileHandle file) {
-        final String fileExtension = file.extension();
-        SoundFileType soundFileType = SoundFileType.getByFileEnding(
-            fileExtension
-        );
-        if (soundFileType == null) {
-            try {
-                soundFileType = SoundFileType.parseFromFile(file);
-            } catch (final IOException e) {
-                // ignore
-            }
-        }
-
-        if (soundFileType != null) {
-            switch (soundFileType) {
-                case FLAC:
-                    return new FlacInputStream(file);
-                case OGG:
-                    return new OggInputStream(file, null);
-                case WAV:
-                    return new WavInputStream(file);
-                case MP3:
-                    return new Mp3InputStream(file);
-                case AIFF:
-                    return new AiffInputStream(file);
-                case QOA:
-                    return new QoaInputStream(file);
-            }
+        synchronized (this) {
+            // tasks that were posted concurrently must not touch the source anymore
+            ready = false;
+            readyToDispose = true;
         }
-
-        return null;
     }
 
     /**
@@ -605,8 +1054,38 @@ public class StreamedSoundSource extends SongSource implements Disposable {
                 // ignore
             }
         }
+        releaseResources();
+    }
+
+    /**
+     * Disposes the sound sources native resources without blocking the calling thread. The source is stopped right away and its resources are released on
+     * the stream thread as soon as all pending tasks of this source are done. You should never use this sound source after disposing it.
+     */
+    public void disposeAsync() {
+        // effects keep track of their sources, so they must be detached on the caller's thread
+        detachAllEffects();
+        audio.streamManager.removeSource(this);
+        playing.set(false);
+        stopped.set(true);
+        // stop here, the queued buffers would keep playing until the stream thread gets to the dispose task
+        AL10.alSourceStop(sourceId);
+        audio.streamManager.postTask(this, TaskAction.DISPOSE);
+    }
+
+    void disposeAsyncInternal() {
+        synchronized (this) {
+            ready = false;
+            AL10.alSourceStop(sourceId);
+            releaseResources();
+        }
+    }
+
+    private void releaseResources() {
         super.dispose();
-        AL10.alDeleteBuffers(buffers);
+        for (int i = 0; i < buffers.size; i++) {
+            AL10.alDeleteBuffers(buffers.get(i));
+        }
+        buffers.clear();
         errorLogger.checkLogError("Failed to dispose the SoundSources buffers");
         StreamUtils.closeQuietly(audioStream);
     }
@@ -83,14 +83,19 @@ public abstract class WaveLoader {
     }
 
     /**
-     * Loads a wav file into a {@link SoundBuffer}.
+     * Loads a wav file into a {@link SoundBuffer}. Uncompressed pcm data of files that are present on the file system is read into off-heap memory and handed to
+     * OpenAL without copying it to the heap first.
      *
      * @param file the file handle
      *
      * @return the SoundBuffer
      */
     public static SoundBuffer load(FileHandle file) {
-        final WavInputStream input = new WavInputStream(file, false);
+        final SoundBuffer direct = DirectPcmLoader.loadWav(file);
+        if (direct != null) {
+            return direct;
+        }
+        final WavInputStream input = new WavInputStream(file, false, true);
         return WaveLoader.load(input);
     }
 
@@ -107,7 +112,8 @@ public abstract class WaveLoader {
     }
 
     /**
-     * Loads a wav file into a {@link SoundBuffer}.
+     * Loads a wav file into a {@link SoundBuffer}. Uncompressed pcm data of files that are present on the file system is read into off-heap memory and handed to
+     * OpenAL without copying it to the heap first.
      *
      * @param file the file handle
      * @param useJavaDecoder enforces the java decoder instead of the native one
@@ -115,7 +121,16 @@ public abstract class WaveLoader {
      * @return the SoundBuffer
      */
     public static SoundBuffer load(FileHandle file, boolean useJavaDecoder) {
-        final WavInputStream input = new WavInputStream(file, useJavaDecoder);
+        final SoundBuffer direct = DirectPcmLoader.loadWav(file);
+        if (direct != null) {
+            return direct;
+        }
+        // passthrough would bypass the requested decoder
+        final WavInputStream input = new WavInputStream(
+            file,
+            useJavaDecoder,
+            !useJavaDecoder
+        );
         return WaveLoader.load(input);
     }
 
@@ -143,7 +158,7 @@ public abstract class WaveLoader {
      * @return the SoundBuffer
      */
     public static SoundBuffer load(InputStream stream) {
-        final WavInputStream input = new WavInputStream(stream, false);
+        final WavInputStream input = new WavInputStream(stream, false, true);
         return WaveLoader.load(input);
     }
 
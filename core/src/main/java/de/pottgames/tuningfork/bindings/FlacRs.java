@@ -1,10 +1,78 @@
 package de.pottgames.tuningfork.bindings;
 
 import de.pottgames.tuningfork.misc.ExperimentalFeature;
+import java.nio.ByteBuffer;
 
-@ExperimentalFeature
 public class FlacRs {
 
     @ExperimentalFeature
     public static native ImaAdpcmData decodeFlac(byte[] data);
+
+    /**
+     * Decodes a flac file into interleaved little-endian pcm data, 8-bit samples are unsigned. Both buffers must be direct, their data is expected to start
+     * at index 0, the position is ignored. Decoding stops when the output buffer is full.
+     *
+     * @param input the flac file
+     * @param inputLength the number of bytes of the flac file
+     * @param output the output buffer
+     * @param outputLength the capacity of the output buffer in bytes
+     *
+     * @return the number of bytes written or -1 if an error occurred
+     */
+    public static native long decodeFlacInto(
+        ByteBuffer input,
+        int inputLength,
+        ByteBuffer output,
+        int outputLength
+    );
+
+    /**
+     * Opens a native flac decoder that keeps its state between reads, used for streaming. The file must be present on the file system.
+     *
+     * @param path the absolute path of the file
+     *
+     * @return a handle to the decoder or 0 if the file couldn't be opened
+     */
+    public static native long openStream(String path);
+
+    /**
+     * Decodes interleaved little-endian pcm data into a direct buffer, 8-bit samples are unsigned.
+     *
+     * @param handle the decoder handle
+     * @param buffer a direct buffer
+     * @param offset the index in the buffer to start writing at
+     * @param length the maximum number of bytes to write
+     *
+     * @return the number of bytes written, 0 at the end of the stream or -1 if an error occurred
+     */
+    public static native int readStream(
+        long handle,
+        ByteBuffer buffer,
+        int offset,
+        int length
+    );
+
+    /**
+     * Continues decoding at the frame that starts at the given byte offset and sample number and skips samples until the target sample is reached.
+     *
+     * @param handle the decoder handle
+     * @param frameOffset the byte offset of the frame from the start of the file
+     * @param frameSample the number of the first sample in the frame
+     * @param targetSample the target sample
+     *
+     * @return the sample the stream is positioned at or -1 if an error occurred
+     */
+    public static native long seekStream(
+        long handle,
+        long frameOffset,
+        long frameSample,
+        long targetSample
+    );
+
+    /**
+     * Closes the decoder and frees its native memory. The handle must not be used afterward.
+     *
+     * @param handle the decoder handle
+     */
+    public static native void closeStream(long handle);
 }
@@ -1,8 +1,63 @@
 package de.pottgames.tuningfork.bindings;
 
+import java.nio.ByteBuffer;
+
 public class ImaAdpcmRs {
 
     public native byte[] decode(byte[] data, int blockSize, boolean stereo);
 
     public native ImaAdpcmData decodeFile(String path);
+
+    /**
+     * Opens a native IMA ADPCM decoder that keeps its state between reads, used for streaming. The file must be present on the file system.
+     *
+     * @param path the absolute path of the file
+     * @param dataOffset the byte offset of the audio data from the start of the file
+     * @param dataLength the length of the audio data in bytes
+     * @param blockSize the block size in bytes
+     * @param channels the number of channels, 1 or 2
+     *
+     * @return a handle to the decoder or 0 if the file couldn't be opened
+     */
+    public static native long openStream(
+        String path,
+        long dataOffset,
+        long dataLength,
+        int blockSize,
+        int channels
+    );
+
+    /**
+     * Decodes 16-bit interleaved pcm data into a direct buffer.
+     *
+     * @param handle the decoder handle
+     * @param buffer a direct buffer
+     * @param offset the index in the buffer to start writing at
+     * @param length the maximum number of bytes to write
+     *
+     * @return the number of bytes written, 0 at the end of the stream or -1 if an error occurred
+     */
+    public static native int readStream(
+        long handle,
+        ByteBuffer buffer,
+        int offset,
+        int length
+    );
+
+    /**
+     * Jumps to the given sample frame.
+     *
+     * @param handle the decoder handle
+     * @param sampleFrame the sample frame
+     *
+     * @return the sample frame the stream is positioned at or -1 if an error occurred
+     */
+    public static native long seekStream(long handle, long sampleFrame);
+
+    /**
+     * Closes the decoder and frees its native memory. The handle must not be used afterward.
+     *
+     * @param handle the decoder handle
+     */
+    public static native void closeStream(long handle);
 }
@@ -15,6 +15,7 @@ package de.pottgames.tuningfork.decoder;
 import de.pottgames.tuningfork.PcmFormat.PcmDataType;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 public class Aiff16BitDecoder implements AiffDecoder {
 
@@ -71,6 +72,41 @@ public class Aiff16BitDecoder implements AiffDecoder {
         return writeOffset;
     }
 
+    @Override
+    public int read(ByteBuffer output) throws IOException {
+        // we don't check if the decoder has been set up properly because this method is crucial for performance
+
+        if (inputBytesRemaining <= 0) {
+            return -1;
+        }
+
+        final int start = output.position();
+
+        while (output.hasRemaining()) {
+            if (bufferOffset >= bufferLength - 1) {
+                bufferLength = fillBuffer();
+                if (bufferLength < 2) {
+                    return output.position() == start
+                        ? -1
+                        : output.position() - start;
+                }
+            }
+
+            while (bufferOffset + 1 < bufferLength && output.remaining() > 1) {
+                final byte byte1 = buffer[bufferOffset++];
+                final byte byte2 = buffer[bufferOffset++];
+                output.put(byte2);
+                output.put(byte1);
+                inputBytesRemaining -= 2;
+                if (inputBytesRemaining <= 0) {
+                    return output.position() - start;
+                }
+            }
+        }
+
+        return output.position() - start;
+    }
+
     private int fillBuffer() throws IOException {
         bufferOffset = 0;
         return stream.read(buffer, 0, buffer.length);
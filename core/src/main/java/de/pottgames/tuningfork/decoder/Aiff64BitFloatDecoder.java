@@ -15,6 +15,7 @@ package de.pottgames.tuningfork.decoder;
 import de.pottgames.tuningfork.PcmFormat.PcmDataType;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 public class Aiff64BitFloatDecoder implements AiffDecoder {
 
@@ -78,6 +79,53 @@ public class Aiff64BitFloatDecoder implements AiffDecoder {
         return writeOffset;
     }
 
+    @Override
+    public int read(ByteBuffer output) throws IOException {
+        // we don't check if the decoder has been set up properly because this method is crucial for performance
+
+        if (inputBytesRemaining <= 0) {
+            return -1;
+        }
+
+        final int start = output.position();
+
+        while (output.hasRemaining()) {
+            if (bufferOffset >= bufferLength - 7) {
+                bufferLength = fillBuffer();
+                if (bufferLength < 8) {
+                    return output.position() == start
+                        ? -1
+                        : output.position() - start;
+                }
+            }
+
+            while (bufferOffset + 7 < bufferLength && output.remaining() > 7) {
+                final byte byte1 = buffer[bufferOffset++];
+                final byte byte2 = buffer[bufferOffset++];
+                final byte byte3 = buffer[bufferOffset++];
+                final byte byte4 = buffer[bufferOffset++];
+                final byte byte5 = buffer[bufferOffset++];
+                final byte byte6 = buffer[bufferOffset++];
+                final byte byte7 = buffer[bufferOffset++];
+                final byte byte8 = buffer[bufferOffset++];
+                output.put(byte8);
+                output.put(byte7);
+                output.put(byte6);
+                output.put(byte5);
+                output.put(byte4);
+                output.put(byte3);
+                output.put(byte2);
+                output.put(byte1);
+                inputBytesRemaining -= 8;
+                if (inputBytesRemaining <= 0) {
+                    return output.position() - start;
+                }
+            }
+        }
+
+        return output.position() - start;
+    }
+
     private int fillBuffer() throws IOException {
         bufferOffset = 0;
         return stream.read(buffer, 0, buffer.length);
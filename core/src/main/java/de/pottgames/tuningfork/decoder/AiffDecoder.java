@@ -16,6 +16,7 @@ import de.pottgames.tuningfork.PcmFormat.PcmDataType;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 public interface AiffDecoder extends Closeable {
     void setup(InputStream stream, long streamLength);
@@ -27,4 +28,13 @@ public interface AiffDecoder extends Closeable {
     PcmDataType outputPcmDataType();
 
     int read(byte[] output) throws IOException;
+
+    default int read(ByteBuffer output) throws IOException {
+        final byte[] bytes = new byte[output.remaining()];
+        final int bytesRead = read(bytes);
+        if (bytesRead > 0) {
+            output.put(bytes, 0, bytesRead);
+        }
+        return bytesRead;
+    }
 }
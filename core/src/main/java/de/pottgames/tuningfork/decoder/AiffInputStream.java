@@ -22,10 +22,11 @@ import de.pottgames.tuningfork.decoder.util.Util;
 import de.pottgames.tuningfork.logger.TuningForkLogger;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 public class AiffInputStream implements AudioStream {
 
-    private final InputStream stream;
+    private InputStream stream;
     private AiffDecoder decoder;
     private final TuningForkLogger logger;
     private final FileHandle file;
@@ -36,6 +37,7 @@ public class AiffInputStream implements AudioStream {
     private float duration = -1f;
     private boolean closed = false;
     private String compressionId = "NONE";
+    private final boolean allowPassthrough;
 
     /**
      * Initializes a {@link AiffInputStream} from a {@link FileHandle}.
@@ -43,11 +45,22 @@ public class AiffInputStream implements AudioStream {
      * @param file the file
      */
     public AiffInputStream(FileHandle file) {
+        this(file, false);
+    }
+
+    /**
+     * Initializes a {@link AiffInputStream} from a {@link FileHandle}.
+     *
+     * @param file the file
+     * @param allowPassthrough true if µ-law and A-law data may be passed through as is, only use this if the data is handed to OpenAL directly
+     */
+    public AiffInputStream(FileHandle file, boolean allowPassthrough) {
         stream = file.read();
         this.file = file;
+        this.allowPassthrough = allowPassthrough;
         logger = Audio.get().getLogger();
         try {
-            setup();
+            setup(0L);
         } catch (final IOException e) {
             this.throwRuntimeError("Error reading aiff file", e);
         }
@@ -60,17 +73,29 @@ public class AiffInputStream implements AudioStream {
      * @param stream the input stream
      */
     public AiffInputStream(InputStream stream) {
+        this(stream, false);
+    }
+
+    /**
+     * Initializes a {@link AiffInputStream} from an {@link InputStream}. This stream does not support the reset function. Use
+     * {@link #AiffInputStream(FileHandle)} instead to get the full functionality.
+     *
+     * @param stream the input stream
+     * @param allowPassthrough true if µ-law and A-law data may be passed through as is, only use this if the data is handed to OpenAL directly
+     */
+    public AiffInputStream(InputStream stream, boolean allowPassthrough) {
         this.stream = stream;
         file = null;
+        this.allowPassthrough = allowPassthrough;
         logger = Audio.get().getLogger();
         try {
-            setup();
+            setup(0L);
         } catch (final IOException e) {
             this.throwRuntimeError("Error reading aiff file", e);
         }
     }
 
-    private void setup() throws IOException {
+    private void setup(long startFrame) throws IOException {
         final boolean aifc = readFormChunk();
         readCommChunk(aifc);
 
@@ -78,15 +103,13 @@ public class AiffInputStream implements AudioStream {
         final long dataChunkSize = skipToChunk('S', 'S', 'N', 'D');
         final long offset = readUnsignedLong();
         final long blockSize = readUnsignedLong();
-        if (blockSize > 0) {
+        if (blockSize > 0 && startFrame == 0L) {
             logger.warn(
                 this.getClass(),
                 "This aiff file uses block-aligned sound data, which TuningFork does not fully support."
             );
         }
-        skip(offset);
 
-        // SETUP DECODER
         int inputBytesPerSample = 0;
         if (inputBitsPerSample == 64) {
             inputBytesPerSample = 8;
@@ -99,6 +122,10 @@ public class AiffInputStream implements AudioStream {
         } else {
             inputBytesPerSample = 1;
         }
+        final long startOffset = startFrame * channels * inputBytesPerSample;
+        skip(offset + startOffset);
+
+        // SETUP DECODER
         if ("NONE".equalsIgnoreCase(compressionId)) {
             switch (inputBytesPerSample) {
                 case 1:
@@ -121,7 +148,9 @@ public class AiffInputStream implements AudioStream {
                 channels,
                 sampleRate,
                 Encoding.A_LAW,
-                true
+                true,
+                allowPassthrough &&
+                    LawDecoder.isPassthroughSupported(Encoding.A_LAW, channels)
             );
         } else if (
             "ulaw".equalsIgnoreCase(compressionId) && inputBytesPerSample == 1
@@ -130,7 +159,9 @@ public class AiffInputStream implements AudioStream {
                 channels,
                 sampleRate,
                 Encoding.U_LAW,
-                true
+                true,
+                allowPassthrough &&
+                    LawDecoder.isPassthroughSupported(Encoding.U_LAW, channels)
             );
         } else if (
             "FL32".equalsIgnoreCase(compressionId) && inputBytesPerSample == 4
@@ -152,7 +183,7 @@ public class AiffInputStream implements AudioStream {
                     ")"
             );
         }
-        decoder.setup(stream, dataChunkSize - 8 - offset);
+        decoder.setup(stream, dataChunkSize - 8 - offset - startOffset);
     }
 
     private void readCommChunk(boolean aifc) throws IOException {
@@ -262,9 +293,7 @@ public class AiffInputStream implements AudioStream {
     }
 
     private void skip(long bytes) throws IOException {
-        for (int i = 0; i < bytes; i++) {
-            stream.read();
-        }
+        Util.skipAll(stream, bytes);
     }
 
     public void endChunk(long chunkSize) throws IOException {
@@ -282,6 +311,15 @@ public class AiffInputStream implements AudioStream {
         }
     }
 
+    @Override
+    public int read(ByteBuffer buffer) {
+        try {
+            return decoder.read(buffer);
+        } catch (final IOException e) {
+            throw new TuningForkRuntimeException(e);
+        }
+    }
+
     public long totalSamplesPerChannel() {
         return totalSampleFrames;
     }
@@ -299,7 +337,37 @@ public class AiffInputStream implements AudioStream {
             );
         }
         StreamUtils.closeQuietly(this);
-        return new AiffInputStream(file);
+        return new AiffInputStream(file, allowPassthrough);
+    }
+
+    @Override
+    public boolean isSeekable() {
+        return file != null;
+    }
+
+    /**
+     * Seeks to the given sample frame by re-opening the file and skipping directly to the byte offset of the frame.
+     */
+    @Override
+    public long seek(long sampleFrame) {
+        if (!isSeekable()) {
+            return -1L;
+        }
+
+        final long frame = Math.min(
+            Math.max(sampleFrame, 0L),
+            totalSampleFrames
+        );
+        StreamUtils.closeQuietly(decoder);
+        decoder = null;
+        stream = file.read();
+        try {
+            setup(frame);
+        } catch (final IOException e) {
+            this.throwRuntimeError("Error reading aiff file", e);
+        }
+
+        return frame;
     }
 
     @Override
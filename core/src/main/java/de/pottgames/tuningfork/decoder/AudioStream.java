@@ -15,6 +15,7 @@ package de.pottgames.tuningfork.decoder;
 import de.pottgames.tuningfork.PcmFormat.PcmDataType;
 import de.pottgames.tuningfork.StreamedSoundSource;
 import java.io.Closeable;
+import java.nio.ByteBuffer;
 
 /**
  * An audio stream interface that can be implemented to feed a {@link StreamedSoundSource}.
@@ -68,6 +69,24 @@ public interface AudioStream extends Closeable {
      */
     int read(byte[] bytes);
 
+    /**
+     * Reads bytes from the stream into the given buffer, starting at its position, until the buffer has no bytes remaining or the stream ends. The position of
+     * the buffer is advanced by the number of bytes read. Returns the number of bytes that were actually read.<br>
+     * The default implementation reads into a temporary array first, implementations should override this to decode directly into the buffer.
+     *
+     * @param buffer the buffer to store the bytes in, usually a direct buffer that is uploaded to OpenAL afterward
+     *
+     * @return number of bytes read or -1 if there are no bytes left
+     */
+    default int read(ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.remaining()];
+        final int bytesRead = read(bytes);
+        if (bytesRead > 0) {
+            buffer.put(bytes, 0, bytesRead);
+        }
+        return bytesRead;
+    }
+
     /**
      * Returns the output data format of this AudioStream.
      *
@@ -94,6 +113,29 @@ public interface AudioStream extends Closeable {
         return -1;
     }
 
+    /**
+     * Returns true if this AudioStream supports random access via {@link #seek(long)}.
+     *
+     * @return true if seekable
+     */
+    default boolean isSeekable() {
+        return false;
+    }
+
+    /**
+     * Moves the read position of the stream to the given sample frame without decoding all data in between. Implementations may land on a position before the
+     * requested one (e.g. the start of a block or frame), the position that was actually reached is returned. The caller is responsible for discarding or
+     * compensating the difference.<br>
+     * Returns -1 if this stream is not seekable, in which case the read position is left untouched.
+     *
+     * @param sampleFrame the target position in sample frames (samples per channel)
+     *
+     * @return the sample frame the stream is positioned at, or -1 if seeking is not supported
+     */
+    default long seek(long sampleFrame) {
+        return -1L;
+    }
+
     /**
      * Returns true if the AudioStream is closed.
      *
@@ -1,5 +1,6 @@
 package de.pottgames.tuningfork.decoder;
 
+import de.pottgames.tuningfork.ALExtension;
 import de.pottgames.tuningfork.Audio;
 import de.pottgames.tuningfork.PcmFormat.PcmDataType;
 import de.pottgames.tuningfork.decoder.LawDecoder.Encoding;
@@ -8,12 +9,17 @@ public class DefaultWavDecoderProvider implements WavDecoderProvider {
 
     @Override
     public WavDecoder getDecoder(WavFmtChunk fmtChunk, boolean forStreaming) {
+        return this.getDecoder(fmtChunk, forStreaming, false);
+    }
+
+    @Override
+    public WavDecoder getDecoder(
+        WavFmtChunk fmtChunk,
+        boolean forStreaming,
+        boolean allowPassthrough
+    ) {
         final int inputBitsPerSample = fmtChunk.getwBitsPerSample();
-        final int format = fmtChunk.getwFormatTag();
-        final int audioFormat =
-            format == WavAudioFormat.WAVE_FORMAT_EXTENSIBLE.getRegNumber()
-                ? fmtChunk.getSubFormatDataCode()
-                : format;
+        final int audioFormat = DefaultWavDecoderProvider.audioFormat(fmtChunk);
         final int channels = fmtChunk.getnChannels();
         final int blockAlign = fmtChunk.getnBlockAlign();
         final int sampleRate = (int) fmtChunk.getnSamplesPerSec();
@@ -29,7 +35,8 @@ public class DefaultWavDecoderProvider implements WavDecoderProvider {
                     channels,
                     blockAlign,
                     sampleRate,
-                    forStreaming
+                    forStreaming,
+                    allowPassthrough
                 );
             case 8:
                 if (
@@ -50,7 +57,12 @@ public class DefaultWavDecoderProvider implements WavDecoderProvider {
                         channels,
                         sampleRate,
                         Encoding.U_LAW,
-                        false
+                        false,
+                        allowPassthrough &&
+                            LawDecoder.isPassthroughSupported(
+                                Encoding.U_LAW,
+                                channels
+                            )
                     );
                 }
                 if (
@@ -61,7 +73,12 @@ public class DefaultWavDecoderProvider implements WavDecoderProvider {
                         channels,
                         sampleRate,
                         Encoding.A_LAW,
-                        false
+                        false,
+                        allowPassthrough &&
+                            LawDecoder.isPassthroughSupported(
+                                Encoding.A_LAW,
+                                channels
+                            )
                     );
                 }
                 break;
@@ -120,12 +137,51 @@ public class DefaultWavDecoderProvider implements WavDecoderProvider {
         return null;
     }
 
+    /**
+     * Allows the native decoder to stream IMA ADPCM files, even if they could be passed through to OpenAL. The decoded pcm data can be positioned on any
+     * sample frame, passed through data only on block boundaries, which makes seeks and loop points of streams sample exact. Passthrough stays the fallback
+     * if the native decoders aren't available.
+     */
+    @Override
+    public boolean isNativeStreamingAllowed(
+        WavFmtChunk fmtChunk,
+        boolean allowPassthrough
+    ) {
+        final int channels = fmtChunk.getnChannels();
+        return (
+            Audio.get().isNativeDecodersAvailable() &&
+            fmtChunk.getwBitsPerSample() == 4 &&
+            DefaultWavDecoderProvider.audioFormat(fmtChunk) ==
+            WavAudioFormat.WAVE_FORMAT_DVI_ADPCM.getRegNumber() &&
+            channels >= 1 &&
+            channels <= 2
+        );
+    }
+
     protected WavDecoder getAdpcmDecoder(
         final int audioFormat,
         final int channels,
         final int blockAlign,
         final int sampleRate,
         boolean forStreaming
+    ) {
+        return getAdpcmDecoder(
+            audioFormat,
+            channels,
+            blockAlign,
+            sampleRate,
+            forStreaming,
+            false
+        );
+    }
+
+    protected WavDecoder getAdpcmDecoder(
+        final int audioFormat,
+        final int channels,
+        final int blockAlign,
+        final int sampleRate,
+        boolean forStreaming,
+        boolean allowPassthrough
     ) {
         if (channels < 1 || channels > 2) {
             return null;
@@ -134,6 +190,16 @@ public class DefaultWavDecoderProvider implements WavDecoderProvider {
         if (
             audioFormat == WavAudioFormat.WAVE_FORMAT_DVI_ADPCM.getRegNumber()
         ) {
+            if (
+                allowPassthrough &&
+                isImaAdpcmPassthroughAvailable(channels, blockAlign)
+            ) {
+                return new ImaAdpcmPassthroughDecoder(
+                    blockAlign,
+                    channels,
+                    sampleRate
+                );
+            }
             if (!forStreaming && Audio.get().isNativeDecodersAvailable()) {
                 return new ImaAdpcmRsDecoder(blockAlign, channels, sampleRate);
             }
@@ -145,4 +211,31 @@ public class DefaultWavDecoderProvider implements WavDecoderProvider {
 
         return null;
     }
+
+    /**
+     * Returns true if IMA ADPCM data can be uploaded to OpenAL as is, without decoding it first.
+     *
+     * @param channels the number of channels
+     * @param blockSize the block size in bytes
+     *
+     * @return true if the data can be passed through
+     */
+    protected boolean isImaAdpcmPassthroughAvailable(
+        int channels,
+        int blockSize
+    ) {
+        final Audio audio = Audio.get();
+        return (
+            audio.isExtensionAvailable(ALExtension.AL_EXT_IMA4) &&
+            audio.isExtensionAvailable(ALExtension.AL_SOFT_BLOCK_ALIGNMENT) &&
+            ImaAdpcmPassthroughDecoder.isSupportedBlockSize(blockSize, channels)
+        );
+    }
+
+    private static int audioFormat(WavFmtChunk fmtChunk) {
+        final int format = fmtChunk.getwFormatTag();
+        return format == WavAudioFormat.WAVE_FORMAT_EXTENSIBLE.getRegNumber()
+            ? fmtChunk.getSubFormatDataCode()
+            : format;
+    }
 }
@@ -22,6 +22,7 @@ import io.nayuki.flac.decode.FlacDecoder;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 /**
  * An {@link AudioStream} implementation to read flac files.
@@ -30,13 +31,14 @@ import java.io.InputStream;
  */
 public class FlacInputStream implements AudioStream {
 
-    private final FlacDecoder decoder;
+    private FlacDecoder decoder;
     private boolean closed = false;
     private int[][] sampleBuffer;
     private int sampleBufferBlockSize;
     private int bytesPerSample;
     private float duration;
     private final FileHandle fileHandle;
+    private FlacSeeker seeker;
 
     /**
      * Initializes a {@link FlacInputStream} from a {@link File}.
@@ -142,22 +144,77 @@ public class FlacInputStream implements AudioStream {
         return new FlacInputStream(fileHandle);
     }
 
+    @Override
+    public boolean isSeekable() {
+        return fileHandle != null;
+    }
+
+    /**
+     * Seeks to the given sample frame. The frame that contains the sample is located via the SEEKTABLE of the file or, if the file doesn't have one, by
+     * searching frame headers. Decoding starts at the closest preceding frame listed, so that usually only a few frames have to be decoded and discarded.
+     */
+    @Override
+    public long seek(long sampleFrame) {
+        if (!isSeekable()) {
+            return -1L;
+        }
+        if (seeker == null) {
+            seeker = new FlacSeeker(fileHandle);
+        }
+
+        final long target = Math.max(sampleFrame, 0L);
+        final long[] frame = seeker.findFrame(target);
+        try {
+            decoder.close();
+            decoder = new FlacDecoder(seeker.open(frame[0]));
+            while (decoder.readAndHandleMetadataBlock() != null) {
+                // read the synthetic stream info block
+            }
+        } catch (final IOException e) {
+            throw new TuningForkRuntimeException(e);
+        }
+
+        long position = frame[1];
+        readBlock();
+        while (
+            sampleBufferBlockSize > 0 &&
+            position + sampleBufferBlockSize <= target
+        ) {
+            position += sampleBufferBlockSize;
+            readBlock();
+        }
+
+        // DISCARD THE SAMPLES BEFORE THE TARGET IN THE CURRENT BLOCK
+        final int skip = (int) (target - position);
+        if (sampleBufferBlockSize > 0 && skip > 0) {
+            discardBlockSamples(skip);
+            position = target;
+        }
+
+        return position;
+    }
+
     @Override
     public int read(byte[] bytes) {
+        return this.read(ByteBuffer.wrap(bytes));
+    }
+
+    @Override
+    public int read(ByteBuffer buffer) {
         if (sampleBufferBlockSize == 0) {
             return -1;
         }
 
-        int availableBytes = bytes.length;
-        int bytesIndex = 0;
+        final int start = buffer.position();
+        final int frameBytes = decoder.streamInfo.numChannels * bytesPerSample;
 
-        while (
-            availableBytes >=
-            sampleBufferBlockSize *
-                decoder.streamInfo.numChannels *
-                bytesPerSample
-        ) {
-            for (int i = 0; i < sampleBufferBlockSize; i++) {
+        while (sampleBufferBlockSize > 0 && buffer.remaining() >= frameBytes) {
+            // small buffers may not fit a whole block, the rest of the block is kept for the next read
+            final int frames = Math.min(
+                sampleBufferBlockSize,
+                buffer.remaining() / frameBytes
+            );
+            for (int i = 0; i < frames; i++) {
                 for (
                     int channelIndex = 0;
                     channelIndex < decoder.streamInfo.numChannels;
@@ -167,23 +224,27 @@ public class FlacInputStream implements AudioStream {
                     if (bytesPerSample == 1) {
                         sample += 128; // because OpenAL expects an unsigned byte
                     }
-                    for (int j = 0; j < bytesPerSample; j++, bytesIndex++) {
-                        bytes[bytesIndex] = (byte) (sample >>> (j << 3));
+                    for (int j = 0; j < bytesPerSample; j++) {
+                        buffer.put((byte) (sample >>> (j << 3)));
                     }
                 }
             }
 
-            availableBytes -=
-                sampleBufferBlockSize *
-                decoder.streamInfo.numChannels *
-                bytesPerSample;
-            readBlock();
-            if (sampleBufferBlockSize == 0) {
-                break;
+            if (frames < sampleBufferBlockSize) {
+                discardBlockSamples(frames);
+            } else {
+                readBlock();
             }
         }
 
-        return bytes.length - availableBytes;
+        return buffer.position() - start;
+    }
+
+    private void discardBlockSamples(int count) {
+        sampleBufferBlockSize -= count;
+        for (final int[] channel : sampleBuffer) {
+            System.arraycopy(channel, count, channel, 0, sampleBufferBlockSize);
+        }
     }
 
     private void readBlock() {
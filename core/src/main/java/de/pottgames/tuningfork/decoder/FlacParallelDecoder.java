@@ -0,0 +1,206 @@
+/**
+ * Copyright 2024 Matthias Finke
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package de.pottgames.tuningfork.decoder;
+
+import com.badlogic.gdx.files.FileHandle;
+import de.pottgames.tuningfork.PcmFormat;
+import de.pottgames.tuningfork.TuningForkRuntimeException;
+import io.nayuki.flac.decode.FlacDecoder;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.stream.IntStream;
+
+/**
+ * Decodes a whole flac file on multiple cores. Flac frames can be decoded independently once their byte offsets are known, so the file is split into ranges
+ * of frames (found via the SEEKTABLE or by searching frame headers) that are decoded in parallel. Each range writes its interleaved samples straight into its
+ * own region of the output buffer.<br>
+ * A range must decode to exactly the number of samples between its split point and the next one, otherwise decoding fails with an exception. This guards
+ * against frame headers that were falsely detected in the audio data.
+ *
+ * @author Matthias
+ */
+public class FlacParallelDecoder {
+
+    private final FlacSeeker seeker;
+    private final long[][] splitPoints;
+    private final int channels;
+    private final int bitsPerSample;
+    private final int bytesPerSample;
+    private final int sampleRate;
+    private final long totalSamples;
+
+    /**
+     * Reads the metadata of the file and splits it into ranges.
+     *
+     * @param file the file handle
+     * @param parts the desired number of ranges, usually a small multiple of the available processors
+     */
+    public FlacParallelDecoder(FileHandle file, int parts) {
+        seeker = new FlacSeeker(file);
+        channels = seeker.getChannels();
+        bitsPerSample = seeker.getBitsPerSample();
+        sampleRate = seeker.getSampleRate();
+        totalSamples = seeker.totalSamples();
+
+        if (!PcmFormat.isSupportedChannelCount(channels)) {
+            throw new TuningForkRuntimeException(
+                "Unsupported number of channels in flac file. Must be 1, 2, 4, 6, 7 or 8 but is: " +
+                    channels
+            );
+        }
+        if (bitsPerSample != 8 && bitsPerSample != 16) {
+            throw new TuningForkRuntimeException(
+                "Unsupported bits per sample in flac file, only 8 and 16 Bit is supported."
+            );
+        }
+        if (totalSamples <= 0L) {
+            throw new TuningForkRuntimeException(
+                "The flac file doesn't specify its number of samples, it can't be decoded in parallel."
+            );
+        }
+        bytesPerSample = bitsPerSample / 8;
+
+        splitPoints = seeker.findSplitPoints(Math.max(parts, 1));
+    }
+
+    /**
+     * Decodes the whole file into the output buffer, starting at its current position. The buffer must have at least {@link #getByteSize()} bytes remaining.
+     * 16-bit samples are written in the byte order of the buffer. The position of the buffer is advanced by the number of bytes written.
+     *
+     * @param output the output buffer
+     */
+    public void decode(ByteBuffer output) {
+        final long byteSize = getByteSize();
+        if (output.remaining() < byteSize) {
+            throw new TuningForkRuntimeException(
+                "The output buffer is too small, required: " +
+                    byteSize +
+                    " bytes, remaining: " +
+                    output.remaining()
+            );
+        }
+
+        final int base = output.position();
+        IntStream.range(0, splitPoints.length)
+            .parallel()
+            .forEach(range -> decodeRange(range, output, base));
+        output.position(base + (int) byteSize);
+    }
+
+    private void decodeRange(int range, ByteBuffer output, int base) {
+        final long startSample = splitPoints[range][1];
+        final long endSample = range + 1 < splitPoints.length
+            ? splitPoints[range + 1][1]
+            : totalSamples;
+        final int frameBytes = channels * bytesPerSample;
+        final int[][] samples = new int[channels][65536];
+
+        FlacDecoder decoder = null;
+        try {
+            decoder = new FlacDecoder(seeker.open(splitPoints[range][0]));
+            while (decoder.readAndHandleMetadataBlock() != null) {
+                // read the synthetic stream info block
+            }
+
+            long position = startSample;
+            while (position < endSample) {
+                final int blockSize = decoder.readAudioBlock(samples, 0);
+                if (blockSize <= 0) {
+                    break;
+                }
+                if (position + blockSize > endSample) {
+                    throw new TuningForkRuntimeException(
+                        "Flac frame crosses the boundary of its range"
+                    );
+                }
+
+                int index = base + (int) (position * frameBytes);
+                for (int i = 0; i < blockSize; i++) {
+                    for (int channel = 0; channel < channels; channel++) {
+                        if (bytesPerSample == 1) {
+                            // OpenAL expects an unsigned byte
+                            output.put(
+                                index,
+                                (byte) (samples[channel][i] + 128)
+                            );
+                        } else {
+                            output.putShort(
+                                index,
+                                (short) samples[channel][i]
+                            );
+                        }
+                        index += bytesPerSample;
+                    }
+                }
+                position += blockSize;
+            }
+
+            if (position != endSample) {
+                throw new TuningForkRuntimeException(
+                    "Flac range ended at sample " +
+                        position +
+                        ", expected: " +
+                        endSample
+                );
+            }
+        } catch (final IOException e) {
+            throw new TuningForkRuntimeException(e);
+        } finally {
+            if (decoder != null) {
+                try {
+                    decoder.close();
+                } catch (final IOException e) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of ranges the file is split into. This may be lower than requested if the file is small or no suitable frames were found.
+     *
+     * @return number of ranges
+     */
+    public int getRangeCount() {
+        return splitPoints.length;
+    }
+
+    /**
+     * Returns the number of bytes {@link #decode(ByteBuffer)} writes.
+     *
+     * @return number of bytes
+     */
+    public long getByteSize() {
+        return totalSamples * channels * bytesPerSample;
+    }
+
+    public long totalSamples() {
+        return totalSamples;
+    }
+
+    public int getChannels() {
+        return channels;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public int getBitsPerSample() {
+        return bitsPerSample;
+    }
+
+    public int getBytesPerSample() {
+        return bytesPerSample;
+    }
+}
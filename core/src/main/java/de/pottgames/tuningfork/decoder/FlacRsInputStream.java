@@ -0,0 +1,227 @@
+/**
+ * Copyright 2024 Matthias Finke
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package de.pottgames.tuningfork.decoder;
+
+import com.badlogic.gdx.Files.FileType;
+import com.badlogic.gdx.files.FileHandle;
+import de.pottgames.tuningfork.Audio;
+import de.pottgames.tuningfork.PcmFormat;
+import de.pottgames.tuningfork.PcmFormat.PcmDataType;
+import de.pottgames.tuningfork.TuningForkRuntimeException;
+import de.pottgames.tuningfork.bindings.FlacRs;
+import java.nio.ByteBuffer;
+import org.lwjgl.BufferUtils;
+
+/**
+ * An {@link AudioStream} implementation that reads flac files with the native decoder. The decoder keeps its state on the native side between reads and
+ * decodes straight into direct buffers. Seeking uses the SEEKTABLE of the file or searches frame headers, see {@link FlacInputStream#seek(long)}.<br>
+ * Use {@link #open(FileHandle)} to create an instance.
+ *
+ * @author Matthias
+ */
+public class FlacRsInputStream implements AudioStream {
+
+    /**
+     * Set once the native library turns out to lack the streaming functions, which happens with natives that were built before they were added.
+     */
+    private static volatile boolean openStreamMissing = false;
+
+    private final FileHandle file;
+    private final FlacSeeker seeker;
+    private final int channels;
+    private final int sampleRate;
+    private final int bitsPerSample;
+    private final float duration;
+    private long handle;
+    private ByteBuffer tempBuffer;
+    private boolean closed = false;
+
+    private FlacRsInputStream(
+        FileHandle file,
+        FlacSeeker seeker,
+        long handle
+    ) {
+        this.file = file;
+        this.seeker = seeker;
+        this.handle = handle;
+        channels = seeker.getChannels();
+        sampleRate = seeker.getSampleRate();
+        bitsPerSample = seeker.getBitsPerSample();
+        final long totalSamples = seeker.totalSamples();
+        duration = totalSamples > 0L ? (float) totalSamples / sampleRate : -1f;
+    }
+
+    /**
+     * Opens a flac file with the native decoder. Returns null if the native decoders aren't available or outdated, the file isn't present on the file system
+     * or it has a format TuningFork doesn't support. Use {@link FlacInputStream} in that case.
+     *
+     * @param file the file handle
+     *
+     * @return the stream or null
+     */
+    public static FlacRsInputStream open(FileHandle file) {
+        if (
+            !Audio.get().isNativeDecodersAvailable() ||
+            openStreamMissing ||
+            file.type() == FileType.Classpath ||
+            !file.file().isFile()
+        ) {
+            return null;
+        }
+
+        final FlacSeeker seeker = new FlacSeeker(file);
+        final int bitsPerSample = seeker.getBitsPerSample();
+        if (
+            !PcmFormat.isSupportedChannelCount(seeker.getChannels()) ||
+            (bitsPerSample != 8 && bitsPerSample != 16)
+        ) {
+            return null;
+        }
+
+        final long handle;
+        try {
+            handle = FlacRs.openStream(file.file().getAbsolutePath());
+        } catch (final UnsatisfiedLinkError e) {
+            openStreamMissing = true;
+            Audio.get()
+                .getLogger()
+                .warn(
+                    FlacRsInputStream.class,
+                    "The native decoders are outdated, falling back to the Java flac decoder: " +
+                        e.getMessage()
+                );
+            return null;
+        }
+        if (handle == 0L) {
+            return null;
+        }
+        return new FlacRsInputStream(file, seeker, handle);
+    }
+
+    @Override
+    public int read(byte[] bytes) {
+        if (tempBuffer == null || tempBuffer.capacity() < bytes.length) {
+            tempBuffer = BufferUtils.createByteBuffer(bytes.length);
+        }
+        tempBuffer.clear().limit(bytes.length);
+        final int bytesRead = this.read(tempBuffer);
+        if (bytesRead > 0) {
+            tempBuffer.flip();
+            tempBuffer.get(bytes, 0, bytesRead);
+        }
+        return bytesRead;
+    }
+
+    @Override
+    public int read(ByteBuffer buffer) {
+        if (!buffer.isDirect()) {
+            final byte[] bytes = new byte[buffer.remaining()];
+            final int bytesRead = this.read(bytes);
+            if (bytesRead > 0) {
+                buffer.put(bytes, 0, bytesRead);
+            }
+            return bytesRead;
+        }
+
+        if (closed) {
+            return -1;
+        }
+        final int position = buffer.position();
+        final int bytesRead = FlacRs.readStream(
+            handle,
+            buffer,
+            position,
+            buffer.remaining()
+        );
+        if (bytesRead < 0) {
+            throw new TuningForkRuntimeException("Error decoding " + file);
+        }
+        if (bytesRead == 0) {
+            return -1;
+        }
+        buffer.position(position + bytesRead);
+        return bytesRead;
+    }
+
+    @Override
+    public float getDuration() {
+        return duration;
+    }
+
+    /**
+     * Seeks to the start of the file instead of re-opening it.
+     */
+    @Override
+    public AudioStream reset() {
+        this.seek(0L);
+        return this;
+    }
+
+    @Override
+    public boolean isSeekable() {
+        return true;
+    }
+
+    @Override
+    public long seek(long sampleFrame) {
+        if (closed) {
+            return -1L;
+        }
+        final long target = Math.max(sampleFrame, 0L);
+        final long[] frame = seeker.findFrame(target);
+        final long position = FlacRs.seekStream(
+            handle,
+            frame[0],
+            frame[1],
+            target
+        );
+        if (position < 0L) {
+            throw new TuningForkRuntimeException("Error seeking " + file);
+        }
+        return position;
+    }
+
+    @Override
+    public int getChannels() {
+        return channels;
+    }
+
+    @Override
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    @Override
+    public int getBitsPerSample() {
+        return bitsPerSample;
+    }
+
+    @Override
+    public PcmDataType getPcmDataType() {
+        return PcmDataType.INTEGER;
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            FlacRs.closeStream(handle);
+            handle = 0L;
+            closed = true;
+        }
+    }
+}
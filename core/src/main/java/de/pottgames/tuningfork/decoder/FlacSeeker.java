@@ -0,0 +1,387 @@
+/**
+ * Copyright 2024 Matthias Finke
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package de.pottgames.tuningfork.decoder;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.StreamUtils;
+import de.pottgames.tuningfork.TuningForkRuntimeException;
+import de.pottgames.tuningfork.decoder.util.Util;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds the byte position of flac frames in a file. The SEEKTABLE metadata block is used if available, otherwise the frame is found by bisecting the file
+ * and searching for valid frame headers.
+ *
+ * @author Matthias
+ */
+class FlacSeeker {
+
+    private static final int STREAM_INFO_SIZE = 34;
+    private static final int SEEK_POINT_SIZE = 18;
+    private static final int PROBE_SIZE = 65536 + 32;
+    private static final long BISECTION_WINDOW = 65536L;
+
+    private final FileHandle file;
+    private final byte[] streamInfo = new byte[FlacSeeker.STREAM_INFO_SIZE];
+    private long[] seekPointSamples = new long[0];
+    private long[] seekPointOffsets = new long[0];
+    private long audioStart;
+    private final long fileLength;
+    private int minBlockSize;
+    private final byte[] probeBuffer = new byte[FlacSeeker.PROBE_SIZE];
+
+    FlacSeeker(FileHandle file) {
+        this.file = file;
+        fileLength = file.length();
+        final InputStream stream = file.read();
+        try {
+            readMetadata(stream);
+        } catch (final IOException e) {
+            throw new TuningForkRuntimeException(e);
+        } finally {
+            StreamUtils.closeQuietly(stream);
+        }
+    }
+
+    private void readMetadata(InputStream stream) throws IOException {
+        final byte[] header = new byte[4];
+        if (
+            Util.readAll(stream, header, 4) < 4 ||
+            header[0] != 'f' ||
+            header[1] != 'L' ||
+            header[2] != 'a' ||
+            header[3] != 'C'
+        ) {
+            throw new TuningForkRuntimeException("Not a valid flac file");
+        }
+        audioStart = 4L;
+
+        boolean last = false;
+        while (!last) {
+            if (Util.readAll(stream, header, 4) < 4) {
+                throw new TuningForkRuntimeException(
+                    "Unexpected end of flac file"
+                );
+            }
+            last = (header[0] & 0x80) != 0;
+            final int type = header[0] & 0x7F;
+            final int length =
+                ((header[1] & 0xFF) << 16) |
+                ((header[2] & 0xFF) << 8) |
+                (header[3] & 0xFF);
+            audioStart += 4L + length;
+
+            if (type == 0 && length == FlacSeeker.STREAM_INFO_SIZE) {
+                Util.readAll(stream, streamInfo, length);
+                minBlockSize =
+                    ((streamInfo[0] & 0xFF) << 8) | (streamInfo[1] & 0xFF);
+            } else if (type == 3) {
+                readSeekTable(stream, length);
+            } else {
+                Util.skipAll(stream, length);
+            }
+        }
+    }
+
+    private void readSeekTable(InputStream stream, int length)
+        throws IOException {
+        final byte[] data = new byte[length];
+        Util.readAll(stream, data, length);
+        final int points = length / FlacSeeker.SEEK_POINT_SIZE;
+        final long[] samples = new long[points];
+        final long[] offsets = new long[points];
+        int count = 0;
+        for (int i = 0; i < points; i++) {
+            final int base = i * FlacSeeker.SEEK_POINT_SIZE;
+            final long sample = Util.longOfBigEndianBytes(data, base);
+            if (sample == -1L) {
+                // placeholder point
+                continue;
+            }
+            samples[count] = sample;
+            offsets[count] = Util.longOfBigEndianBytes(data, base + 8);
+            count++;
+        }
+        seekPointSamples = new long[count];
+        seekPointOffsets = new long[count];
+        System.arraycopy(samples, 0, seekPointSamples, 0, count);
+        System.arraycopy(offsets, 0, seekPointOffsets, 0, count);
+    }
+
+    /**
+     * Returns the byte offset (from the start of the file) and the sample number of a frame that starts at or before the given sample.
+     *
+     * @param targetSample the target sample
+     *
+     * @return {byte offset, sample number}
+     */
+    long[] findFrame(long targetSample) {
+        final long[] result = { audioStart, 0L };
+
+        if (seekPointSamples.length > 0) {
+            for (int i = 0; i < seekPointSamples.length; i++) {
+                if (seekPointSamples[i] > targetSample) {
+                    break;
+                }
+                result[0] = audioStart + seekPointOffsets[i];
+                result[1] = seekPointSamples[i];
+            }
+            return result;
+        }
+
+        if (fileLength <= audioStart || minBlockSize <= 0) {
+            return result;
+        }
+
+        long low = audioStart;
+        long high = fileLength;
+        while (high - low > FlacSeeker.BISECTION_WINDOW) {
+            final long middle = low + (high - low) / 2L;
+            final long[] frame = probe(middle);
+            if (frame == null || frame[0] >= high || frame[1] > targetSample) {
+                high = middle;
+            } else {
+                result[0] = frame[0];
+                result[1] = frame[1];
+                low = middle;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Splits the audio data into roughly equally sized ranges that start at frame boundaries. The SEEKTABLE is used if available, otherwise frame headers
+     * are searched at evenly distributed byte positions. The first point is always the first frame. Points that aren't strictly ascending are dropped, so
+     * fewer points than requested may be returned.
+     *
+     * @param parts the desired number of ranges
+     *
+     * @return an array of {byte offset, sample number}
+     */
+    long[][] findSplitPoints(int parts) {
+        final List<long[]> points = new ArrayList<>(parts);
+        points.add(new long[] { audioStart, 0L });
+        final long totalSamples = totalSamples();
+        final long audioLength = fileLength - audioStart;
+
+        for (int i = 1; i < parts; i++) {
+            final long[] frame;
+            if (seekPointSamples.length > 0) {
+                frame = findFrame(totalSamples * i / parts);
+            } else {
+                frame = probe(audioStart + audioLength * i / parts);
+            }
+            final long[] previous = points.get(points.size() - 1);
+            if (
+                frame != null &&
+                frame[0] > previous[0] &&
+                frame[1] > previous[1] &&
+                frame[1] < totalSamples
+            ) {
+                points.add(frame);
+            }
+        }
+
+        return points.toArray(new long[0][]);
+    }
+
+    int getSampleRate() {
+        return (
+            ((streamInfo[10] & 0xFF) << 12) |
+            ((streamInfo[11] & 0xFF) << 4) |
+            ((streamInfo[12] & 0xFF) >>> 4)
+        );
+    }
+
+    int getChannels() {
+        return ((streamInfo[12] >>> 1) & 0x7) + 1;
+    }
+
+    int getBitsPerSample() {
+        return (
+            (((streamInfo[12] & 0x1) << 4) | ((streamInfo[13] & 0xFF) >>> 4)) +
+            1
+        );
+    }
+
+    int getMaxBlockSize() {
+        return ((streamInfo[2] & 0xFF) << 8) | (streamInfo[3] & 0xFF);
+    }
+
+    long totalSamples() {
+        return (
+            ((long) (streamInfo[13] & 0xF) << 32) |
+            Util.uIntOfBigEndianBytes(streamInfo, 14)
+        );
+    }
+
+    /**
+     * Opens a stream that delivers a minimal flac header followed by the audio frames starting at the given byte offset.
+     *
+     * @param offset the byte offset of a frame
+     *
+     * @return the stream
+     */
+    InputStream open(long offset) {
+        final byte[] header = new byte[8 + FlacSeeker.STREAM_INFO_SIZE];
+        header[0] = 'f';
+        header[1] = 'L';
+        header[2] = 'a';
+        header[3] = 'C';
+        header[4] = (byte) 0x80; // last metadata block, STREAMINFO
+        header[7] = FlacSeeker.STREAM_INFO_SIZE;
+        System.arraycopy(
+            streamInfo,
+            0,
+            header,
+            8,
+            FlacSeeker.STREAM_INFO_SIZE
+        );
+
+        final InputStream stream = file.read();
+        try {
+            Util.skipAll(stream, offset);
+        } catch (final IOException e) {
+            StreamUtils.closeQuietly(stream);
+            throw new TuningForkRuntimeException(e);
+        }
+        return new SequenceInputStream(new ByteArrayInputStream(header), stream);
+    }
+
+    private long[] probe(long offset) {
+        final InputStream stream = file.read();
+        int length;
+        try {
+            if (Util.skipAll(stream, offset) < offset) {
+                return null;
+            }
+            length = Util.readAll(stream, probeBuffer, probeBuffer.length);
+        } catch (final IOException e) {
+            return null;
+        } finally {
+            StreamUtils.closeQuietly(stream);
+        }
+
+        for (int i = 0; i + 1 < length; i++) {
+            if (
+                (probeBuffer[i] & 0xFF) == 0xFF &&
+                (probeBuffer[i + 1] & 0xFE) == 0xF8
+            ) {
+                final long sample = parseFrameHeader(i, length);
+                if (sample >= 0L) {
+                    return new long[] { offset + i, sample };
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private long parseFrameHeader(int start, int length) {
+        final byte[] data = probeBuffer;
+        int index = start + 2;
+        if (index + 2 >= length) {
+            return -1L;
+        }
+        final int blockSizeCode = (data[index] >>> 4) & 0xF;
+        final int sampleRateCode = data[index] & 0xF;
+        index++;
+        final int channelAssignment = (data[index] >>> 4) & 0xF;
+        final int sampleSizeCode = (data[index] >>> 1) & 0x7;
+        if (
+            blockSizeCode == 0 ||
+            sampleRateCode == 15 ||
+            channelAssignment > 10 ||
+            sampleSizeCode == 3 ||
+            (data[index] & 1) != 0
+        ) {
+            return -1L;
+        }
+        index++;
+
+        // UTF-8 CODED FRAME OR SAMPLE NUMBER
+        final int first = data[index++] & 0xFF;
+        long number;
+        int extraBytes;
+        if (first < 0x80) {
+            number = first;
+            extraBytes = 0;
+        } else if ((first & 0xE0) == 0xC0) {
+            number = first & 0x1F;
+            extraBytes = 1;
+        } else if ((first & 0xF0) == 0xE0) {
+            number = first & 0x0F;
+            extraBytes = 2;
+        } else if ((first & 0xF8) == 0xF0) {
+            number = first & 0x07;
+            extraBytes = 3;
+        } else if ((first & 0xFC) == 0xF8) {
+            number = first & 0x03;
+            extraBytes = 4;
+        } else if ((first & 0xFE) == 0xFC) {
+            number = first & 0x01;
+            extraBytes = 5;
+        } else if (first == 0xFE) {
+            number = 0;
+            extraBytes = 6;
+        } else {
+            return -1L;
+        }
+        if (index + extraBytes + 5 >= length) {
+            return -1L;
+        }
+        for (int i = 0; i < extraBytes; i++) {
+            final int next = data[index++] & 0xFF;
+            if ((next & 0xC0) != 0x80) {
+                return -1L;
+            }
+            number = (number << 6) | (next & 0x3F);
+        }
+
+        if (blockSizeCode == 6) {
+            index++;
+        } else if (blockSizeCode == 7) {
+            index += 2;
+        }
+        if (sampleRateCode == 12) {
+            index++;
+        } else if (sampleRateCode == 13 || sampleRateCode == 14) {
+            index += 2;
+        }
+
+        if (crc8(data, start, index) != (data[index] & 0xFF)) {
+            return -1L;
+        }
+
+        final boolean variableBlockSize = (data[start + 1] & 1) != 0;
+        return variableBlockSize ? number : number * minBlockSize;
+    }
+
+    private static int crc8(byte[] data, int start, int end) {
+        int crc = 0;
+        for (int i = start; i < end; i++) {
+            crc ^= data[i] & 0xFF;
+            for (int bit = 0; bit < 8; bit++) {
+                crc = (crc & 0x80) != 0 ? (crc << 1) ^ 0x07 : crc << 1;
+            }
+            crc &= 0xFF;
+        }
+        return crc;
+    }
+}
@@ -5,6 +5,7 @@ import de.pottgames.tuningfork.PcmFormat.PcmDataType;
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 public class ImaAdpcmDecoder implements WavDecoder {
 
@@ -68,6 +69,32 @@ public class ImaAdpcmDecoder implements WavDecoder {
         return output.length;
     }
 
+    @Override
+    public int read(ByteBuffer output) throws IOException {
+        int bytesRead = 0;
+        while (output.hasRemaining()) {
+            // DECODE NEXT BLOCK IF NECESSARY
+            if (outputSamplePosition >= outputSampleSize) {
+                if (decodeNextBlock() == ImaAdpcmDecoder.END_OF_STREAM) {
+                    break;
+                }
+            }
+
+            // COPY OUTPUT BYTES
+            final int length = Math.min(
+                outputSampleSize - outputSamplePosition,
+                output.remaining()
+            );
+            output.put(outputSamples, outputSamplePosition, length);
+            outputSamplePosition += length;
+            bytesRead += length;
+        }
+
+        outputBytesRemaining -= bytesRead;
+
+        return bytesRead > 0 ? bytesRead : -1;
+    }
+
     private int decodeNextBlock() throws IOException {
         int preambleBytes = 0;
 
@@ -238,6 +265,11 @@ public class ImaAdpcmDecoder implements WavDecoder {
         return outputBytesRemaining;
     }
 
+    @Override
+    public int outputFramesPerInputBlock() {
+        return ((blockSize - 4 * channels) * 2) / channels;
+    }
+
     @Override
     public void close() throws IOException {
         stream.close();
@@ -0,0 +1,177 @@
+/**
+ * Copyright 2024 Matthias Finke
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package de.pottgames.tuningfork.decoder;
+
+import de.pottgames.tuningfork.PcmFormat.PcmDataType;
+import de.pottgames.tuningfork.TuningForkRuntimeException;
+import de.pottgames.tuningfork.decoder.util.Util;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Passes IMA ADPCM blocks through without decoding them, so they can be uploaded to OpenAL via the AL_EXT_IMA4 extension. The data stays compressed in
+ * OpenAL memory which needs a quarter of the memory of 16-bit pcm data. Trailing bytes that don't form a complete block are dropped.
+ *
+ * @author Matthias
+ *
+ */
+public class ImaAdpcmPassthroughDecoder implements WavDecoder {
+
+    private InputStream stream;
+    private long bytesRemaining;
+    private ReadableByteChannel channel;
+    private final int blockAlign;
+    private final int blockSize;
+    private final int channels;
+    private final int sampleRate;
+    private long totalSamplesPerChannel;
+
+    public ImaAdpcmPassthroughDecoder(
+        int blockSize,
+        int channels,
+        int sampleRate
+    ) {
+        if (channels < 1 || channels > 2) {
+            throw new TuningForkRuntimeException(
+                "Unsupported number of channels: " + channels
+            );
+        }
+        this.channels = channels;
+        this.sampleRate = sampleRate;
+        this.blockSize = blockSize;
+        blockAlign = (blockSize / channels - 4) * 2 + 1;
+    }
+
+    /**
+     * Returns true if blocks of the given size can be passed to OpenAL. OpenAL expects a block alignment of 8n+1 sample frames, which is the case for all
+     * blocks that are made of the 4-byte header and whole 4-byte chunks per channel.
+     *
+     * @param blockSize the block size in bytes
+     * @param channels the number of channels
+     *
+     * @return true if supported
+     */
+    public static boolean isSupportedBlockSize(int blockSize, int channels) {
+        if (channels < 1 || channels > 2 || blockSize % channels != 0) {
+            return false;
+        }
+        final int dataBytesPerChannel = blockSize / channels - 4;
+        return dataBytesPerChannel > 0 && dataBytesPerChannel % 4 == 0;
+    }
+
+    @Override
+    public void setup(InputStream stream, long streamLength) {
+        this.stream = stream;
+        channel = null;
+        final long numberOfBlocks = streamLength / blockSize;
+        bytesRemaining = numberOfBlocks * blockSize;
+        totalSamplesPerChannel = numberOfBlocks * blockAlign;
+    }
+
+    @Override
+    public int read(byte[] output) throws IOException {
+        if (bytesRemaining <= 0) {
+            return -1;
+        }
+
+        final int bytesRead = Util.readAll(
+            stream,
+            output,
+            (int) Math.min(output.length, bytesRemaining)
+        );
+        if (bytesRead <= 0) {
+            bytesRemaining = 0;
+            return -1;
+        }
+        bytesRemaining -= bytesRead;
+        return bytesRead;
+    }
+
+    @Override
+    public int read(ByteBuffer output) throws IOException {
+        if (bytesRemaining <= 0) {
+            return -1;
+        }
+        if (channel == null) {
+            channel = Util.channelOf(stream);
+        }
+        final int bytesRead = Util.readAll(
+            channel,
+            output,
+            (int) Math.min(bytesRemaining, output.remaining())
+        );
+        if (bytesRead <= 0) {
+            bytesRemaining = 0;
+            return -1;
+        }
+        bytesRemaining -= bytesRead;
+        return bytesRead;
+    }
+
+    @Override
+    public int inputBitsPerSample() {
+        return 4;
+    }
+
+    @Override
+    public int outputBitsPerSample() {
+        return 4;
+    }
+
+    @Override
+    public int blockAlign() {
+        return blockAlign;
+    }
+
+    @Override
+    public int blockSize() {
+        return blockSize;
+    }
+
+    @Override
+    public int outputFramesPerInputBlock() {
+        return blockAlign;
+    }
+
+    @Override
+    public int outputChannels() {
+        return channels;
+    }
+
+    @Override
+    public int outputSampleRate() {
+        return sampleRate;
+    }
+
+    @Override
+    public long outputTotalSamplesPerChannel() {
+        return totalSamplesPerChannel;
+    }
+
+    @Override
+    public PcmDataType outputPcmDataType() {
+        return PcmDataType.IMA4;
+    }
+
+    @Override
+    public long bytesRemaining() {
+        return bytesRemaining;
+    }
+
+    @Override
+    public void close() throws IOException {
+        stream.close();
+    }
+}
@@ -6,6 +6,7 @@ import de.pottgames.tuningfork.bindings.ImaAdpcmRs;
 import de.pottgames.tuningfork.decoder.util.Util;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 public class ImaAdpcmRsDecoder implements WavDecoder {
 
@@ -64,6 +65,22 @@ public class ImaAdpcmRsDecoder implements WavDecoder {
             return -1;
         }
         System.arraycopy(audioData, readIndex, output, 0, copiedBytes);
+        readIndex += copiedBytes;
+        bytesRemaining -= copiedBytes;
+        return copiedBytes;
+    }
+
+    @Override
+    public int read(ByteBuffer output) {
+        final int copiedBytes = (int) Math.min(
+            bytesRemaining,
+            output.remaining()
+        );
+        if (copiedBytes <= 0) {
+            return -1;
+        }
+        output.put(audioData, readIndex, copiedBytes);
+        readIndex += copiedBytes;
         bytesRemaining -= copiedBytes;
         return copiedBytes;
     }
@@ -103,6 +120,11 @@ public class ImaAdpcmRsDecoder implements WavDecoder {
         return bytesRemaining;
     }
 
+    @Override
+    public int outputFramesPerInputBlock() {
+        return ((blockSize - 4 * channels) * 2) / channels;
+    }
+
     @Override
     public void close() throws IOException {
         stream.close();
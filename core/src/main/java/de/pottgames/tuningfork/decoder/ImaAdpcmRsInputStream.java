@@ -0,0 +1,254 @@
+/**
+ * Copyright 2024 Matthias Finke
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package de.pottgames.tuningfork.decoder;
+
+import com.badlogic.gdx.Files.FileType;
+import com.badlogic.gdx.files.FileHandle;
+import de.pottgames.tuningfork.Audio;
+import de.pottgames.tuningfork.PcmFormat.PcmDataType;
+import de.pottgames.tuningfork.TuningForkRuntimeException;
+import de.pottgames.tuningfork.bindings.ImaAdpcmRs;
+import java.nio.ByteBuffer;
+import org.lwjgl.BufferUtils;
+
+/**
+ * An {@link AudioStream} implementation that reads IMA ADPCM encoded wav files with the native decoder. The decoder keeps its state on the native side
+ * between reads and decodes straight into direct buffers.<br>
+ * Use {@link #open(WavInputStream)} to create an instance.
+ *
+ * @author Matthias
+ */
+public class ImaAdpcmRsInputStream implements AudioStream {
+
+    /**
+     * Set once the native library turns out to lack the streaming functions, which happens with natives that were built before they were added.
+     */
+    private static volatile boolean openStreamMissing = false;
+
+    private final FileHandle file;
+    private final int channels;
+    private final int sampleRate;
+    private final float duration;
+    private long handle;
+    private ByteBuffer tempBuffer;
+    private boolean closed = false;
+
+    private ImaAdpcmRsInputStream(
+        FileHandle file,
+        int channels,
+        int sampleRate,
+        int blockSize,
+        long dataLength,
+        long handle
+    ) {
+        this.file = file;
+        this.channels = channels;
+        this.sampleRate = sampleRate;
+        this.handle = handle;
+
+        final long numberOfBlocks = (dataLength + blockSize - 1) / blockSize;
+        final long totalSamplesPerChannel =
+            (dataLength * 2L - numberOfBlocks * 4L * channels * 2L) / channels;
+        duration = (float) totalSamplesPerChannel / sampleRate;
+    }
+
+    /**
+     * Takes over an IMA ADPCM encoded wav file from a {@link WavInputStream} and streams it with the native decoder, the header the {@link WavInputStream}
+     * already parsed is reused. Returns null if the native decoders aren't available or outdated, the file isn't present on the file system or the
+     * {@link WavDecoderProvider} doesn't allow native streaming for it, see {@link WavDecoderProvider#isNativeStreamingAllowed(WavFmtChunk, boolean)}. Keep
+     * using the {@link WavInputStream} in that case, otherwise it can be closed.
+     *
+     * @param wavStream the wav stream, it must not have been read from
+     *
+     * @return the stream or null
+     */
+    public static ImaAdpcmRsInputStream open(WavInputStream wavStream) {
+        final FileHandle file = wavStream.getFile();
+        if (
+            !Audio.get().isNativeDecodersAvailable() ||
+            openStreamMissing ||
+            file == null ||
+            file.type() == FileType.Classpath ||
+            !file.file().isFile()
+        ) {
+            return null;
+        }
+
+        final WavFmtChunk fmtChunk = wavStream.getFmtChunk();
+        final boolean allowed = Audio.get()
+            .getWavDecoderProvider()
+            .isNativeStreamingAllowed(
+                fmtChunk,
+                wavStream.isPassthroughAllowed()
+            );
+        final long dataOffset = wavStream.getDataOffset();
+        final long dataLength = Math.min(
+            wavStream.getDataLength(),
+            file.length() - dataOffset
+        );
+        if (!allowed || dataLength <= 0L) {
+            return null;
+        }
+
+        final int channels = fmtChunk.getnChannels();
+        final int blockSize = fmtChunk.getnBlockAlign();
+        final int sampleRate = (int) fmtChunk.getnSamplesPerSec();
+        final long handle;
+        try {
+            handle = ImaAdpcmRs.openStream(
+                file.file().getAbsolutePath(),
+                dataOffset,
+                dataLength,
+                blockSize,
+                channels
+            );
+        } catch (final UnsatisfiedLinkError e) {
+            openStreamMissing = true;
+            Audio.get()
+                .getLogger()
+                .warn(
+                    ImaAdpcmRsInputStream.class,
+                    "The native decoders are outdated, falling back to the Java IMA ADPCM decoder: " +
+                        e.getMessage()
+                );
+            return null;
+        }
+        if (handle == 0L) {
+            return null;
+        }
+        return new ImaAdpcmRsInputStream(
+            file,
+            channels,
+            sampleRate,
+            blockSize,
+            dataLength,
+            handle
+        );
+    }
+
+    @Override
+    public int read(byte[] bytes) {
+        if (tempBuffer == null || tempBuffer.capacity() < bytes.length) {
+            tempBuffer = BufferUtils.createByteBuffer(bytes.length);
+        }
+        tempBuffer.clear().limit(bytes.length);
+        final int bytesRead = this.read(tempBuffer);
+        if (bytesRead > 0) {
+            tempBuffer.flip();
+            tempBuffer.get(bytes, 0, bytesRead);
+        }
+        return bytesRead;
+    }
+
+    @Override
+    public int read(ByteBuffer buffer) {
+        if (!buffer.isDirect()) {
+            final byte[] bytes = new byte[buffer.remaining()];
+            final int bytesRead = this.read(bytes);
+            if (bytesRead > 0) {
+                buffer.put(bytes, 0, bytesRead);
+            }
+            return bytesRead;
+        }
+
+        if (closed) {
+            return -1;
+        }
+        final int position = buffer.position();
+        final int bytesRead = ImaAdpcmRs.readStream(
+            handle,
+            buffer,
+            position,
+            buffer.remaining()
+        );
+        if (bytesRead < 0) {
+            throw new TuningForkRuntimeException("Error decoding " + file);
+        }
+        if (bytesRead == 0) {
+            return -1;
+        }
+        buffer.position(position + bytesRead);
+        return bytesRead;
+    }
+
+    @Override
+    public float getDuration() {
+        return duration;
+    }
+
+    /**
+     * Seeks to the start of the audio data instead of re-opening the file.
+     */
+    @Override
+    public AudioStream reset() {
+        this.seek(0L);
+        return this;
+    }
+
+    @Override
+    public boolean isSeekable() {
+        return true;
+    }
+
+    /**
+     * Jumps straight to the block that contains the sample frame. Only this single block gets decoded.
+     */
+    @Override
+    public long seek(long sampleFrame) {
+        if (closed) {
+            return -1L;
+        }
+        final long position = ImaAdpcmRs.seekStream(
+            handle,
+            Math.max(sampleFrame, 0L)
+        );
+        if (position < 0L) {
+            throw new TuningForkRuntimeException("Error seeking " + file);
+        }
+        return position;
+    }
+
+    @Override
+    public int getChannels() {
+        return channels;
+    }
+
+    @Override
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    @Override
+    public int getBitsPerSample() {
+        return 16;
+    }
+
+    @Override
+    public PcmDataType getPcmDataType() {
+        return PcmDataType.INTEGER;
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            ImaAdpcmRs.closeStream(handle);
+            handle = 0L;
+            closed = true;
+        }
+    }
+}
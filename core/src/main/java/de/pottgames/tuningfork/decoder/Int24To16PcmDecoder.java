@@ -1,19 +1,24 @@
 package de.pottgames.tuningfork.decoder;
 
 import de.pottgames.tuningfork.PcmFormat.PcmDataType;
+import de.pottgames.tuningfork.decoder.util.Util;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 public class Int24To16PcmDecoder implements WavDecoder {
 
-    private static final int END_OF_STREAM = Integer.MAX_VALUE;
+    private static final int INPUT_BYTES_PER_SAMPLE = 3;
+    private static final int SAMPLES_PER_BLOCK = 4096;
     protected InputStream stream;
     protected long bytesRemaining;
     private final int channels;
     private final int sampleRate;
-    private int outputSample;
     private long totalOutputSamplesPerChannel;
-    private int outputSampleFetchedBytes = 2;
+    private final byte[] inputBlock =
+        new byte[Int24To16PcmDecoder.SAMPLES_PER_BLOCK *
+            Int24To16PcmDecoder.INPUT_BYTES_PER_SAMPLE];
+    private byte[] outputBlock;
 
     public Int24To16PcmDecoder(int channels, int sampleRate) {
         this.channels = channels;
@@ -31,60 +36,88 @@ public class Int24To16PcmDecoder implements WavDecoder {
     public int read(byte[] output) throws IOException {
         // we don't check if the decoder has been set up properly because this method is crucial for performance
 
-        for (int i = 0; i < output.length; i++) {
-            final int outputByte = fetchNextOutputByte();
-            if (outputByte == Int24To16PcmDecoder.END_OF_STREAM) {
-                return i == 0 ? -1 : i;
+        int offset = 0;
+        while (output.length - offset >= 2) {
+            final int samples = readInputBlock((output.length - offset) / 2);
+            if (samples <= 0) {
+                break;
             }
-            output[i] = (byte) outputByte;
+            convert(samples, output, offset);
+            offset += samples * 2;
         }
 
-        return output.length;
+        return offset > 0 ? offset : -1;
     }
 
-    private int fetchNextOutputByte() throws IOException {
-        if (outputSampleFetchedBytes >= 2) {
-            outputSample = fetchNextOutputSample();
-            if (outputSample == Int24To16PcmDecoder.END_OF_STREAM) {
-                return Int24To16PcmDecoder.END_OF_STREAM;
-            }
-            outputSampleFetchedBytes = 0;
+    @Override
+    public int read(ByteBuffer output) throws IOException {
+        if (outputBlock == null) {
+            outputBlock = new byte[Int24To16PcmDecoder.SAMPLES_PER_BLOCK * 2];
         }
 
-        final int outputByte =
-            (outputSample >>> (outputSampleFetchedBytes * 8)) & 0xff;
-        outputSampleFetchedBytes++;
-
-        return outputByte;
-    }
-
-    private int fetchNextOutputSample() throws IOException {
-        final int inputSample = fetchNextInputSample();
-        if (inputSample == Int24To16PcmDecoder.END_OF_STREAM) {
-            return Int24To16PcmDecoder.END_OF_STREAM;
+        int bytesRead = 0;
+        while (output.remaining() >= 2) {
+            final int samples = readInputBlock(output.remaining() / 2);
+            if (samples <= 0) {
+                break;
+            }
+            convert(samples, outputBlock, 0);
+            output.put(outputBlock, 0, samples * 2);
+            bytesRead += samples * 2;
         }
 
-        return (short) (inputSample >>> 8);
+        return bytesRead > 0 ? bytesRead : -1;
     }
 
-    private int fetchNextInputSample() throws IOException {
-        if (bytesRemaining < 3) {
-            return Int24To16PcmDecoder.END_OF_STREAM;
+    /**
+     * Reads up to the given number of samples, limited by the block size, into the input block.
+     *
+     * @param maxSamples the maximum number of samples
+     *
+     * @return the number of complete samples read
+     *
+     * @throws IOException IOException
+     */
+    private int readInputBlock(int maxSamples) throws IOException {
+        final long samplesRemaining =
+            bytesRemaining / Int24To16PcmDecoder.INPUT_BYTES_PER_SAMPLE;
+        final int samples = (int) Math.min(
+            Math.min(maxSamples, Int24To16PcmDecoder.SAMPLES_PER_BLOCK),
+            samplesRemaining
+        );
+        if (samples <= 0) {
+            return -1;
         }
 
-        final int byte1 = stream.read();
-        final int byte2 = stream.read();
-        final int byte3 = stream.read();
-        if (byte3 < 0) {
-            bytesRemaining = 0;
-            return Int24To16PcmDecoder.END_OF_STREAM;
-        }
-        bytesRemaining -= 3;
-        if (bytesRemaining < 0) {
+        final int bytesToRead =
+            samples * Int24To16PcmDecoder.INPUT_BYTES_PER_SAMPLE;
+        final int bytesRead = Util.readAll(stream, inputBlock, bytesToRead);
+        if (bytesRead < bytesToRead) {
             bytesRemaining = 0;
+        } else {
+            bytesRemaining -= bytesRead;
         }
 
-        return byte1 | (byte2 << 8) | (byte3 << 16);
+        return bytesRead / Int24To16PcmDecoder.INPUT_BYTES_PER_SAMPLE;
+    }
+
+    /**
+     * Converts little-endian 24-bit samples to 16-bit by keeping the two most significant bytes of each sample.
+     *
+     * @param samples number of samples in the input block
+     * @param output the output array
+     * @param offset the offset in the output array
+     */
+    private void convert(int samples, byte[] output, int offset) {
+        final byte[] input = inputBlock;
+        int inputIndex = 1;
+        int outputIndex = offset;
+        for (int i = 0; i < samples; i++) {
+            output[outputIndex] = input[inputIndex];
+            output[outputIndex + 1] = input[inputIndex + 1];
+            inputIndex += Int24To16PcmDecoder.INPUT_BYTES_PER_SAMPLE;
+            outputIndex += 2;
+        }
     }
 
     @Override
@@ -119,7 +152,7 @@ public class Int24To16PcmDecoder implements WavDecoder {
 
     @Override
     public long bytesRemaining() {
-        return (long) ((bytesRemaining / 3f) * 2f);
+        return bytesRemaining / 3L * 2L;
     }
 
     @Override
@@ -1,19 +1,24 @@
 package de.pottgames.tuningfork.decoder;
 
 import de.pottgames.tuningfork.PcmFormat.PcmDataType;
+import de.pottgames.tuningfork.decoder.util.Util;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 public class Int32To16PcmDecoder implements WavDecoder {
 
-    private static final long END_OF_STREAM = Long.MAX_VALUE;
+    private static final int INPUT_BYTES_PER_SAMPLE = 4;
+    private static final int SAMPLES_PER_BLOCK = 4096;
     protected InputStream stream;
     protected long bytesRemaining;
     private final int channels;
     private final int sampleRate;
-    private long outputSample;
     private long totalOutputSamplesPerChannel;
-    private int outputSampleFetchedBytes = 2;
+    private final byte[] inputBlock =
+        new byte[Int32To16PcmDecoder.SAMPLES_PER_BLOCK *
+            Int32To16PcmDecoder.INPUT_BYTES_PER_SAMPLE];
+    private byte[] outputBlock;
 
     public Int32To16PcmDecoder(int channels, int sampleRate) {
         this.channels = channels;
@@ -31,66 +36,88 @@ public class Int32To16PcmDecoder implements WavDecoder {
     public int read(byte[] output) throws IOException {
         // we don't check if the decoder has been set up properly because this method is crucial for performance
 
-        for (int i = 0; i < output.length; i++) {
-            final long outputByte = fetchNextOutputByte();
-            if (outputByte == Int32To16PcmDecoder.END_OF_STREAM) {
-                return i == 0 ? -1 : i;
+        int offset = 0;
+        while (output.length - offset >= 2) {
+            final int samples = readInputBlock((output.length - offset) / 2);
+            if (samples <= 0) {
+                break;
             }
-            output[i] = (byte) outputByte;
+            convert(samples, output, offset);
+            offset += samples * 2;
         }
 
-        return output.length;
+        return offset > 0 ? offset : -1;
     }
 
-    private long fetchNextOutputByte() throws IOException {
-        if (outputSampleFetchedBytes >= 2) {
-            outputSample = fetchNextOutputSample();
-            if (outputSample == Int32To16PcmDecoder.END_OF_STREAM) {
-                return Int32To16PcmDecoder.END_OF_STREAM;
-            }
-            outputSampleFetchedBytes = 0;
+    @Override
+    public int read(ByteBuffer output) throws IOException {
+        if (outputBlock == null) {
+            outputBlock = new byte[Int32To16PcmDecoder.SAMPLES_PER_BLOCK * 2];
         }
 
-        final long outputByte =
-            (outputSample >>> (outputSampleFetchedBytes * 8)) & 0xffL;
-        outputSampleFetchedBytes++;
-
-        return outputByte;
-    }
-
-    private long fetchNextOutputSample() throws IOException {
-        final long inputSample = fetchNextInputSample();
-        if (inputSample == Int32To16PcmDecoder.END_OF_STREAM) {
-            return Int32To16PcmDecoder.END_OF_STREAM;
+        int bytesRead = 0;
+        while (output.remaining() >= 2) {
+            final int samples = readInputBlock(output.remaining() / 2);
+            if (samples <= 0) {
+                break;
+            }
+            convert(samples, outputBlock, 0);
+            output.put(outputBlock, 0, samples * 2);
+            bytesRead += samples * 2;
         }
 
-        return inputSample >>> 16;
+        return bytesRead > 0 ? bytesRead : -1;
     }
 
-    private long fetchNextInputSample() throws IOException {
-        if (bytesRemaining < 3) {
-            return Int32To16PcmDecoder.END_OF_STREAM;
+    /**
+     * Reads up to the given number of samples, limited by the block size, into the input block.
+     *
+     * @param maxSamples the maximum number of samples
+     *
+     * @return the number of complete samples read
+     *
+     * @throws IOException IOException
+     */
+    private int readInputBlock(int maxSamples) throws IOException {
+        final long samplesRemaining =
+            bytesRemaining / Int32To16PcmDecoder.INPUT_BYTES_PER_SAMPLE;
+        final int samples = (int) Math.min(
+            Math.min(maxSamples, Int32To16PcmDecoder.SAMPLES_PER_BLOCK),
+            samplesRemaining
+        );
+        if (samples <= 0) {
+            return -1;
         }
 
-        final int byte1 = stream.read();
-        final int byte2 = stream.read();
-        final int byte3 = stream.read();
-        final int byte4 = stream.read();
-        if (byte4 < 0) {
-            bytesRemaining = 0;
-            return Int32To16PcmDecoder.END_OF_STREAM;
-        }
-        bytesRemaining -= 4;
-        if (bytesRemaining < 0) {
+        final int bytesToRead =
+            samples * Int32To16PcmDecoder.INPUT_BYTES_PER_SAMPLE;
+        final int bytesRead = Util.readAll(stream, inputBlock, bytesToRead);
+        if (bytesRead < bytesToRead) {
             bytesRemaining = 0;
+        } else {
+            bytesRemaining -= bytesRead;
         }
 
-        return (
-            byte1 |
-            ((long) byte2 << 8) |
-            ((long) byte3 << 16) |
-            ((long) byte4 << 24)
-        );
+        return bytesRead / Int32To16PcmDecoder.INPUT_BYTES_PER_SAMPLE;
+    }
+
+    /**
+     * Converts little-endian 32-bit samples to 16-bit by keeping the two most significant bytes of each sample.
+     *
+     * @param samples number of samples in the input block
+     * @param output the output array
+     * @param offset the offset in the output array
+     */
+    private void convert(int samples, byte[] output, int offset) {
+        final byte[] input = inputBlock;
+        int inputIndex = 2;
+        int outputIndex = offset;
+        for (int i = 0; i < samples; i++) {
+            output[outputIndex] = input[inputIndex];
+            output[outputIndex + 1] = input[inputIndex + 1];
+            inputIndex += Int32To16PcmDecoder.INPUT_BYTES_PER_SAMPLE;
+            outputIndex += 2;
+        }
     }
 
     @Override
@@ -125,7 +152,7 @@ public class Int32To16PcmDecoder implements WavDecoder {
 
     @Override
     public long bytesRemaining() {
-        return bytesRemaining / 2L;
+        return bytesRemaining / 4L * 2L;
     }
 
     @Override
@@ -12,92 +12,230 @@
 
 package de.pottgames.tuningfork.decoder;
 
-import com.badlogic.gdx.math.MathUtils;
+import de.pottgames.tuningfork.ALExtension;
+import de.pottgames.tuningfork.Audio;
 import de.pottgames.tuningfork.PcmFormat.PcmDataType;
+import de.pottgames.tuningfork.decoder.util.Util;
 import java.io.IOException;
 import java.io.InputStream;
-import javax.sound.sampled.AudioFormat;
-import javax.sound.sampled.AudioInputStream;
-import javax.sound.sampled.AudioSystem;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
 
+/**
+ * Decodes µ-law and A-law encoded audio data to 16-bit pcm with a lookup table. In passthrough mode, the 8-bit data is handed out as is and is expected to
+ * be uploaded to OpenAL via the AL_EXT_MULAW or AL_EXT_ALAW extension, which halves the memory needed.
+ *
+ * @author Matthias
+ *
+ */
 public class LawDecoder implements WavDecoder, AiffDecoder {
 
+    private static final int CHUNK_SIZE = 4096;
+    private static final short[] U_LAW_TABLE = new short[256];
+    private static final short[] A_LAW_TABLE = new short[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            U_LAW_TABLE[i] = LawDecoder.decodeULaw(i);
+            A_LAW_TABLE[i] = LawDecoder.decodeALaw(i);
+        }
+    }
+
+    private InputStream stream;
+    private ReadableByteChannel channel;
     private long bytesRemaining;
     private final Encoding encoding;
+    private final short[] table;
+    private final boolean passthrough;
     private final int channels;
     private final int sampleRate;
     private long totalOutputSamplesPerChannel;
-    private final boolean bigEndian;
-
-    private AudioInputStream inputStream;
-    private AudioInputStream outputStream;
+    private final byte[] inputBuffer;
+    private final byte[] outputBuffer;
 
+    /**
+     * Creates a decoder that decodes to 16-bit pcm.
+     *
+     * @param channels number of channels
+     * @param sampleRate the sample rate
+     * @param encoding the encoding
+     * @param bigEndian ignored, the byte order doesn't matter for 8-bit data
+     */
     public LawDecoder(
         int channels,
         int sampleRate,
         Encoding encoding,
         boolean bigEndian
+    ) {
+        this(channels, sampleRate, encoding, bigEndian, false);
+    }
+
+    /**
+     * Creates a decoder that either decodes to 16-bit pcm or passes the encoded data through.
+     *
+     * @param channels number of channels
+     * @param sampleRate the sample rate
+     * @param encoding the encoding
+     * @param bigEndian ignored, the byte order doesn't matter for 8-bit data
+     * @param passthrough true to pass the encoded data through, see {@link #isPassthroughSupported(Encoding, int)}
+     */
+    public LawDecoder(
+        int channels,
+        int sampleRate,
+        Encoding encoding,
+        boolean bigEndian,
+        boolean passthrough
     ) {
         this.channels = channels;
         this.sampleRate = sampleRate;
         this.encoding = encoding;
-        this.bigEndian = bigEndian;
+        this.passthrough = passthrough;
+        table = encoding == Encoding.U_LAW
+            ? LawDecoder.U_LAW_TABLE
+            : LawDecoder.A_LAW_TABLE;
+        inputBuffer = passthrough ? null : new byte[LawDecoder.CHUNK_SIZE];
+        outputBuffer = passthrough
+            ? null
+            : new byte[LawDecoder.CHUNK_SIZE * 2];
+    }
+
+    /**
+     * Returns true if data of the given encoding and channel count can be uploaded to OpenAL without decoding it first.
+     *
+     * @param encoding the encoding
+     * @param channels number of channels
+     *
+     * @return true if passthrough is supported
+     */
+    public static boolean isPassthroughSupported(
+        Encoding encoding,
+        int channels
+    ) {
+        if (channels < 1 || channels > 2) {
+            return false;
+        }
+        final ALExtension extension = encoding == Encoding.U_LAW
+            ? ALExtension.AL_EXT_MULAW
+            : ALExtension.AL_EXT_ALAW;
+        return Audio.get().isExtensionAvailable(extension);
     }
 
     @Override
     public void setup(InputStream stream, long streamLength) {
+        this.stream = stream;
+        channel = null;
         bytesRemaining = streamLength;
         totalOutputSamplesPerChannel = streamLength / channels;
+    }
 
-        // INPUT STREAM
-        final AudioFormat.Encoding inputEncoding =
-            encoding == Encoding.U_LAW
-                ? AudioFormat.Encoding.ULAW
-                : AudioFormat.Encoding.ALAW;
-        final AudioFormat inputFormat = new AudioFormat(
-            inputEncoding,
-            sampleRate,
-            8,
-            channels,
-            channels,
-            sampleRate,
-            bigEndian
-        );
-        inputStream = new AudioInputStream(
+    @Override
+    public int read(byte[] output) throws IOException {
+        if (passthrough) {
+            return readInput(output, output.length);
+        }
+
+        int offset = 0;
+        while (output.length - offset >= 2) {
+            final int bytesRead = readInput(
+                inputBuffer,
+                Math.min(inputBuffer.length, (output.length - offset) / 2)
+            );
+            if (bytesRead <= 0) {
+                break;
+            }
+            expand(bytesRead, output, offset);
+            offset += bytesRead * 2;
+        }
+
+        return offset > 0 ? offset : -1;
+    }
+
+    @Override
+    public int read(ByteBuffer output) throws IOException {
+        if (passthrough) {
+            if (bytesRemaining <= 0) {
+                return -1;
+            }
+            if (channel == null) {
+                channel = Util.channelOf(stream);
+            }
+            final int bytesRead = Util.readAll(
+                channel,
+                output,
+                (int) Math.min(bytesRemaining, output.remaining())
+            );
+            if (bytesRead <= 0) {
+                bytesRemaining = 0;
+                return -1;
+            }
+            bytesRemaining -= bytesRead;
+            return bytesRead;
+        }
+
+        int total = 0;
+        while (output.remaining() >= 2) {
+            final int bytesRead = readInput(
+                inputBuffer,
+                Math.min(inputBuffer.length, output.remaining() / 2)
+            );
+            if (bytesRead <= 0) {
+                break;
+            }
+            expand(bytesRead, outputBuffer, 0);
+            output.put(outputBuffer, 0, bytesRead * 2);
+            total += bytesRead * 2;
+        }
+
+        return total > 0 ? total : -1;
+    }
+
+    private int readInput(byte[] buffer, int length) throws IOException {
+        if (bytesRemaining <= 0) {
+            return -1;
+        }
+        final int bytesRead = Util.readAll(
             stream,
-            inputFormat,
-            totalOutputSamplesPerChannel
+            buffer,
+            (int) Math.min(bytesRemaining, length)
         );
+        if (bytesRead <= 0) {
+            bytesRemaining = 0;
+            return -1;
+        }
+        bytesRemaining -= bytesRead;
+        return bytesRead;
+    }
 
-        // OUTPUT STREAM
-        final AudioFormat outputFormat = new AudioFormat(
-            AudioFormat.Encoding.PCM_SIGNED,
-            sampleRate,
-            16,
-            channels,
-            channels * 2,
-            sampleRate,
-            false
-        );
-        outputStream = AudioSystem.getAudioInputStream(
-            outputFormat,
-            inputStream
-        );
+    private void expand(int length, byte[] output, int offset) {
+        final short[] table = this.table;
+        final byte[] input = inputBuffer;
+        int outputIndex = offset;
+        for (int i = 0; i < length; i++) {
+            final short sample = table[input[i] & 0xFF];
+            output[outputIndex++] = (byte) sample;
+            output[outputIndex++] = (byte) (sample >>> 8);
+        }
     }
 
-    @Override
-    public int read(byte[] output) throws IOException {
-        final int read = outputStream.read(output);
-        if (read <= 0) {
-            bytesRemaining = -1;
+    private static short decodeULaw(int value) {
+        final int inverted = ~value & 0xFF;
+        int magnitude = ((inverted & 0x0F) << 3) + 0x84;
+        magnitude <<= (inverted & 0x70) >>> 4;
+        final int sample = magnitude - 0x84;
+        return (short) ((inverted & 0x80) != 0 ? -sample : sample);
+    }
+
+    private static short decodeALaw(int value) {
+        final int toggled = (value ^ 0x55) & 0xFF;
+        final int segment = (toggled & 0x70) >>> 4;
+        int magnitude = (toggled & 0x0F) << 4;
+        if (segment == 0) {
+            magnitude += 8;
         } else {
-            bytesRemaining = MathUtils.clamp(
-                bytesRemaining - read,
-                -1,
-                Long.MAX_VALUE
-            );
+            magnitude += 0x108;
+            magnitude <<= segment - 1;
         }
-        return read;
+        return (short) ((toggled & 0x80) != 0 ? magnitude : -magnitude);
     }
 
     @Override
@@ -107,7 +245,7 @@ public class LawDecoder implements WavDecoder, AiffDecoder {
 
     @Override
     public int outputBitsPerSample() {
-        return 16;
+        return passthrough ? 8 : 16;
     }
 
     @Override
@@ -127,17 +265,22 @@ public class LawDecoder implements WavDecoder, AiffDecoder {
 
     @Override
     public PcmDataType outputPcmDataType() {
-        return PcmDataType.INTEGER;
+        if (!passthrough) {
+            return PcmDataType.INTEGER;
+        }
+        return encoding == Encoding.U_LAW
+            ? PcmDataType.MULAW
+            : PcmDataType.ALAW;
     }
 
     @Override
     public long bytesRemaining() {
-        return bytesRemaining * 2;
+        return passthrough ? bytesRemaining : bytesRemaining * 2;
     }
 
     @Override
     public void close() throws IOException {
-        inputStream.close();
+        stream.close();
     }
 
     public enum Encoding {
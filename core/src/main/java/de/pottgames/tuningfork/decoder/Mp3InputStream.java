@@ -3,6 +3,7 @@ package de.pottgames.tuningfork.decoder;
 import com.badlogic.gdx.files.FileHandle;
 import de.pottgames.tuningfork.PcmFormat.PcmDataType;
 import de.pottgames.tuningfork.TuningForkRuntimeException;
+import java.nio.ByteBuffer;
 import javazoom.jl.decoder.Bitstream;
 import javazoom.jl.decoder.BitstreamException;
 import javazoom.jl.decoder.Header;
@@ -17,6 +18,12 @@ import javazoom.jl.decoder.OutputBuffer;
  */
 public class Mp3InputStream implements AudioStream {
 
+    /**
+     * Number of frames in front of a seek target whose output must be restored, because the target frame overlaps with them in the filter state of the
+     * decoder.
+     */
+    protected static final int SEEK_PREROLL_FRAMES = 2;
+
     protected Bitstream bitstream;
     protected OutputBuffer outputBuffer;
     protected MP3Decoder decoder;
@@ -25,6 +32,12 @@ public class Mp3InputStream implements AudioStream {
     protected FileHandle file;
     protected float duration = -1f;
     protected boolean closed = false;
+    protected int samplesPerFrame;
+    protected long frameIndex;
+    protected int skipBytes;
+    protected int pendingOffset;
+    protected int pendingLength;
+    protected int seekPrerollFrames;
 
     public Mp3InputStream(FileHandle file) {
         init(file);
@@ -44,6 +57,12 @@ public class Mp3InputStream implements AudioStream {
             outputBuffer = new OutputBuffer(channels, false);
             decoder.setOutputBuffer(outputBuffer);
             sampleRate = header.getSampleRate();
+            samplesPerFrame = samplesPerFrame(header);
+            seekPrerollFrames = seekPrerollFrames(header);
+            frameIndex = 0L;
+            skipBytes = 0;
+            pendingOffset = 0;
+            pendingLength = 0;
         } catch (final BitstreamException e) {
             throw new TuningForkRuntimeException(
                 "error while preloading mp3",
@@ -56,28 +75,23 @@ public class Mp3InputStream implements AudioStream {
     public int read(byte[] bytes) {
         try {
             int totalLength = 0;
-            final int minRequiredLength =
-                bytes.length - OutputBuffer.BUFFERSIZE * 2;
-            while (totalLength <= minRequiredLength) {
-                final Header header = bitstream.readFrame();
-                if (header == null) {
+            while (totalLength < bytes.length) {
+                if (pendingLength == 0 && !decodeNextFrame()) {
                     break;
                 }
-                try {
-                    decoder.decodeFrame(header, bitstream);
-                } catch (final Exception ignored) {
-                    // JLayer's decoder throws ArrayIndexOutOfBoundsException sometimes?!
-                }
-                bitstream.closeFrame();
-
-                final int length = outputBuffer.reset();
+                final int length = Math.min(
+                    pendingLength,
+                    bytes.length - totalLength
+                );
                 System.arraycopy(
                     outputBuffer.getBuffer(),
-                    0,
+                    pendingOffset,
                     bytes,
                     totalLength,
                     length
                 );
+                pendingOffset += length;
+                pendingLength -= length;
                 totalLength += length;
             }
             return totalLength;
@@ -90,6 +104,150 @@ public class Mp3InputStream implements AudioStream {
         }
     }
 
+    @Override
+    public int read(ByteBuffer buffer) {
+        try {
+            int totalLength = 0;
+            while (buffer.hasRemaining()) {
+                if (pendingLength == 0 && !decodeNextFrame()) {
+                    break;
+                }
+                final int length = Math.min(pendingLength, buffer.remaining());
+                buffer.put(outputBuffer.getBuffer(), pendingOffset, length);
+                pendingOffset += length;
+                pendingLength -= length;
+                totalLength += length;
+            }
+            return totalLength;
+        } catch (final Throwable ex) {
+            reset();
+            throw new TuningForkRuntimeException(
+                "Error reading audio data.",
+                ex
+            );
+        }
+    }
+
+    /**
+     * Decodes the next frame into the output buffer. The decoded bytes that aren't skipped become pending and are handed out by the next reads, so a read
+     * doesn't need room for a whole frame.
+     *
+     * @return false if the end of the stream is reached
+     *
+     * @throws BitstreamException if the frame can't be read
+     */
+    protected boolean decodeNextFrame() throws BitstreamException {
+        final Header header = bitstream.readFrame();
+        if (header == null) {
+            return false;
+        }
+        try {
+            decoder.decodeFrame(header, bitstream);
+        } catch (final Exception ignored) {
+            // JLayer's decoder throws ArrayIndexOutOfBoundsException sometimes?!
+        }
+        bitstream.closeFrame();
+        frameIndex++;
+
+        final int length = outputBuffer.reset();
+        final int skip = Math.min(skipBytes, length);
+        skipBytes -= skip;
+        pendingOffset = skip;
+        pendingLength = length - skip;
+        return true;
+    }
+
+    protected int samplesPerFrame(Header header) {
+        switch (header.layer()) {
+            case 1:
+                return 384;
+            case 2:
+                return 1152;
+            default:
+                return header.version() == Header.MPEG1 ? 1152 : 576;
+        }
+    }
+
+    /**
+     * Returns the number of frames in front of a seek target that get decoded. On top of {@link #SEEK_PREROLL_FRAMES}, layer III needs the frames the bit
+     * reservoir of the first of them can reach back to, its main data is only complete if they have been decoded as well. The frame size of the given header
+     * is used as an estimate for the whole stream.
+     *
+     * @param header the header of a frame
+     *
+     * @return the number of frames
+     */
+    protected int seekPrerollFrames(Header header) {
+        if (header.layer() != 3) {
+            return Mp3InputStream.SEEK_PREROLL_FRAMES;
+        }
+
+        // the main data may begin up to 511 (MPEG-1) or 255 (MPEG-2) bytes in front of a frame
+        final int reservoirBytes = header.version() == Header.MPEG1 ? 511 : 255;
+        // the frame size excludes the header, side info and crc take up to 34 more bytes
+        final int mainDataBytes = Math.max(
+            header.calculate_framesize() - 34,
+            1
+        );
+        return (
+            Mp3InputStream.SEEK_PREROLL_FRAMES +
+            (reservoirBytes + mainDataBytes - 1) / mainDataBytes
+        );
+    }
+
+    @Override
+    public boolean isSeekable() {
+        return file != null;
+    }
+
+    /**
+     * Seeks to the given sample frame. JLayer's Bitstream doesn't expose byte positions, which rules out jumping into the file directly. Instead, frames in
+     * front of the target are skipped by only parsing their headers without decoding them, which is a small fraction of the decoding cost. The last
+     * {@link #seekPrerollFrames(Header)} frames in front of the target are decoded and discarded to restore the decoder state, the samples in front of the
+     * target within its frame are dropped on the next read.
+     */
+    @Override
+    public long seek(long sampleFrame) {
+        final long target = Math.max(sampleFrame, 0L);
+        final long targetFrame = target / samplesPerFrame;
+        if (targetFrame < frameIndex) {
+            reset();
+        }
+
+        // THE PENDING BYTES BELONG TO A FRAME IN FRONT OF THE TARGET FRAME
+        pendingLength = 0;
+        final long decodeFrom = targetFrame - seekPrerollFrames;
+        try {
+            while (frameIndex < targetFrame) {
+                final Header header = bitstream.readFrame();
+                if (header == null) {
+                    break;
+                }
+                if (frameIndex >= decodeFrom) {
+                    try {
+                        decoder.decodeFrame(header, bitstream);
+                    } catch (final Exception ignored) {
+                        // see decodeNextFrame()
+                    }
+                    outputBuffer.reset();
+                }
+                bitstream.closeFrame();
+                frameIndex++;
+            }
+        } catch (final BitstreamException e) {
+            throw new TuningForkRuntimeException("Error seeking mp3.", e);
+        }
+
+        if (frameIndex < targetFrame) {
+            // end of stream
+            skipBytes = 0;
+            return frameIndex * samplesPerFrame;
+        }
+        skipBytes =
+            (int) (target - targetFrame * samplesPerFrame) * channels * 2;
+        return target;
+    }
+
     @Override
     public float getDuration() {
         return duration;
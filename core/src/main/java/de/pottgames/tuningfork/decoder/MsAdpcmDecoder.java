@@ -14,13 +14,17 @@ package de.pottgames.tuningfork.decoder;
 
 import de.pottgames.tuningfork.PcmFormat.PcmDataType;
 import de.pottgames.tuningfork.TuningForkRuntimeException;
+import de.pottgames.tuningfork.decoder.util.Util;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
 
 public class MsAdpcmDecoder implements WavDecoder {
 
     private InputStream stream;
     private long bytesRemaining;
+    private ReadableByteChannel channel;
     private final int blockAlign;
     private final int blockSize;
     private final int channels;
@@ -42,6 +46,7 @@ public class MsAdpcmDecoder implements WavDecoder {
     @Override
     public void setup(InputStream stream, long streamLength) {
         this.stream = stream;
+        channel = null;
         bytesRemaining = streamLength;
         final int numberOfBlocks = (int) (streamLength / blockSize);
         totalSamplesPerChannel = numberOfBlocks * blockAlign;
@@ -79,6 +84,27 @@ public class MsAdpcmDecoder implements WavDecoder {
         return offset;
     }
 
+    @Override
+    public int read(ByteBuffer output) throws IOException {
+        if (bytesRemaining <= 0) {
+            return -1;
+        }
+        if (channel == null) {
+            channel = Util.channelOf(stream);
+        }
+        final int bytesRead = Util.readAll(
+            channel,
+            output,
+            (int) Math.min(bytesRemaining, output.remaining())
+        );
+        if (bytesRead <= 0) {
+            bytesRemaining = 0;
+            return -1;
+        }
+        bytesRemaining -= bytesRead;
+        return bytesRead;
+    }
+
     @Override
     public int inputBitsPerSample() {
         return 4;
@@ -99,6 +125,11 @@ public class MsAdpcmDecoder implements WavDecoder {
         return blockSize;
     }
 
+    @Override
+    public int outputFramesPerInputBlock() {
+        return blockAlign;
+    }
+
     @Override
     public int outputChannels() {
         return channels;
@@ -34,6 +34,7 @@ import com.jcraft.jorbis.VorbisFile;
 import de.pottgames.tuningfork.Audio;
 import de.pottgames.tuningfork.PcmFormat.PcmDataType;
 import de.pottgames.tuningfork.TuningForkRuntimeException;
+import de.pottgames.tuningfork.decoder.util.Util;
 import de.pottgames.tuningfork.logger.TuningForkLogger;
 import java.io.IOException;
 import java.io.InputStream;
@@ -50,6 +51,12 @@ import org.lwjgl.BufferUtils;
 public class OggInputStream implements AudioStream {
 
     private static final int BUFFER_SIZE = 512;
+    private static final int SEEK_READ_SIZE = 8192;
+    /**
+     * Number of samples in front of a seek target that get decoded to restore the decoder state. Must be at least half the maximum Vorbis block size.
+     */
+    private static final long SEEK_PREROLL = 8192L;
+    private static final long BISECTION_WINDOW = 65536L;
 
     private final FileHandle file;
     private final float duration;
@@ -66,7 +73,11 @@ public class OggInputStream implements AudioStream {
     /**
      * The stream we're reading the OGG file from
      */
-    private final InputStream input;
+    private InputStream input;
+    /**
+     * The number of bytes read from {@link #input}
+     */
+    private long inputPosition;
     /**
      * The audio information from the OGG header
      */
@@ -80,7 +91,7 @@ public class OggInputStream implements AudioStream {
     /**
      * The Vorbis SyncState used to decode the OGG
      */
-    private final SyncState syncState = new SyncState(); // sync and verify incoming physical bitstream
+    private SyncState syncState = new SyncState(); // sync and verify incoming physical bitstream
     /**
      * The Vorbis Stream State used to decode the OGG
      */
@@ -94,6 +105,22 @@ public class OggInputStream implements AudioStream {
      * The current packet page
      */
     private final Packet packet = new Packet(); // one raw packet of data for decode
+    /**
+     * True if {@link #page} was already taken from the sync state, but hasn't been decoded yet
+     */
+    private boolean pendingPage;
+    /**
+     * The granule position of the last decoded page that isn't the last page of the stream, -1 if there is none
+     */
+    private long anchorGranule = -1L;
+    /**
+     * The position in {@link #pcmBuffer} at which the samples decoded up to {@link #anchorGranule} end
+     */
+    private int anchorPosition;
+    /**
+     * The serial number of the logical bitstream
+     */
+    private int serialNo;
 
     /**
      * The comment read from the OGG file
@@ -311,6 +338,7 @@ public class OggInputStream implements AudioStream {
         } catch (final Exception e) {
             throw new TuningForkRuntimeException("Failure reading Vorbis.", e);
         }
+        countInput(bytes);
         syncState.wrote(bytes);
 
         // Get the first page.
@@ -328,7 +356,8 @@ public class OggInputStream implements AudioStream {
 
         // Get the serial number and set up the rest of decode.
         // serialno first; use it to set up a logical stream
-        streamState.init(page.serialno());
+        serialNo = page.serialno();
+        streamState.init(serialNo);
 
         // extract the initial header from the first page and verify that the
         // Ogg bitstream is in fact Vorbis data
@@ -422,6 +451,7 @@ public class OggInputStream implements AudioStream {
                     "End of file before finding all Vorbis headers."
                 );
             }
+            countInput(bytes);
             syncState.wrote(bytes);
         }
 
@@ -464,7 +494,8 @@ public class OggInputStream implements AudioStream {
             // The rest is just a straight decode loop until end of stream
             while (!endOfBitStream) {
                 while (!endOfBitStream) {
-                    int result = syncState.pageout(page);
+                    int result = pendingPage ? 1 : syncState.pageout(page);
+                    pendingPage = false;
 
                     if (result == 0) {
                         break; // need more data
@@ -565,6 +596,11 @@ public class OggInputStream implements AudioStream {
                                 }
                             }
                         }
+                        if (page.granulepos() >= 0L && page.eos() == 0) {
+                            // the decoded samples end exactly at the granule position of the page
+                            anchorGranule = page.granulepos();
+                            anchorPosition = pcmBuffer.position();
+                        }
                         if (page.eos() != 0) {
                             endOfBitStream = true;
                         }
@@ -597,6 +633,7 @@ public class OggInputStream implements AudioStream {
                     } else {
                         bytes = 0;
                     }
+                    countInput(bytes);
                     syncState.wrote(bytes);
                     if (bytes == 0) {
                         endOfBitStream = true;
@@ -621,6 +658,226 @@ public class OggInputStream implements AudioStream {
         endOfStream = true;
     }
 
+    private void countInput(int bytes) {
+        if (bytes > 0) {
+            inputPosition += bytes;
+        }
+    }
+
+    @Override
+    public boolean isSeekable() {
+        return file != null;
+    }
+
+    /**
+     * Seeks to the given sample frame. The page to start decoding at is found by bisecting the file by the granule position of its pages, followed by a
+     * short scan that skips pages without decoding them. The decoded samples in front of the target are discarded, the returned position is exact.
+     */
+    @Override
+    public long seek(long sampleFrame) {
+        if (!isSeekable()) {
+            return -1L;
+        }
+
+        return seek(Math.max(sampleFrame, 0L), OggInputStream.SEEK_PREROLL);
+    }
+
+    /**
+     * Seeks to the given sample frame. The position of the decoded samples is derived from the granule position of the last decoded page that isn't the
+     * last page of the stream, so the seek starts over with a longer preroll if no such page got decoded.
+     *
+     * @param target the sample frame to seek to
+     * @param preroll the number of samples in front of the target to start decoding at
+     *
+     * @return the sample frame the stream is positioned at
+     */
+    private long seek(long target, long preroll) {
+        final long limit = target - preroll;
+        final long startOffset = limit > 0L ? findPageOffset(limit) : 0L;
+
+        // RE-OPEN AND READ HEADERS
+        StreamUtils.closeQuietly(input);
+        input = file.read();
+        inputPosition = 0L;
+        syncState = new SyncState();
+        endOfStream = false;
+        endOfBitStream = true;
+        inited = false;
+        pendingPage = false;
+        readIndex = 0;
+        pcmBuffer.clear();
+        init();
+        final int frameSize = 2 * oggInfo.channels;
+
+        // JUMP CLOSE TO THE TARGET
+        if (startOffset > inputPosition) {
+            try {
+                inputPosition += Util.skipAll(
+                    input,
+                    startOffset - inputPosition
+                );
+            } catch (final IOException e) {
+                throw new TuningForkRuntimeException(
+                    "Error seeking Vorbis.",
+                    e
+                );
+            }
+            syncState.reset();
+        }
+        final long skippedGranule = skipPages(limit);
+
+        // DECODE UNTIL THE POSITION OF THE DECODED SAMPLES IS KNOWN
+        anchorGranule = -1L;
+        while (pendingPage || (anchorGranule < 0L && !endOfStream)) {
+            readPCM();
+        }
+        if (anchorGranule < 0L && limit > 0L) {
+            // only the last page got decoded, its granule position may be cut short and doesn't tell where the decoded samples start
+            return seek(target, preroll * 2L);
+        }
+
+        // without an anchor, decoding started at the start of the stream where the decoded samples start at the skipped granule position 0
+        final long firstFrame = anchorGranule >= 0L
+            ? anchorGranule - anchorPosition / frameSize
+            : skippedGranule;
+        final long decodedFrames = pcmBuffer.position() / frameSize;
+        final long skip = Math.min(
+            Math.max(target - firstFrame, 0L),
+            decodedFrames
+        );
+        readIndex = (int) (skip * frameSize);
+
+        return firstFrame + skip;
+    }
+
+    /**
+     * Skips all pages that end at or before the given granule position without decoding them. The first page that doesn't get skipped is kept as pending
+     * page.
+     *
+     * @param limit the granule position limit
+     *
+     * @return the granule position of the last skipped page
+     */
+    private long skipPages(long limit) {
+        long skippedGranule = 0L;
+        while (true) {
+            final int result = syncState.pageout(page);
+            if (result == 0) {
+                final int index = syncState.buffer(
+                    OggInputStream.SEEK_READ_SIZE
+                );
+                try {
+                    bytes = input.read(
+                        syncState.data,
+                        index,
+                        OggInputStream.SEEK_READ_SIZE
+                    );
+                } catch (final IOException e) {
+                    throw new TuningForkRuntimeException(
+                        "Error seeking Vorbis.",
+                        e
+                    );
+                }
+                if (bytes <= 0) {
+                    return skippedGranule;
+                }
+                countInput(bytes);
+                syncState.wrote(bytes);
+                continue;
+            }
+            if (result < 0) {
+                continue;
+            }
+
+            final long granule = page.granulepos();
+            if (
+                page.serialno() == serialNo &&
+                page.eos() == 0 &&
+                granule != -1L &&
+                granule <= limit
+            ) {
+                skippedGranule = granule;
+                continue;
+            }
+            pendingPage = true;
+            return skippedGranule;
+        }
+    }
+
+    /**
+     * Bisects the file to find a byte offset in front of the first page that ends after the given granule position.
+     *
+     * @param limit the granule position
+     *
+     * @return the byte offset
+     */
+    private long findPageOffset(long limit) {
+        long low = 0L;
+        long high = file.length();
+        long best = 0L;
+        final SyncState probeSync = new SyncState();
+        final Page probePage = new Page();
+        while (high - low > OggInputStream.BISECTION_WINDOW) {
+            final long middle = low + (high - low) / 2L;
+            final long granule = probeGranule(middle, probeSync, probePage);
+            if (granule < 0L || granule > limit) {
+                high = middle;
+            } else {
+                best = middle;
+                low = middle;
+            }
+        }
+
+        return best;
+    }
+
+    private long probeGranule(
+        long offset,
+        SyncState probeSync,
+        Page probePage
+    ) {
+        final InputStream stream = file.read();
+        probeSync.reset();
+        try {
+            if (Util.skipAll(stream, offset) < offset) {
+                return -1L;
+            }
+            long scanned = 0L;
+            while (scanned < OggInputStream.BISECTION_WINDOW * 2L) {
+                final int index = probeSync.buffer(
+                    OggInputStream.SEEK_READ_SIZE
+                );
+                final int read = stream.read(
+                    probeSync.data,
+                    index,
+                    OggInputStream.SEEK_READ_SIZE
+                );
+                if (read <= 0) {
+                    return -1L;
+                }
+                probeSync.wrote(read);
+                scanned += read;
+
+                int result;
+                while ((result = probeSync.pageout(probePage)) != 0) {
+                    if (
+                        result > 0 &&
+                        probePage.serialno() == serialNo &&
+                        probePage.granulepos() != -1L
+                    ) {
+                        return probePage.granulepos();
+                    }
+                }
+            }
+        } catch (final IOException e) {
+            return -1L;
+        } finally {
+            StreamUtils.closeQuietly(stream);
+        }
+
+        return -1L;
+    }
+
     public int read() {
         if (readIndex >= pcmBuffer.position()) {
             pcmBuffer.clear();
@@ -664,6 +921,34 @@ public class OggInputStream implements AudioStream {
         return this.read(b, 0, b.length);
     }
 
+    @Override
+    public int read(ByteBuffer buffer) {
+        final int start = buffer.position();
+        while (buffer.hasRemaining()) {
+            if (readIndex >= pcmBuffer.position()) {
+                pcmBuffer.clear();
+                readPCM();
+                readIndex = 0;
+            }
+            if (readIndex >= pcmBuffer.position()) {
+                break;
+            }
+
+            final int length = Math.min(
+                pcmBuffer.position() - readIndex,
+                buffer.remaining()
+            );
+            final ByteBuffer source = pcmBuffer.duplicate();
+            source.limit(readIndex + length);
+            source.position(readIndex);
+            buffer.put(source);
+            readIndex += length;
+        }
+
+        final int bytesRead = buffer.position() - start;
+        return bytesRead > 0 ? bytesRead : -1;
+    }
+
     @Override
     public PcmDataType getPcmDataType() {
         return PcmDataType.INTEGER;
@@ -4,12 +4,15 @@ import de.pottgames.tuningfork.PcmFormat.PcmDataType;
 import de.pottgames.tuningfork.decoder.util.Util;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
 
 public class PcmDecoder implements WavDecoder {
 
     protected InputStream stream;
     protected final PcmDataType pcmDataType;
     protected long bytesRemaining;
+    protected ReadableByteChannel channel;
     private final int channels;
     private long totalOutputSamplesPerChannel;
     private final int sampleRate;
@@ -30,6 +33,7 @@ public class PcmDecoder implements WavDecoder {
     @Override
     public void setup(InputStream stream, long streamLength) {
         this.stream = stream;
+        channel = null;
         bytesRemaining = streamLength;
         totalOutputSamplesPerChannel =
             bytesRemaining / (bitsPerSample / 8L) / channels;
@@ -50,6 +54,23 @@ public class PcmDecoder implements WavDecoder {
         return bytesRead;
     }
 
+    @Override
+    public int read(ByteBuffer output) throws IOException {
+        if (bytesRemaining <= 0) {
+            return -1;
+        }
+        if (channel == null) {
+            channel = Util.channelOf(stream);
+        }
+        final int bytesRead = Util.readAll(
+            channel,
+            output,
+            (int) Math.min(bytesRemaining, output.remaining())
+        );
+        bytesRemaining -= bytesRead;
+        return bytesRead;
+    }
+
     @Override
     public int inputBitsPerSample() {
         return bitsPerSample;
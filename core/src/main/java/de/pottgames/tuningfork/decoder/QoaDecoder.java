@@ -17,9 +17,15 @@ import de.pottgames.tuningfork.TuningForkException;
 import de.pottgames.tuningfork.decoder.util.Util;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 public class QoaDecoder {
 
+    /**
+     * Number of samples per channel in a full frame, all frames except the last one of a static file are full.
+     */
+    public static final int FRAME_SAMPLES = 256 * 20;
+
     private static final int DEQUANT_LUT[][] = {
         { 1, -1, 3, -3, 5, -5, 7, -7 },
         { 5, -5, 18, -18, 32, -32, 49, -49 },
@@ -93,10 +99,54 @@ public class QoaDecoder {
         return writtenBytes;
     }
 
+    public int read(ByteBuffer output) throws IOException, TuningForkException {
+        final int start = output.position();
+        while (output.remaining() > 1) {
+            if (bufferCursor >= bufferLength) {
+                decodeFrame(false);
+                if (bufferLength <= 0) {
+                    break;
+                }
+            }
+
+            final short sample = buffer[bufferCursor++];
+            output.put((byte) (sample & 0xFF));
+            output.put((byte) ((sample >>> 8) & 0xFF));
+        }
+
+        return output.position() - start;
+    }
+
+    /**
+     * Skips the given number of sample frames of the currently decoded frame.
+     *
+     * @param sampleFrames number of sample frames (samples per channel)
+     */
+    public void skipSampleFrames(int sampleFrames) {
+        bufferCursor = Math.min(
+            bufferCursor + sampleFrames * channels,
+            bufferLength
+        );
+    }
+
+    /**
+     * Returns the size in bytes of a full frame with the given number of channels.
+     *
+     * @param channels number of channels
+     *
+     * @return frame size in bytes
+     */
+    public static long frameSize(int channels) {
+        return 8L + 16L * channels + 8L * 256 * channels;
+    }
+
     private void decodeFrame(boolean firstFrame)
         throws IOException, TuningForkException {
         bufferCursor = 0;
-        Util.readAll(stream, currentFrameHeader.data, 8);
+        if (Util.readAll(stream, currentFrameHeader.data, 8) < 8) {
+            bufferLength = 0;
+            return;
+        }
         final int channels = currentFrameHeader.channels();
         final int samples = currentFrameHeader.samplesPerChannel();
         final int frameSize = currentFrameHeader.frameSize();
@@ -22,6 +22,7 @@ import de.pottgames.tuningfork.decoder.util.Util;
 import de.pottgames.tuningfork.logger.TuningForkLogger;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 /**
  * An {@link AudioStream} implementation to read qoa files.
@@ -30,7 +31,7 @@ import java.io.InputStream;
  */
 public class QoaInputStream implements AudioStream {
 
-    private final InputStream stream;
+    private InputStream stream;
     private QoaDecoder decoder;
     private final TuningForkLogger logger;
     private final FileHandle file;
@@ -128,6 +129,15 @@ public class QoaInputStream implements AudioStream {
         }
     }
 
+    @Override
+    public int read(ByteBuffer buffer) {
+        try {
+            return decoder.read(buffer);
+        } catch (final IOException | TuningForkException e) {
+            throw new TuningForkRuntimeException(e);
+        }
+    }
+
     @Override
     public float getDuration() {
         return duration;
@@ -144,6 +154,45 @@ public class QoaInputStream implements AudioStream {
         return new QoaInputStream(file);
     }
 
+    @Override
+    public boolean isSeekable() {
+        return file != null;
+    }
+
+    /**
+     * Seeks to the given sample frame. All frames of a static QOA file except the last one have the same size, which allows jumping directly to the frame
+     * that contains the sample frame. Only this single frame gets decoded.
+     */
+    @Override
+    public long seek(long sampleFrame) {
+        if (!isSeekable()) {
+            return -1L;
+        }
+
+        final long totalSamples = totalSamplesPerChannel();
+        final int channels = getChannels();
+        final long frame = Math.min(Math.max(sampleFrame, 0L), totalSamples);
+        final long frameIndex = Math.min(
+            frame / QoaDecoder.FRAME_SAMPLES,
+            (totalSamples - 1L) / QoaDecoder.FRAME_SAMPLES
+        );
+        final long offset = 8L + frameIndex * QoaDecoder.frameSize(channels);
+
+        StreamUtils.closeQuietly(stream);
+        stream = file.read();
+        try {
+            Util.skipAll(stream, offset);
+            decoder = new QoaDecoder(stream, totalSamples);
+        } catch (final IOException | TuningForkException e) {
+            this.throwRuntimeError("Error seeking QOA file", e);
+        }
+        decoder.skipSampleFrames(
+            (int) (frame - frameIndex * QoaDecoder.FRAME_SAMPLES)
+        );
+
+        return frame;
+    }
+
     public long totalSamplesPerChannel() {
         return decoder.outputTotalSamplesPerChannel();
     }
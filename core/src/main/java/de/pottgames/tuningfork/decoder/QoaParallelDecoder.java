@@ -0,0 +1,196 @@
+/**
+ * Copyright 2024 Matthias Finke
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package de.pottgames.tuningfork.decoder;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.StreamUtils;
+import de.pottgames.tuningfork.TuningForkException;
+import de.pottgames.tuningfork.TuningForkRuntimeException;
+import de.pottgames.tuningfork.decoder.util.Util;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.stream.IntStream;
+
+/**
+ * Decodes a whole static qoa file on multiple cores. Every qoa frame carries the LMS state it starts with in its header, so frames can be decoded
+ * independently. All frames except the last one of a static file have the same size, which makes the byte offset of each frame computable. The frames are
+ * split into ranges that are decoded in parallel, each range writes into its own region of the output buffer.
+ *
+ * @author Matthias
+ */
+public class QoaParallelDecoder {
+
+    private static final int READ_BUFFER_SIZE = 65536;
+
+    private final FileHandle file;
+    private final int channels;
+    private final int sampleRate;
+    private final long totalSamples;
+    private final long frameSize;
+    private final long[] rangeFrames;
+
+    /**
+     * Reads the header of the file and splits it into ranges of frames.
+     *
+     * @param file the file handle
+     * @param parts the desired number of ranges, usually a small multiple of the available processors
+     */
+    public QoaParallelDecoder(FileHandle file, int parts) {
+        this.file = file;
+        final byte[] header = new byte[16];
+        final InputStream stream = file.read();
+        try {
+            if (Util.readAll(stream, header, header.length) < header.length) {
+                throw new TuningForkRuntimeException(
+                    "Not a valid QOA file, header too short: " + file
+                );
+            }
+        } catch (final IOException e) {
+            throw new TuningForkRuntimeException(e);
+        } finally {
+            StreamUtils.closeQuietly(stream);
+        }
+        if (
+            header[0] != 'q' ||
+            header[1] != 'o' ||
+            header[2] != 'a' ||
+            header[3] != 'f'
+        ) {
+            throw new TuningForkRuntimeException(
+                "Not a valid QOA file, header missing qoaf identifier: " + file
+            );
+        }
+        totalSamples = Util.uIntOfBigEndianBytes(header, 4);
+        if (totalSamples == 0) {
+            throw new TuningForkRuntimeException(
+                "Invalid static QOA file, streamed QOA isn't supported by TuningFork: " +
+                    file
+            );
+        }
+
+        // THE FIRST FRAME HEADER FOLLOWS THE FILE HEADER
+        channels = header[8] & 0xFF;
+        sampleRate =
+            ((header[9] & 0xFF) << 16) |
+            ((header[10] & 0xFF) << 8) |
+            (header[11] & 0xFF);
+        if (channels == 0 || sampleRate == 0) {
+            throw new TuningForkRuntimeException(
+                "Invalid QOA frame header: " + file
+            );
+        }
+        frameSize = QoaDecoder.frameSize(channels);
+
+        final long frames =
+            (totalSamples + QoaDecoder.FRAME_SAMPLES - 1L) /
+            QoaDecoder.FRAME_SAMPLES;
+        final int ranges = (int) Math.max(1L, Math.min(parts, frames));
+        rangeFrames = new long[ranges + 1];
+        for (int i = 0; i <= ranges; i++) {
+            rangeFrames[i] = frames * i / ranges;
+        }
+    }
+
+    /**
+     * Decodes the whole file into the output buffer, starting at its current position. The buffer must have at least {@link #getByteSize()} bytes remaining.
+     * The position of the buffer is advanced by the number of bytes written.
+     *
+     * @param output the output buffer
+     */
+    public void decode(ByteBuffer output) {
+        final long byteSize = getByteSize();
+        if (output.remaining() < byteSize) {
+            throw new TuningForkRuntimeException(
+                "The output buffer is too small, required: " +
+                    byteSize +
+                    " bytes, remaining: " +
+                    output.remaining()
+            );
+        }
+
+        final int base = output.position();
+        IntStream.range(0, rangeFrames.length - 1)
+            .parallel()
+            .forEach(range -> decodeRange(range, output, base));
+        output.position(base + (int) byteSize);
+    }
+
+    private void decodeRange(int range, ByteBuffer output, int base) {
+        final long firstSample = rangeFrames[range] * QoaDecoder.FRAME_SAMPLES;
+        final long endSample = Math.min(
+            rangeFrames[range + 1] * QoaDecoder.FRAME_SAMPLES,
+            totalSamples
+        );
+        final int frameBytes = channels * 2;
+
+        final ByteBuffer region = output.duplicate();
+        region.limit(base + (int) (endSample * frameBytes));
+        region.position(base + (int) (firstSample * frameBytes));
+
+        final InputStream stream = file.read(
+            QoaParallelDecoder.READ_BUFFER_SIZE
+        );
+        try {
+            Util.skipAll(stream, 8L + rangeFrames[range] * frameSize);
+            final QoaDecoder decoder = new QoaDecoder(stream, totalSamples);
+            while (region.hasRemaining() && decoder.read(region) > 0) {
+                // decode straight into the region of this range
+            }
+        } catch (final IOException | TuningForkException e) {
+            throw new TuningForkRuntimeException(e);
+        } finally {
+            StreamUtils.closeQuietly(stream);
+        }
+
+        if (region.hasRemaining()) {
+            throw new TuningForkRuntimeException(
+                "Unexpected end of QOA file: " + file
+            );
+        }
+    }
+
+    /**
+     * Returns the number of ranges the file is split into.
+     *
+     * @return number of ranges
+     */
+    public int getRangeCount() {
+        return rangeFrames.length - 1;
+    }
+
+    /**
+     * Returns the number of bytes {@link #decode(ByteBuffer)} writes.
+     *
+     * @return number of bytes
+     */
+    public long getByteSize() {
+        return totalSamples * channels * 2L;
+    }
+
+    public long totalSamplesPerChannel() {
+        return totalSamples;
+    }
+
+    public int getChannels() {
+        return channels;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public int getBitsPerSample() {
+        return 16;
+    }
+}
@@ -4,6 +4,7 @@ import de.pottgames.tuningfork.PcmFormat.PcmDataType;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 public interface WavDecoder extends Closeable {
     void setup(InputStream stream, long streamLength);
@@ -28,7 +29,20 @@ public interface WavDecoder extends Closeable {
         return -1;
     }
 
+    default int outputFramesPerInputBlock() {
+        return 1;
+    }
+
     long bytesRemaining();
 
     int read(byte[] output) throws IOException;
+
+    default int read(ByteBuffer output) throws IOException {
+        final byte[] bytes = new byte[output.remaining()];
+        final int bytesRead = read(bytes);
+        if (bytesRead > 0) {
+            output.put(bytes, 0, bytesRead);
+        }
+        return bytesRead;
+    }
 }
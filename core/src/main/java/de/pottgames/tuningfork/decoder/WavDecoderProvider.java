@@ -3,4 +3,40 @@ package de.pottgames.tuningfork.decoder;
 @FunctionalInterface
 public interface WavDecoderProvider {
     WavDecoder getDecoder(WavFmtChunk fmtChunk, boolean forStreaming);
+
+    /**
+     * Returns a decoder for the given format. Passthrough decoders hand the encoded data to OpenAL as is, they are only allowed when the data ends up in
+     * OpenAL directly and is never read back as pcm, like it is the case for plain {@link de.pottgames.tuningfork.SoundBuffer SoundBuffers}. Providers that
+     * don't offer passthrough decoders don't need to override this.
+     *
+     * @param fmtChunk the fmt chunk
+     * @param forStreaming true if the decoder is used for streaming
+     * @param allowPassthrough true if a passthrough decoder may be returned
+     *
+     * @return the decoder or null if the format isn't supported
+     */
+    default WavDecoder getDecoder(
+        WavFmtChunk fmtChunk,
+        boolean forStreaming,
+        boolean allowPassthrough
+    ) {
+        return getDecoder(fmtChunk, forStreaming);
+    }
+
+    /**
+     * Returns true if a wav file with the given format may be streamed by the native IMA ADPCM decoder, see {@link ImaAdpcmRsInputStream}, instead of the
+     * decoder returned by {@link #getDecoder(WavFmtChunk, boolean, boolean)}. Returns false by default, so custom providers keep full control over the
+     * decoders that are used.
+     *
+     * @param fmtChunk the fmt chunk
+     * @param allowPassthrough true if a passthrough decoder may be used instead, return false to prefer passthrough over native decoding
+     *
+     * @return true if the native decoder may stream the file
+     */
+    default boolean isNativeStreamingAllowed(
+        WavFmtChunk fmtChunk,
+        boolean allowPassthrough
+    ) {
+        return false;
+    }
 }
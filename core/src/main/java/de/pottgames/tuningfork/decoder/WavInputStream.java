@@ -21,6 +21,7 @@ import de.pottgames.tuningfork.TuningForkRuntimeException;
 import de.pottgames.tuningfork.logger.TuningForkLogger;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 /**
  * An {@link AudioStream} implementation to read wav files.
@@ -29,8 +30,14 @@ import java.io.InputStream;
  */
 public class WavInputStream implements AudioStream {
 
-    private final InputStream stream;
+    private InputStream stream;
     private WavDecoder decoder;
+    private boolean forStreaming;
+    private boolean allowPassthrough;
+    private WavFmtChunk fmtChunk;
+    private long dataOffset;
+    private long dataLength;
+    private int inputBlockSize;
     private final TuningForkLogger logger;
     private final FileHandle file;
     private final float duration;
@@ -52,10 +59,27 @@ public class WavInputStream implements AudioStream {
      * @param forStreaming true if this will be used for streaming
      */
     public WavInputStream(FileHandle file, boolean forStreaming) {
+        this(file, forStreaming, false);
+    }
+
+    /**
+     * Initializes a {@link WavInputStream} from a {@link FileHandle}.
+     *
+     * @param file the file handle
+     * @param forStreaming true if this will be used for streaming
+     * @param allowPassthrough true if encoded data may be passed through as is, only use this if the data is handed to OpenAL directly, see
+     *            {@link WavDecoderProvider#getDecoder(WavFmtChunk, boolean, boolean)}
+     */
+    public WavInputStream(
+        FileHandle file,
+        boolean forStreaming,
+        boolean allowPassthrough
+    ) {
         stream = file.read();
         this.file = file;
         logger = Audio.get().getLogger();
-        setup(forStreaming);
+        this.allowPassthrough = allowPassthrough;
+        setup(forStreaming, 0L);
         duration = (float) totalSamplesPerChannel() / getSampleRate();
     }
 
@@ -77,16 +101,37 @@ public class WavInputStream implements AudioStream {
      * @param forStreaming true if this will be used for streaming
      */
     public WavInputStream(InputStream stream, boolean forStreaming) {
+        this(stream, forStreaming, false);
+    }
+
+    /**
+     * Initializes a {@link WavInputStream} from an {@link InputStream}. This stream does not support the reset function. Use
+     * {@link #WavInputStream(FileHandle)} instead to get the full functionality.
+     *
+     * @param stream the input stream
+     * @param forStreaming true if this will be used for streaming
+     * @param allowPassthrough true if encoded data may be passed through as is, only use this if the data is handed to OpenAL directly, see
+     *            {@link WavDecoderProvider#getDecoder(WavFmtChunk, boolean, boolean)}
+     */
+    public WavInputStream(
+        InputStream stream,
+        boolean forStreaming,
+        boolean allowPassthrough
+    ) {
         this.stream = stream;
         file = null;
         logger = Audio.get().getLogger();
-        setup(forStreaming);
+        this.allowPassthrough = allowPassthrough;
+        setup(forStreaming, 0L);
         duration = (float) totalSamplesPerChannel() / getSampleRate();
     }
 
-    private void setup(boolean forStreaming) {
+    private void setup(boolean forStreaming, long skipBytes) {
+        this.forStreaming = forStreaming;
+        dataOffset = 0L;
         readRiffChunk();
-        final WavFmtChunk fmtChunk = readFmtChunk();
+        fmtChunk = readFmtChunk();
+        inputBlockSize = fmtChunk.getnBlockAlign();
 
         final long bytesRemaining = skipToChunk('d', 'a', 't', 'a');
         if (bytesRemaining < 0L) {
@@ -94,14 +139,25 @@ public class WavInputStream implements AudioStream {
                 "Not a valid wav file, audio data not found"
             );
         }
+        dataLength = bytesRemaining;
+        if (skipBytes > 0L) {
+            try {
+                skipBytes(skipBytes);
+            } catch (final IOException e) {
+                this.throwRuntimeError(
+                    "An error occured while reading the wav file",
+                    e
+                );
+            }
+        }
 
         // FIND DECODER
         final WavDecoderProvider provider = Audio.get().getWavDecoderProvider();
-        decoder = provider.getDecoder(fmtChunk, forStreaming);
+        decoder = provider.getDecoder(fmtChunk, forStreaming, allowPassthrough);
         if (decoder == null) {
             this.throwRuntimeError("Unsupported wav file format");
         }
-        decoder.setup(stream, bytesRemaining);
+        decoder.setup(stream, bytesRemaining - skipBytes);
         if (
             PcmFormat.determineFormat(
                 decoder.outputChannels(),
@@ -146,6 +202,7 @@ public class WavInputStream implements AudioStream {
                     "Not a valid wav file, WAVE literal missing"
                 );
             }
+            dataOffset += 12L;
         } catch (final IOException e) {
             this.throwRuntimeError(
                 "An error occured while reading the wav file",
@@ -180,6 +237,7 @@ public class WavInputStream implements AudioStream {
             for (int i = 0; i < chunkSize; i++) {
                 chunkData[i] = stream.read();
             }
+            dataOffset += 8L + chunkSize;
 
             return new WavFmtChunk(chunkData);
         } catch (final IOException e) {
@@ -238,12 +296,14 @@ public class WavInputStream implements AudioStream {
                 if (chunkSize < 0) {
                     return -1L;
                 }
+                dataOffset += 8L;
                 if (foundChunk) {
                     return chunkSize;
                 }
 
                 // NOT FOUND, SKIP TO NEXT CHUNK
                 skipBytes(chunkSize);
+                dataOffset += chunkSize;
             }
         } catch (final IOException e) {
             this.throwRuntimeError(
@@ -263,6 +323,15 @@ public class WavInputStream implements AudioStream {
         }
     }
 
+    @Override
+    public int read(ByteBuffer buffer) {
+        try {
+            return decoder.read(buffer);
+        } catch (final IOException e) {
+            throw new TuningForkRuntimeException(e);
+        }
+    }
+
     @Override
     public float getDuration() {
         return duration;
@@ -276,7 +345,35 @@ public class WavInputStream implements AudioStream {
             );
         }
         StreamUtils.closeQuietly(this);
-        return new WavInputStream(file);
+        return new WavInputStream(file, forStreaming, allowPassthrough);
+    }
+
+    @Override
+    public boolean isSeekable() {
+        return file != null && inputBlockSize > 0;
+    }
+
+    /**
+     * Seeks to the given sample frame by re-opening the file and skipping directly to the byte offset of the frame. Block based formats like ADPCM are
+     * positioned at the start of the block that contains the sample frame.
+     */
+    @Override
+    public long seek(long sampleFrame) {
+        if (!isSeekable()) {
+            return -1L;
+        }
+
+        final long framesPerBlock = decoder.outputFramesPerInputBlock();
+        final long totalBlocks = dataLength / inputBlockSize;
+        final long block = Math.min(
+            Math.max(sampleFrame, 0L) / framesPerBlock,
+            totalBlocks
+        );
+        StreamUtils.closeQuietly(decoder);
+        stream = file.read();
+        setup(forStreaming, block * inputBlockSize);
+
+        return block * framesPerBlock;
     }
 
     public long totalSamplesPerChannel() {
@@ -317,6 +414,51 @@ public class WavInputStream implements AudioStream {
         return decoder.bytesRemaining();
     }
 
+    /**
+     * Returns the file this stream was created from or null if it was created from an {@link InputStream}.
+     *
+     * @return the file or null
+     */
+    FileHandle getFile() {
+        return file;
+    }
+
+    /**
+     * Returns the fmt chunk of the wav file.
+     *
+     * @return the fmt chunk
+     */
+    WavFmtChunk getFmtChunk() {
+        return fmtChunk;
+    }
+
+    /**
+     * Returns the byte offset of the audio data from the start of the file.
+     *
+     * @return the offset
+     */
+    long getDataOffset() {
+        return dataOffset;
+    }
+
+    /**
+     * Returns the size of the audio data in bytes, as stated by the data chunk.
+     *
+     * @return the size
+     */
+    long getDataLength() {
+        return dataLength;
+    }
+
+    /**
+     * Returns true if this stream was allowed to pass encoded data through, see {@link WavDecoderProvider#getDecoder(WavFmtChunk, boolean, boolean)}.
+     *
+     * @return true if passthrough is allowed
+     */
+    boolean isPassthroughAllowed() {
+        return allowPassthrough;
+    }
+
     private void throwRuntimeError(String message) {
         this.throwRuntimeError(message, null);
     }
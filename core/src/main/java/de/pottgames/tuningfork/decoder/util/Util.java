@@ -13,8 +13,12 @@
 package de.pottgames.tuningfork.decoder.util;
 
 import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 
 public class Util {
 
@@ -122,6 +126,87 @@ public class Util {
         return offset;
     }
 
+    /**
+     * Reads bytes from the provided channel into the given buffer, starting at its position, up to the specified limit.<br>
+     * This method attempts to read bytes until either the specified limit is reached, the buffer is full or the end of the channel is encountered.
+     *
+     * @param channel The channel to read from.
+     * @param output The buffer to store the read data into.
+     * @param limit The maximum number of bytes to read.
+     *
+     * @return The total number of bytes read from the channel and stored in the buffer.
+     *
+     * @throws IOException If an I/O error occurs while reading from the channel.
+     */
+    public static int readAll(
+        ReadableByteChannel channel,
+        ByteBuffer output,
+        int limit
+    ) throws IOException {
+        final int bytesToRead = Math.min(limit, output.remaining());
+        if (bytesToRead <= 0) {
+            return 0;
+        }
+
+        final int oldLimit = output.limit();
+        final int start = output.position();
+        output.limit(start + bytesToRead);
+        try {
+            while (output.hasRemaining()) {
+                if (channel.read(output) == -1) {
+                    break;
+                }
+            }
+        } finally {
+            output.limit(oldLimit);
+        }
+
+        return output.position() - start;
+    }
+
+    /**
+     * Returns a channel that reads from the given stream. For a {@link FileInputStream}, this is the file channel which reads directly into direct buffers
+     * without staging the data in a heap array. The position of the returned channel is in sync with the stream.
+     *
+     * @param stream the input stream
+     *
+     * @return the channel
+     */
+    public static ReadableByteChannel channelOf(InputStream stream) {
+        if (stream instanceof FileInputStream) {
+            return ((FileInputStream) stream).getChannel();
+        }
+        return Channels.newChannel(stream);
+    }
+
+    /**
+     * Skips bytes of the provided input stream until either the specified number of bytes is skipped or the end of the input stream is encountered. Unlike
+     * {@link InputStream#skip(long)}, this method doesn't return early if the stream skips less than requested in a single call.
+     *
+     * @param stream The input stream to skip bytes of.
+     * @param bytes The number of bytes to skip.
+     *
+     * @return The total number of bytes skipped.
+     *
+     * @throws IOException If an I/O error occurs while skipping.
+     */
+    public static long skipAll(InputStream stream, long bytes)
+        throws IOException {
+        long skipped = 0;
+        while (skipped < bytes) {
+            final long result = stream.skip(bytes - skipped);
+            if (result > 0) {
+                skipped += result;
+            } else if (stream.read() == -1) {
+                break;
+            } else {
+                skipped++;
+            }
+        }
+
+        return skipped;
+    }
+
     /**
      * Converts a sequence of 8 bytes from the specified source array, starting at the specified offset, into a long value using big-endian byte order.
      *
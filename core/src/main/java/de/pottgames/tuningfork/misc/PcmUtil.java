@@ -75,6 +75,12 @@ public abstract class PcmUtil {
         switch (format) {
             case MS_ADPCM_STEREO:
             case MS_ADPCM_MONO:
+            case IMA4_STEREO:
+            case IMA4_MONO:
+            case MULAW_STEREO:
+            case MULAW_MONO:
+            case ALAW_STEREO:
+            case ALAW_MONO:
                 throw new TuningForkRuntimeException(
                     "Currently not supported for this format."
                 );
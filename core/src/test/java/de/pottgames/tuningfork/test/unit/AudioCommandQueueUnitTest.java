@@ -0,0 +1,106 @@
+/**
+ * Copyright 2024 Matthias Finke
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package de.pottgames.tuningfork.test.unit;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Files;
+import de.pottgames.tuningfork.Audio;
+import de.pottgames.tuningfork.AudioCommandQueue;
+import de.pottgames.tuningfork.AudioConfig;
+import de.pottgames.tuningfork.logger.ConsoleLogger;
+import de.pottgames.tuningfork.logger.ConsoleLogger.LogLevel;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class AudioCommandQueueUnitTest {
+
+    private static final int PRODUCERS = 8;
+    private static final int COMMANDS_PER_PRODUCER = 20000;
+
+    private Audio audio;
+
+    @BeforeAll
+    public void setup() {
+        Gdx.files = new Lwjgl3Files(); // hack setup gdx because we only need Gdx.files in order to run properly
+
+        // a small ring makes the producers wrap around and wait for the command thread all the time
+        audio = Audio.init(
+            new AudioConfig()
+                .setCommandQueueCapacity(16)
+                .setLogger(new ConsoleLogger(LogLevel.INFO_WARN_ERROR))
+        );
+    }
+
+    @Test
+    public void testMultipleProducers() throws InterruptedException {
+        final AudioCommandQueue queue = audio.getCommandQueue();
+        final AtomicInteger executed = new AtomicInteger();
+        final int[] lastValues = new int[PRODUCERS];
+        final boolean[] outOfOrder = new boolean[PRODUCERS];
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(PRODUCERS);
+
+        final Thread[] producers = new Thread[PRODUCERS];
+        for (int p = 0; p < PRODUCERS; p++) {
+            final int producer = p;
+            lastValues[producer] = -1;
+            producers[p] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (final InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < COMMANDS_PER_PRODUCER; i++) {
+                    final int value = i;
+                    // the commands are executed on the single command thread, no synchronization needed
+                    queue.execute(() -> {
+                        if (value != lastValues[producer] + 1) {
+                            outOfOrder[producer] = true;
+                        }
+                        lastValues[producer] = value;
+                        executed.incrementAndGet();
+                    });
+                }
+                queue.execute(done::countDown);
+            });
+            producers[p].start();
+        }
+
+        start.countDown();
+        Assertions.assertTrue(done.await(30L, TimeUnit.SECONDS));
+        for (final Thread producer : producers) {
+            producer.join();
+        }
+
+        Assertions.assertEquals(
+            PRODUCERS * COMMANDS_PER_PRODUCER,
+            executed.get()
+        );
+        for (int p = 0; p < PRODUCERS; p++) {
+            Assertions.assertFalse(outOfOrder[p]);
+            Assertions.assertEquals(COMMANDS_PER_PRODUCER - 1, lastValues[p]);
+        }
+    }
+
+    @AfterAll
+    public void cleanup() {
+        audio.dispose();
+    }
+}
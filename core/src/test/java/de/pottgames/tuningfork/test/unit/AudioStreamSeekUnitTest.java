@@ -0,0 +1,150 @@
+/**
+ * Copyright 2024 Matthias Finke
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package de.pottgames.tuningfork.test.unit;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Files;
+import com.badlogic.gdx.files.FileHandle;
+import de.pottgames.tuningfork.Audio;
+import de.pottgames.tuningfork.AudioConfig;
+import de.pottgames.tuningfork.decoder.AudioStream;
+import de.pottgames.tuningfork.decoder.FlacInputStream;
+import de.pottgames.tuningfork.decoder.Mp3InputStream;
+import de.pottgames.tuningfork.decoder.OggInputStream;
+import de.pottgames.tuningfork.logger.ConsoleLogger;
+import de.pottgames.tuningfork.logger.ConsoleLogger.LogLevel;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.function.Function;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class AudioStreamSeekUnitTest {
+
+    private static final int COMPARED_FRAMES = 8192;
+
+    private Audio audio;
+
+    @BeforeAll
+    public void setup() {
+        Gdx.files = new Lwjgl3Files(); // hack setup gdx because we only need Gdx.files in order to run properly
+        audio = Audio.init(
+            new AudioConfig().setLogger(
+                new ConsoleLogger(LogLevel.INFO_WARN_ERROR)
+            )
+        );
+    }
+
+    @Test
+    public void testFlacSeek() {
+        testSeek("numbers_8bit_mono.flac", FlacInputStream::new);
+        testSeek("numbers_16bit_mono.flac", FlacInputStream::new);
+        testSeek("numbers_16bit_stereo.flac", FlacInputStream::new);
+        testSeek("rhythm2.flac", FlacInputStream::new);
+    }
+
+    @Test
+    public void testOggSeek() {
+        testSeek("numbers2.ogg", file -> new OggInputStream(file, null));
+        testSeek("carnivalrides.ogg", file -> new OggInputStream(file, null));
+        testSeek("quadrophonic.ogg", file -> new OggInputStream(file, null));
+    }
+
+    @Test
+    public void testMp3Seek() {
+        testSeek("numbers.mp3", Mp3InputStream::new);
+        testSeek("numbers_stereo.mp3", Mp3InputStream::new);
+    }
+
+    /**
+     * Seeks forth and back in the stream and compares the samples read after each seek with the samples of a straight decode at the same position.
+     */
+    private void testSeek(
+        String fileName,
+        Function<FileHandle, AudioStream> streamFactory
+    ) {
+        final FileHandle file = Gdx.files.internal(fileName);
+        final AudioStream straightStream = streamFactory.apply(file);
+        final byte[] expected = readAll(straightStream);
+        straightStream.close();
+
+        final AudioStream stream = streamFactory.apply(file);
+        Assertions.assertTrue(stream.isSeekable());
+        final int frameBytes =
+            (stream.getChannels() * stream.getBitsPerSample()) / 8;
+        final long totalFrames = expected.length / frameBytes;
+        final long[] targets = {
+            totalFrames / 2,
+            totalFrames / 3 + 1,
+            1L,
+            (totalFrames * 2) / 3 - 7,
+            totalFrames - 100,
+            totalFrames / 4,
+            0L,
+        };
+
+        for (final long target : targets) {
+            final long position = stream.seek(target);
+            Assertions.assertEquals(target, position, fileName);
+
+            final int offset = (int) (position * frameBytes);
+            final int length = Math.min(
+                AudioStreamSeekUnitTest.COMPARED_FRAMES * frameBytes,
+                expected.length - offset
+            );
+            final byte[] actual = read(stream, length);
+            Assertions.assertArrayEquals(
+                Arrays.copyOfRange(expected, offset, offset + length),
+                actual,
+                fileName + " at sample frame " + target
+            );
+        }
+
+        stream.close();
+    }
+
+    private byte[] readAll(AudioStream stream) {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[4096];
+        int length;
+        while ((length = stream.read(buffer)) > 0) {
+            output.write(buffer, 0, length);
+        }
+        return output.toByteArray();
+    }
+
+    private byte[] read(AudioStream stream, int length) {
+        final byte[] result = new byte[length];
+        final byte[] buffer = new byte[4096];
+        int offset = 0;
+        while (offset < length) {
+            final int read = stream.read(buffer);
+            if (read <= 0) {
+                break;
+            }
+            final int copy = Math.min(read, length - offset);
+            System.arraycopy(buffer, 0, result, offset, copy);
+            offset += copy;
+        }
+        return Arrays.copyOf(result, offset);
+    }
+
+    @AfterAll
+    public void cleanup() {
+        audio.dispose();
+    }
+}
@@ -0,0 +1,164 @@
+/**
+ * Copyright 2024 Matthias Finke
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package de.pottgames.tuningfork.test.unit;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Files;
+import de.pottgames.tuningfork.Audio;
+import de.pottgames.tuningfork.AudioConfig;
+import de.pottgames.tuningfork.StreamedSoundSource;
+import de.pottgames.tuningfork.decoder.ImaAdpcmRsInputStream;
+import de.pottgames.tuningfork.decoder.WavInputStream;
+import de.pottgames.tuningfork.logger.ConsoleLogger;
+import de.pottgames.tuningfork.logger.ConsoleLogger.LogLevel;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ImaAdpcmStreamingUnitTest {
+
+    private static final float TOLERANCE = 0.01f;
+    private static final float SEEK_TOLERANCE = 0.25f;
+    private static final long TIMEOUT_MILLIS = 2000L;
+
+    private Audio audio;
+
+    @BeforeAll
+    public void setup() {
+        Gdx.files = new Lwjgl3Files(); // hack setup gdx because we only need Gdx.files in order to run properly
+        audio = Audio.init(
+            new AudioConfig().setLogger(
+                new ConsoleLogger(LogLevel.INFO_WARN_ERROR)
+            )
+        );
+    }
+
+    @Test
+    public void testPassthroughMono() throws InterruptedException {
+        testPassthrough("ima_adpcm_mono.wav", 5.563f);
+    }
+
+    @Test
+    public void testPassthroughStereo() throws InterruptedException {
+        testPassthrough("ima_adpcm_stereo.wav", 11.2f);
+    }
+
+    private void testPassthrough(String fileName, float duration)
+        throws InterruptedException {
+        final WavInputStream stream = new WavInputStream(
+            Gdx.files.internal(fileName),
+            true,
+            true
+        );
+        Assumptions.assumeTrue(
+            stream.getBlockSize() > 0,
+            "IMA ADPCM passthrough isn't supported by OpenAL"
+        );
+        testPlaybackPosition(new StreamedSoundSource(stream), duration);
+    }
+
+    @Test
+    public void testNativeMono() throws InterruptedException {
+        testNative("ima_adpcm_mono.wav", 5.563f);
+    }
+
+    @Test
+    public void testNativeStereo() throws InterruptedException {
+        testNative("ima_adpcm_stereo.wav", 11.2f);
+    }
+
+    private void testNative(String fileName, float duration)
+        throws InterruptedException {
+        Assumptions.assumeTrue(
+            audio.isNativeDecodersAvailable(),
+            "The native decoders aren't available"
+        );
+
+        // STREAMS PREFER THE NATIVE DECODER OVER PASSTHROUGH
+        final WavInputStream wavStream = new WavInputStream(
+            Gdx.files.internal(fileName),
+            true,
+            true
+        );
+        final ImaAdpcmRsInputStream stream = ImaAdpcmRsInputStream.open(
+            wavStream
+        );
+        wavStream.close();
+        Assertions.assertNotNull(stream);
+        testPlaybackPosition(new StreamedSoundSource(stream), duration);
+    }
+
+    /**
+     * Plays the source and checks that the playback position advances and follows seeks, forth and back.
+     */
+    private void testPlaybackPosition(
+        StreamedSoundSource source,
+        float duration
+    ) throws InterruptedException {
+        source.setVolume(0f);
+        Assertions.assertEquals(
+            duration,
+            source.getDuration(),
+            ImaAdpcmStreamingUnitTest.TOLERANCE
+        );
+        Assertions.assertEquals(
+            0f,
+            source.getPlaybackPosition(),
+            ImaAdpcmStreamingUnitTest.TOLERANCE
+        );
+
+        source.play();
+        source.setPlaybackPosition(2f);
+        final float afterSeek = awaitPosition(source, 2f);
+        Thread.sleep(300L);
+        final float later = source.getPlaybackPosition();
+        Assertions.assertTrue(later > afterSeek, "position doesn't advance");
+        Assertions.assertTrue(later < afterSeek + 1f, "position runs away");
+
+        source.setPlaybackPosition(1f);
+        awaitPosition(source, 1f);
+
+        source.dispose();
+    }
+
+    private float awaitPosition(StreamedSoundSource source, float target)
+        throws InterruptedException {
+        final long start = System.currentTimeMillis();
+        float position = source.getPlaybackPosition();
+        while (
+            Math.abs(position - target) >
+                ImaAdpcmStreamingUnitTest.SEEK_TOLERANCE &&
+            System.currentTimeMillis() - start <
+                ImaAdpcmStreamingUnitTest.TIMEOUT_MILLIS
+        ) {
+            Thread.sleep(10L);
+            position = source.getPlaybackPosition();
+        }
+        Assertions.assertTrue(Float.isFinite(position), "position: " + position);
+        Assertions.assertEquals(
+            target,
+            position,
+            ImaAdpcmStreamingUnitTest.SEEK_TOLERANCE
+        );
+        return position;
+    }
+
+    @AfterAll
+    public void cleanup() {
+        audio.dispose();
+    }
+}
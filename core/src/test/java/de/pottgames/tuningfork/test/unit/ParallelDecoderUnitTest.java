@@ -0,0 +1,138 @@
+/**
+ * Copyright 2024 Matthias Finke
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package de.pottgames.tuningfork.test.unit;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Files;
+import com.badlogic.gdx.files.FileHandle;
+import de.pottgames.tuningfork.Audio;
+import de.pottgames.tuningfork.AudioConfig;
+import de.pottgames.tuningfork.decoder.AudioStream;
+import de.pottgames.tuningfork.decoder.FlacInputStream;
+import de.pottgames.tuningfork.decoder.FlacParallelDecoder;
+import de.pottgames.tuningfork.decoder.QoaInputStream;
+import de.pottgames.tuningfork.decoder.QoaParallelDecoder;
+import de.pottgames.tuningfork.logger.ConsoleLogger;
+import de.pottgames.tuningfork.logger.ConsoleLogger.LogLevel;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ParallelDecoderUnitTest {
+
+    private static final int[] PARTS = { 2, 7, 32 };
+
+    private Audio audio;
+
+    @BeforeAll
+    public void setup() {
+        Gdx.files = new Lwjgl3Files(); // hack setup gdx because we only need Gdx.files in order to run properly
+        audio = Audio.init(
+            new AudioConfig().setLogger(
+                new ConsoleLogger(LogLevel.INFO_WARN_ERROR)
+            )
+        );
+    }
+
+    @Test
+    public void testFlacParallelMatchesSequential() {
+        testFlac("numbers_8bit_mono.flac");
+        testFlac("numbers_16bit_mono.flac");
+        testFlac("numbers_16bit_stereo.flac");
+        testFlac("rhythm3.flac");
+    }
+
+    private void testFlac(String fileName) {
+        final FileHandle file = Gdx.files.internal(fileName);
+        for (final int parts : ParallelDecoderUnitTest.PARTS) {
+            final FlacParallelDecoder decoder = new FlacParallelDecoder(
+                file,
+                parts
+            );
+            Assertions.assertTrue(decoder.getRangeCount() > 1, fileName);
+
+            final ByteBuffer parallel = allocate(decoder.getByteSize());
+            decoder.decode(parallel);
+            parallel.flip();
+
+            final ByteBuffer sequential = readAll(
+                new FlacInputStream(file),
+                decoder.getByteSize()
+            );
+            Assertions.assertEquals(
+                sequential,
+                parallel,
+                fileName + " split into " + parts + " parts"
+            );
+        }
+    }
+
+    @Test
+    public void testQoaParallelMatchesSequential() {
+        testQoa("04_electronic_gong_400hz_mono.qoa");
+        testQoa("42_accordion_melodious_phrase_stereo.qoa");
+        testQoa("ambience_forest_birds_mono_02.qoa");
+    }
+
+    private void testQoa(String fileName) {
+        final FileHandle file = Gdx.files.internal(fileName);
+        for (final int parts : ParallelDecoderUnitTest.PARTS) {
+            final QoaParallelDecoder decoder = new QoaParallelDecoder(
+                file,
+                parts
+            );
+            Assertions.assertTrue(decoder.getRangeCount() > 1, fileName);
+
+            final ByteBuffer parallel = allocate(decoder.getByteSize());
+            decoder.decode(parallel);
+            parallel.flip();
+
+            final ByteBuffer sequential = readAll(
+                new QoaInputStream(file),
+                decoder.getByteSize()
+            );
+            Assertions.assertEquals(
+                sequential,
+                parallel,
+                fileName + " split into " + parts + " parts"
+            );
+        }
+    }
+
+    private ByteBuffer allocate(long size) {
+        return ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Reads the whole stream into a buffer that is a bit larger than expected, so that a stream producing more bytes than expected is detected.
+     */
+    private ByteBuffer readAll(AudioStream stream, long expectedSize) {
+        final ByteBuffer buffer = allocate(expectedSize + 64L);
+        while (buffer.hasRemaining() && stream.read(buffer) > 0) {
+            // read until the end of the stream
+        }
+        stream.close();
+        buffer.flip();
+        return buffer;
+    }
+
+    @AfterAll
+    public void cleanup() {
+        audio.dispose();
+    }
+}
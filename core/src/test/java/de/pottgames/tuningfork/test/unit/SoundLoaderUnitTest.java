@@ -14,12 +14,21 @@ package de.pottgames.tuningfork.test.unit;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Files;
+import com.badlogic.gdx.files.FileHandle;
 import de.pottgames.tuningfork.Audio;
 import de.pottgames.tuningfork.AudioConfig;
+import de.pottgames.tuningfork.Mp3Loader;
+import de.pottgames.tuningfork.PcmFormat;
+import de.pottgames.tuningfork.PcmFormat.PcmDataType;
+import de.pottgames.tuningfork.ReadableSoundBuffer;
 import de.pottgames.tuningfork.SoundBuffer;
 import de.pottgames.tuningfork.SoundLoader;
+import de.pottgames.tuningfork.decoder.Mp3InputStream;
 import de.pottgames.tuningfork.logger.ConsoleLogger;
 import de.pottgames.tuningfork.logger.ConsoleLogger.LogLevel;
+import de.pottgames.tuningfork.misc.PcmUtil;
+import java.nio.ByteBuffer;
+import org.lwjgl.BufferUtils;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
@@ -77,6 +86,12 @@ public class SoundLoaderUnitTest {
         Assertions.assertTrue(sound.getDuration() > 0f);
     }
 
+    @Test
+    public void loadMp3Stream() {
+        testMp3Stream("src/test/resources/numbers.mp3");
+        testMp3Stream("src/test/resources/numbers_stereo.mp3");
+    }
+
     @Test
     public void loadFlac() {
         final SoundBuffer sound = SoundLoader.load(
@@ -86,6 +101,95 @@ public class SoundLoaderUnitTest {
         Assertions.assertTrue(sound.getDuration() > 0f);
     }
 
+    @Test
+    public void loadReadableImaAdpcm() {
+        testReadableAndReverse("src/test/resources/ima_adpcm_mono.wav");
+        testReadableAndReverse("src/test/resources/ima_adpcm_stereo.wav");
+    }
+
+    @Test
+    public void loadReadableLaw() {
+        testReadableAndReverse("src/test/resources/numbers-ulaw.wav");
+        testReadableAndReverse("src/test/resources/numbers-alaw.wav");
+        testReadableAndReverse("src/test/resources/numbers-ulaw.aifc");
+        testReadableAndReverse("src/test/resources/numbers-alaw.aifc");
+    }
+
+    /**
+     * Loading from an {@link Mp3InputStream} must yield all frames, no matter how much room is left in the buffer the stream is read into.
+     *
+     * @param path the path
+     */
+    private void testMp3Stream(String path) {
+        final FileHandle file = Gdx.files.absolute(path);
+        final byte[] expected = Mp3Loader.loadReadable(file).getAudioData();
+
+        final ReadableSoundBuffer fromStream = SoundLoader.loadReadable(
+            new Mp3InputStream(file)
+        );
+        Assertions.assertArrayEquals(expected, fromStream.getAudioData());
+
+        // READS THAT ARE SMALLER THAN AN MP3 FRAME
+        final Mp3InputStream stream = new Mp3InputStream(file);
+        final ByteBuffer buffer = BufferUtils.createByteBuffer(1000);
+        final byte[] smallReads = new byte[expected.length];
+        int length = 0;
+        while (true) {
+            buffer.clear();
+            final int bytesRead = stream.read(buffer);
+            if (bytesRead <= 0) {
+                break;
+            }
+            buffer.flip();
+            buffer.get(smallReads, length, bytesRead);
+            length += bytesRead;
+        }
+        stream.close();
+        Assertions.assertEquals(expected.length, length);
+        Assertions.assertArrayEquals(expected, smallReads);
+    }
+
+    /**
+     * Readable and reverse loads must always yield 16-bit pcm, even if the plain load passes the encoded data through to OpenAL.
+     *
+     * @param path the path
+     */
+    private void testReadableAndReverse(String path) {
+        final FileHandle file = Gdx.files.absolute(path);
+        final ReadableSoundBuffer readable = SoundLoader.loadReadable(file);
+        final PcmFormat format = readable.getPcmFormat();
+        Assertions.assertEquals(16, format.getBitsPerSample());
+        Assertions.assertEquals(PcmDataType.INTEGER, format.getDataType());
+        final float average = PcmUtil.averageSample(
+            readable.getAudioData(),
+            format,
+            0,
+            1000,
+            1
+        );
+        Assertions.assertTrue(average >= 0f && average <= 1f);
+
+        final ReadableSoundBuffer reverse = SoundLoader.loadReadableReverse(
+            file
+        );
+        Assertions.assertEquals(format, reverse.getPcmFormat());
+        Assertions.assertArrayEquals(
+            PcmUtil.reverseAudio(readable.getAudioData(), 2),
+            reverse.getAudioData()
+        );
+        Assertions.assertEquals(
+            format,
+            SoundLoader.loadReverse(file).getPcmFormat()
+        );
+
+        // THE PLAIN LOAD MAY PASS THE DATA THROUGH BUT MUST HAVE THE SAME LENGTH
+        Assertions.assertEquals(
+            readable.getDuration(),
+            SoundLoader.load(file).getDuration(),
+            0.05f
+        );
+    }
+
     @AfterAll
     public void cleanup() {
         audio.dispose();
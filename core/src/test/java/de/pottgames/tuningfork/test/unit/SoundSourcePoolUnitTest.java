@@ -0,0 +1,173 @@
+/**
+ * Copyright 2024 Matthias Finke
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package de.pottgames.tuningfork.test.unit;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Files;
+import de.pottgames.tuningfork.Audio;
+import de.pottgames.tuningfork.AudioConfig;
+import de.pottgames.tuningfork.BufferedSoundSource;
+import de.pottgames.tuningfork.SoundBuffer;
+import de.pottgames.tuningfork.SoundBuffer.InstanceLimit;
+import de.pottgames.tuningfork.WaveLoader;
+import de.pottgames.tuningfork.logger.ConsoleLogger;
+import de.pottgames.tuningfork.logger.ConsoleLogger.LogLevel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class SoundSourcePoolUnitTest {
+
+    private Audio audio;
+    private SoundBuffer sound;
+
+    @BeforeAll
+    public void setup() {
+        Gdx.files = new Lwjgl3Files(); // hack setup gdx because we only need Gdx.files in order to run properly
+    }
+
+    private void init(AudioConfig config) {
+        audio = Audio.init(
+            config.setLogger(new ConsoleLogger(LogLevel.INFO_WARN_ERROR))
+        );
+        sound = WaveLoader.load(Gdx.files.internal("numbers.wav"));
+    }
+
+    @Test
+    public void testFreedSourceIsReused() {
+        init(new AudioConfig().setSimultaneousSources(1));
+
+        final BufferedSoundSource source = audio.obtainSource(sound);
+        source.play();
+        Assertions.assertTrue(source.isPlaying());
+        source.free();
+
+        final BufferedSoundSource source2 = audio.obtainSource(sound);
+        Assertions.assertSame(source, source2);
+        Assertions.assertFalse(source2.isPlaying());
+        source2.free();
+    }
+
+    @Test
+    public void testPausedSourceIsReused() {
+        init(new AudioConfig().setSimultaneousSources(1));
+
+        final BufferedSoundSource source = audio.obtainSource(sound);
+        source.play();
+        source.pause();
+        source.free();
+
+        Assertions.assertSame(source, audio.obtainSource(sound));
+        source.free();
+    }
+
+    @Test
+    public void testVoiceStealing() {
+        init(new AudioConfig().setSimultaneousSources(1).setMaxVoices(1));
+        final SoundBuffer other = WaveLoader.load(
+            Gdx.files.internal("numbers_8bit_mono.wav")
+        );
+
+        // THE ONLY VOICE OF THE POOL
+        final BufferedSoundSource voice = audio.obtainSource(sound);
+        voice.free();
+
+        sound.play(1f, 1f, 0f, 10);
+        Assertions.assertSame(sound, voice.getBuffer());
+        Assertions.assertTrue(voice.isPlaying());
+
+        // A LOWER PRIORITY MUST NOT STEAL THE VOICE
+        other.play(1f, 1f, 0f, 0);
+        Assertions.assertSame(sound, voice.getBuffer());
+
+        // AN EQUAL PRIORITY STEALS THE VOICE
+        other.play(1f, 1f, 0f, 10);
+        Assertions.assertSame(other, voice.getBuffer());
+        Assertions.assertTrue(voice.isPlaying());
+
+        other.dispose();
+    }
+
+    @Test
+    public void testObtainedSourceIsNotStolen() {
+        init(new AudioConfig().setSimultaneousSources(1).setMaxVoices(1));
+        final SoundBuffer other = WaveLoader.load(
+            Gdx.files.internal("numbers_8bit_mono.wav")
+        );
+
+        final BufferedSoundSource source = audio.obtainSource(sound);
+        source.play();
+        other.play(1f, 1f, 0f, Integer.MAX_VALUE);
+        Assertions.assertSame(sound, source.getBuffer());
+        Assertions.assertTrue(source.isPlaying());
+
+        source.free();
+        other.dispose();
+    }
+
+    @Test
+    public void testInstanceLimitAfterStopAll() {
+        init(new AudioConfig());
+        sound.setMaxInstances(1, InstanceLimit.REJECT);
+
+        sound.play();
+        sound.play();
+        Assertions.assertEquals(1, sound.getInstanceLimitHits());
+
+        // STOPPED INSTANCES MUST NOT COUNT ANYMORE
+        audio.stopAll();
+        sound.play();
+        Assertions.assertEquals(1, sound.getInstanceLimitHits());
+    }
+
+    @Test
+    public void testInstanceLimitReplaceQuietest() {
+        init(new AudioConfig().setSimultaneousSources(2));
+        sound.setMaxInstances(2, InstanceLimit.REPLACE_QUIETEST);
+
+        // OBTAIN BOTH SOURCES OF THE POOL TO KNOW WHICH ONE IS USED NEXT
+        final BufferedSoundSource first = audio.obtainSource(sound);
+        final BufferedSoundSource second = audio.obtainSource(sound);
+        first.free();
+        second.free();
+
+        sound.play(0.25f);
+        sound.play(0.5f);
+        Assertions.assertEquals(0.25f, first.getVolume());
+        Assertions.assertEquals(0.5f, second.getVolume());
+
+        sound.play(0.75f);
+        Assertions.assertEquals(1, sound.getInstanceLimitHits());
+        Assertions.assertEquals(0.75f, first.getVolume());
+        Assertions.assertEquals(0.5f, second.getVolume());
+    }
+
+    @Test
+    public void testRetriggerInterval() {
+        init(new AudioConfig());
+        sound.setRetriggerInterval(60f);
+
+        sound.play();
+        sound.play();
+        Assertions.assertEquals(1, sound.getRetriggerLimitHits());
+    }
+
+    @AfterEach
+    public void cleanup() {
+        sound.dispose();
+        audio.dispose();
+    }
+}
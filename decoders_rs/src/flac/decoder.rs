@@ -159,6 +159,50 @@ pub fn decode(input_data: &[u8]) -> Result<DecodedData, BasicError> {
     })
 }
 
+/// Decodes a flac file straight into the given output slice as interleaved little-endian samples. 8-bit samples are written as unsigned bytes, which is
+/// the format OpenAL expects. Decoding stops once the output is full. Returns the number of bytes written.
+pub fn decode_into(input_data: &[u8], output: &mut [u8]) -> Result<usize, BasicError> {
+    let stream = Cursor::new(input_data);
+    let mut flac_reader = FlacReader::new(stream)?;
+    let num_channels = flac_reader.streaminfo.num_channels as usize;
+    let sample_rate = flac_reader.streaminfo.sample_rate;
+    let bytes_per_sample = match flac_reader.streaminfo.bits_per_sample {
+        8 => 1,
+        16 => 2,
+        24 => 3,
+        32 => 4,
+        _ => return Err(BasicError::new("Unsupported bits_per_sample")),
+    };
+    let frame_bytes = num_channels * bytes_per_sample;
+
+    let mut buffer = vec![0; 65536 * 8];
+    let mut written = 0;
+
+    while let Some(result) = flac_reader.decode_frame(sample_rate, &mut buffer)? {
+        let block_size = result / num_channels;
+        let frames = block_size.min((output.len() - written) / frame_bytes);
+
+        for i in 0..frames {
+            for channel in 0..num_channels {
+                let value = buffer[channel * block_size + i];
+                match bytes_per_sample {
+                    1 => output[written] = (value + 128) as u8,
+                    2 => output[written..written + 2].copy_from_slice(&(value as i16).to_le_bytes()),
+                    _ => output[written..written + bytes_per_sample]
+                        .copy_from_slice(&value.to_le_bytes()[0..bytes_per_sample]),
+                }
+                written += bytes_per_sample;
+            }
+        }
+
+        if frames < block_size {
+            break;
+        }
+    }
+
+    Ok(written)
+}
+
 fn interleave_2_channels(bits_per_sample: u8, left: &[i32], right: &[i32], output: &mut Vec<u8>) {
     for (left_sample, right_sample) in left.iter().zip(right) {
         extend_by_sample(*left_sample, bits_per_sample, output);
@@ -13,5 +13,6 @@ pub mod decoder;
 pub mod frame;
 pub mod reader;
 pub mod rice;
+pub mod stream_decoder;
 pub mod stream_info;
 pub mod subframe;
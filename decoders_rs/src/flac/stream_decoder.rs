@@ -0,0 +1,135 @@
+//! Copyright 2024 Matthias Finke
+//!
+//! Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the
+//! License at
+//!
+//! http://www.apache.org/licenses/LICENSE-2.0
+//!
+//! Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+//! CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+
+use std::fs::File;
+use std::io::{BufReader, Chain, Cursor, Read, Seek, SeekFrom};
+
+use crate::common::error::BasicError;
+use crate::flac::reader::FlacReader;
+
+type FrameSource = Chain<Cursor<Vec<u8>>, BufReader<File>>;
+
+/// A flac decoder that keeps its state between reads, used for streaming. Decoded frames that don't fit into the output are kept for the next read.
+pub struct FlacStreamDecoder {
+    path: String,
+    header: Vec<u8>,
+    reader: FlacReader<FrameSource>,
+    num_channels: usize,
+    bytes_per_sample: usize,
+    sample_rate: u32,
+    buffer: Vec<i32>,
+    block_size: usize,
+    cursor: usize,
+}
+
+impl FlacStreamDecoder {
+    pub fn open(path: &str) -> Result<Self, BasicError> {
+        let mut file = File::open(path)?;
+
+        // keep a minimal header that only consists of the streaminfo block, it's put in front of the frames after seeking
+        let mut header = vec![0u8; 42];
+        file.read_exact(&mut header)?;
+        if &header[0..4] != b"fLaC" || (header[4] & 0b1111111) != 0 {
+            return Err(BasicError::new(
+                "Invalid FLAC stream: streaminfo must be the first metadata block",
+            ));
+        }
+        header[4] = 0b10000000;
+        file.seek(SeekFrom::Start(0))?;
+
+        let reader = FlacReader::new(Cursor::new(Vec::<u8>::new()).chain(BufReader::new(file)))?;
+        let num_channels = reader.streaminfo.num_channels as usize;
+        let sample_rate = reader.streaminfo.sample_rate;
+        let bytes_per_sample = match reader.streaminfo.bits_per_sample {
+            8 => 1,
+            16 => 2,
+            24 => 3,
+            32 => 4,
+            _ => return Err(BasicError::new("Unsupported bits_per_sample")),
+        };
+
+        Ok(Self {
+            path: path.to_string(),
+            header,
+            reader,
+            num_channels,
+            bytes_per_sample,
+            sample_rate,
+            buffer: vec![0; 65536 * 8],
+            block_size: 0,
+            cursor: 0,
+        })
+    }
+
+    /// Decodes interleaved little-endian samples into the output until it is full or the stream ends. 8-bit samples are written as unsigned bytes.
+    /// Returns the number of bytes written.
+    pub fn read(&mut self, output: &mut [u8]) -> Result<usize, BasicError> {
+        let frame_bytes = self.num_channels * self.bytes_per_sample;
+        let mut written = 0;
+
+        while output.len() - written >= frame_bytes {
+            if self.cursor >= self.block_size {
+                match self.reader.decode_frame(self.sample_rate, &mut self.buffer)? {
+                    Some(result) => {
+                        self.block_size = result / self.num_channels;
+                        self.cursor = 0;
+                        continue;
+                    }
+                    None => break,
+                }
+            }
+
+            let frames = (self.block_size - self.cursor).min((output.len() - written) / frame_bytes);
+            for i in self.cursor..self.cursor + frames {
+                for channel in 0..self.num_channels {
+                    let value = self.buffer[channel * self.block_size + i];
+                    match self.bytes_per_sample {
+                        1 => output[written] = (value + 128) as u8,
+                        2 => output[written..written + 2].copy_from_slice(&(value as i16).to_le_bytes()),
+                        _ => output[written..written + self.bytes_per_sample]
+                            .copy_from_slice(&value.to_le_bytes()[0..self.bytes_per_sample]),
+                    }
+                    written += self.bytes_per_sample;
+                }
+            }
+            self.cursor += frames;
+        }
+
+        Ok(written)
+    }
+
+    /// Continues decoding at the frame that starts at the given byte offset and sample number, then skips samples until the target sample is reached.
+    /// Returns the sample the stream is positioned at, which is only lower than the target if the stream ended.
+    pub fn seek(
+        &mut self,
+        frame_offset: u64,
+        frame_sample: u64,
+        target_sample: u64,
+    ) -> Result<u64, BasicError> {
+        let mut file = File::open(&self.path)?;
+        file.seek(SeekFrom::Start(frame_offset))?;
+        self.reader = FlacReader::new(Cursor::new(self.header.clone()).chain(BufReader::new(file)))?;
+        self.block_size = 0;
+        self.cursor = 0;
+
+        let mut position = frame_sample;
+        while let Some(result) = self.reader.decode_frame(self.sample_rate, &mut self.buffer)? {
+            let block_size = result / self.num_channels;
+            if position + block_size as u64 > target_sample {
+                self.block_size = block_size;
+                self.cursor = (target_sample.max(position) - position) as usize;
+                return Ok(target_sample.max(position));
+            }
+            position += block_size as u64;
+        }
+
+        Ok(position)
+    }
+}
@@ -9,3 +9,4 @@
 //! CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
 
 pub mod decoder;
+pub mod stream_decoder;
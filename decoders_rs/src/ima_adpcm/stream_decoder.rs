@@ -0,0 +1,127 @@
+//! Copyright 2024 Matthias Finke
+//!
+//! Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the
+//! License at
+//!
+//! http://www.apache.org/licenses/LICENSE-2.0
+//!
+//! Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+//! CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+
+use std::fs::File;
+use std::io::{Read, Seek, SeekFrom};
+
+use crate::common::error::BasicError;
+use crate::ima_adpcm::decoder::decode;
+
+const BLOCKS_PER_READ: usize = 16;
+
+/// An IMA ADPCM decoder that keeps its state between reads, used for streaming. The audio data is read in whole blocks, decoded samples that don't fit
+/// into the output are kept for the next read.
+pub struct ImaAdpcmStreamDecoder {
+    file: File,
+    data_offset: u64,
+    data_length: u64,
+    bytes_remaining: u64,
+    block_size: usize,
+    num_channels: usize,
+    input: Vec<u8>,
+    pending: Vec<u8>,
+    cursor: usize,
+}
+
+impl ImaAdpcmStreamDecoder {
+    pub fn open(
+        path: &str,
+        data_offset: u64,
+        data_length: u64,
+        block_size: usize,
+        num_channels: usize,
+    ) -> Result<Self, BasicError> {
+        if !(1..=2).contains(&num_channels) || block_size <= 4 * num_channels {
+            return Err(BasicError::new("Unsupported IMA ADPCM format"));
+        }
+        let mut file = File::open(path)?;
+        file.seek(SeekFrom::Start(data_offset))?;
+
+        Ok(Self {
+            file,
+            data_offset,
+            data_length,
+            bytes_remaining: data_length,
+            block_size,
+            num_channels,
+            input: vec![0; block_size * BLOCKS_PER_READ],
+            pending: vec![],
+            cursor: 0,
+        })
+    }
+
+    /// Decodes 16-bit interleaved samples into the output until it is full or the stream ends. Returns the number of bytes written.
+    pub fn read(&mut self, output: &mut [u8]) -> Result<usize, BasicError> {
+        let mut written = 0;
+
+        while written < output.len() {
+            if self.cursor >= self.pending.len() && !self.decode_blocks(BLOCKS_PER_READ)? {
+                break;
+            }
+
+            let length = (self.pending.len() - self.cursor).min(output.len() - written);
+            output[written..written + length]
+                .copy_from_slice(&self.pending[self.cursor..self.cursor + length]);
+            self.cursor += length;
+            written += length;
+        }
+
+        Ok(written)
+    }
+
+    /// Jumps to the block that contains the given sample frame and skips the samples in front of it. Returns the sample frame the stream is positioned at.
+    pub fn seek(&mut self, sample_frame: u64) -> Result<u64, BasicError> {
+        let samples_per_block = ((self.block_size / self.num_channels - 4) * 2) as u64;
+        let num_blocks = (self.data_length + self.block_size as u64 - 1) / self.block_size as u64;
+        let block_index = (sample_frame / samples_per_block).min(num_blocks.max(1) - 1);
+        let block_offset = block_index * self.block_size as u64;
+
+        self.file.seek(SeekFrom::Start(self.data_offset + block_offset))?;
+        self.bytes_remaining = self.data_length.saturating_sub(block_offset);
+        self.pending.clear();
+        self.cursor = 0;
+
+        if !self.decode_blocks(1)? {
+            return Ok(block_index * samples_per_block);
+        }
+        let skip = (sample_frame - block_index * samples_per_block).min(samples_per_block);
+        self.cursor = ((skip as usize) * 2 * self.num_channels).min(self.pending.len());
+
+        Ok(block_index * samples_per_block + (self.cursor / (2 * self.num_channels)) as u64)
+    }
+
+    fn decode_blocks(&mut self, blocks: usize) -> Result<bool, BasicError> {
+        let length = ((self.block_size * blocks) as u64).min(self.bytes_remaining) as usize;
+        if length == 0 {
+            return Ok(false);
+        }
+
+        let mut read = 0;
+        while read < length {
+            let bytes = self.file.read(&mut self.input[read..length])?;
+            if bytes == 0 {
+                break;
+            }
+            read += bytes;
+        }
+        self.bytes_remaining = if read < length {
+            0
+        } else {
+            self.bytes_remaining - length as u64
+        };
+        if read == 0 {
+            return Ok(false);
+        }
+
+        self.pending = decode(&self.input[0..read], self.block_size, self.num_channels == 2);
+        self.cursor = 0;
+        Ok(true)
+    }
+}
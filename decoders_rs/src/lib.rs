@@ -10,15 +10,17 @@
 
 use std::slice;
 
-use jni::objects::{AutoArray, JClass, JString, JValue, ReleaseMode};
-use jni::sys::{jboolean, jbyte, jobject};
+use jni::objects::{AutoArray, JByteBuffer, JClass, JString, JValue, ReleaseMode};
+use jni::sys::{jboolean, jbyte, jlong, jobject};
 use jni::{
     objects::JObject,
     sys::{jbyteArray, jint},
     JNIEnv,
 };
 
+pub use crate::flac::stream_decoder::FlacStreamDecoder;
 pub use crate::ima_adpcm::decoder::{decode, decode_wav_file};
+pub use crate::ima_adpcm::stream_decoder::ImaAdpcmStreamDecoder;
 
 pub mod common;
 pub mod flac;
@@ -99,6 +101,36 @@ pub extern "C" fn Java_de_pottgames_tuningfork_bindings_FlacRs_decodeFlac(
     ima_adpcm_data_obj.into_raw()
 }
 
+#[no_mangle]
+pub extern "C" fn Java_de_pottgames_tuningfork_bindings_FlacRs_decodeFlacInto(
+    env: JNIEnv,
+    _class: JClass,
+    input: jobject,
+    input_length: jint,
+    output: jobject,
+    output_length: jint,
+) -> jlong {
+    let input_buffer = JByteBuffer::from(unsafe { JObject::from_raw(input) });
+    let output_buffer = JByteBuffer::from(unsafe { JObject::from_raw(output) });
+    let input_address = match env.get_direct_buffer_address(input_buffer) {
+        Ok(address) => address,
+        Err(_) => return -1,
+    };
+    let output_address = match env.get_direct_buffer_address(output_buffer) {
+        Ok(address) => address,
+        Err(_) => return -1,
+    };
+    let input_data =
+        unsafe { slice::from_raw_parts(input_address as *const u8, input_length as usize) };
+    let output_data =
+        unsafe { slice::from_raw_parts_mut(output_address, output_length as usize) };
+
+    match flac::decoder::decode_into(input_data, output_data) {
+        Ok(written) => written as jlong,
+        Err(_) => -1,
+    }
+}
+
 #[no_mangle]
 pub extern "C" fn Java_de_pottgames_tuningfork_bindings_ImaAdpcmRs_decodeFile(
     env: JNIEnv,
@@ -133,6 +165,152 @@ pub extern "C" fn Java_de_pottgames_tuningfork_bindings_ImaAdpcmRs_decodeFile(
     ima_adpcm_data_obj.into_raw()
 }
 
+#[no_mangle]
+pub extern "C" fn Java_de_pottgames_tuningfork_bindings_FlacRs_openStream(
+    env: JNIEnv,
+    _class: JClass,
+    path: JString,
+) -> jlong {
+    let path: String = match env.get_string(path) {
+        Ok(value) => value.into(),
+        Err(_) => return 0,
+    };
+    match FlacStreamDecoder::open(&path) {
+        Ok(decoder) => Box::into_raw(Box::new(decoder)) as jlong,
+        Err(_) => 0,
+    }
+}
+
+#[no_mangle]
+pub extern "C" fn Java_de_pottgames_tuningfork_bindings_FlacRs_readStream(
+    env: JNIEnv,
+    _class: JClass,
+    handle: jlong,
+    buffer: jobject,
+    offset: jint,
+    length: jint,
+) -> jint {
+    let decoder = unsafe { &mut *(handle as *mut FlacStreamDecoder) };
+    let output = match direct_buffer_slice(&env, buffer, offset, length) {
+        Some(value) => value,
+        None => return -1,
+    };
+    match decoder.read(output) {
+        Ok(written) => written as jint,
+        Err(_) => -1,
+    }
+}
+
+#[no_mangle]
+pub extern "C" fn Java_de_pottgames_tuningfork_bindings_FlacRs_seekStream(
+    _env: JNIEnv,
+    _class: JClass,
+    handle: jlong,
+    frame_offset: jlong,
+    frame_sample: jlong,
+    target_sample: jlong,
+) -> jlong {
+    let decoder = unsafe { &mut *(handle as *mut FlacStreamDecoder) };
+    match decoder.seek(frame_offset as u64, frame_sample as u64, target_sample as u64) {
+        Ok(position) => position as jlong,
+        Err(_) => -1,
+    }
+}
+
+#[no_mangle]
+pub extern "C" fn Java_de_pottgames_tuningfork_bindings_FlacRs_closeStream(
+    _env: JNIEnv,
+    _class: JClass,
+    handle: jlong,
+) {
+    if handle != 0 {
+        drop(unsafe { Box::from_raw(handle as *mut FlacStreamDecoder) });
+    }
+}
+
+#[no_mangle]
+pub extern "C" fn Java_de_pottgames_tuningfork_bindings_ImaAdpcmRs_openStream(
+    env: JNIEnv,
+    _class: JClass,
+    path: JString,
+    data_offset: jlong,
+    data_length: jlong,
+    block_size: jint,
+    channels: jint,
+) -> jlong {
+    let path: String = match env.get_string(path) {
+        Ok(value) => value.into(),
+        Err(_) => return 0,
+    };
+    match ImaAdpcmStreamDecoder::open(
+        &path,
+        data_offset as u64,
+        data_length as u64,
+        block_size as usize,
+        channels as usize,
+    ) {
+        Ok(decoder) => Box::into_raw(Box::new(decoder)) as jlong,
+        Err(_) => 0,
+    }
+}
+
+#[no_mangle]
+pub extern "C" fn Java_de_pottgames_tuningfork_bindings_ImaAdpcmRs_readStream(
+    env: JNIEnv,
+    _class: JClass,
+    handle: jlong,
+    buffer: jobject,
+    offset: jint,
+    length: jint,
+) -> jint {
+    let decoder = unsafe { &mut *(handle as *mut ImaAdpcmStreamDecoder) };
+    let output = match direct_buffer_slice(&env, buffer, offset, length) {
+        Some(value) => value,
+        None => return -1,
+    };
+    match decoder.read(output) {
+        Ok(written) => written as jint,
+        Err(_) => -1,
+    }
+}
+
+#[no_mangle]
+pub extern "C" fn Java_de_pottgames_tuningfork_bindings_ImaAdpcmRs_seekStream(
+    _env: JNIEnv,
+    _class: JClass,
+    handle: jlong,
+    sample_frame: jlong,
+) -> jlong {
+    let decoder = unsafe { &mut *(handle as *mut ImaAdpcmStreamDecoder) };
+    match decoder.seek(sample_frame as u64) {
+        Ok(position) => position as jlong,
+        Err(_) => -1,
+    }
+}
+
+#[no_mangle]
+pub extern "C" fn Java_de_pottgames_tuningfork_bindings_ImaAdpcmRs_closeStream(
+    _env: JNIEnv,
+    _class: JClass,
+    handle: jlong,
+) {
+    if handle != 0 {
+        drop(unsafe { Box::from_raw(handle as *mut ImaAdpcmStreamDecoder) });
+    }
+}
+
+/// Returns the region of a direct ByteBuffer that starts at the given offset.
+fn direct_buffer_slice<'a>(
+    env: &JNIEnv,
+    buffer: jobject,
+    offset: jint,
+    length: jint,
+) -> Option<&'a mut [u8]> {
+    let buffer = JByteBuffer::from(unsafe { JObject::from_raw(buffer) });
+    let address = env.get_direct_buffer_address(buffer).ok()?;
+    Some(unsafe { slice::from_raw_parts_mut(address.add(offset as usize), length as usize) })
+}
+
 pub struct DecodedData {
     pub pcm_data: Vec<u8>,
     pub sample_rate: u32,
@@ -8,6 +8,222 @@
 //! Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
 //! CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
 
+use std::fs;
+
+use decoders_rs64::flac::decoder::{decode, decode_into};
+use decoders_rs64::{decode_wav_file, DecodedData, FlacStreamDecoder, ImaAdpcmStreamDecoder};
+
+const FLAC_FILES: [&str; 4] = [
+    "../core/src/test/resources/numbers_8bit_mono.flac",
+    "../core/src/test/resources/numbers_16bit_mono.flac",
+    "../core/src/test/resources/numbers_16bit_stereo.flac",
+    "../core/src/test/resources/short.flac",
+];
+
+const IMA_ADPCM_FILES: [&str; 3] = [
+    "../core/src/test/resources/ima_adpcm_mono.wav",
+    "../core/src/test/resources/ima_adpcm_mono_short.wav",
+    "../core/src/test/resources/ima_adpcm_stereo.wav",
+];
+
+/// Converts the output of decode to the format decode_into writes, 8-bit samples are unsigned there.
+fn to_openal_format(decoded: &DecodedData) -> Vec<u8> {
+    match decoded.bits_per_sample {
+        8 => decoded.pcm_data.iter().map(|value| value.wrapping_add(128)).collect(),
+        _ => decoded.pcm_data.clone(),
+    }
+}
+
+#[test]
+fn test_flac_decode_into_matches_decode() {
+    for file_path in FLAC_FILES {
+        let input = fs::read(file_path).expect("Failed to read FLAC file");
+        let expected = to_openal_format(&decode(&input).expect("Failed to decode FLAC file"));
+
+        let mut output = vec![0u8; expected.len()];
+        let written = decode_into(&input, &mut output).expect("Failed to decode FLAC file");
+
+        assert_eq!(written, expected.len(), "{file_path}");
+        assert!(output == expected, "{file_path}");
+    }
+}
+
+#[test]
+fn test_flac_decode_into_stops_when_output_is_full() {
+    for file_path in FLAC_FILES {
+        let input = fs::read(file_path).expect("Failed to read FLAC file");
+        let decoded = decode(&input).expect("Failed to decode FLAC file");
+        let expected = to_openal_format(&decoded);
+        let frame_bytes = (decoded.num_channels * decoded.bits_per_sample / 8) as usize;
+
+        // an odd size that doesn't end on a sample frame
+        let mut output = vec![0u8; expected.len() / 3 + 1];
+        let written = decode_into(&input, &mut output).expect("Failed to decode FLAC file");
+
+        assert!(written <= output.len(), "{file_path}");
+        assert_eq!(written % frame_bytes, 0, "{file_path}");
+        assert!(output.len() - written < frame_bytes, "{file_path}");
+        assert!(output[0..written] == expected[0..written], "{file_path}");
+    }
+}
+
+/// Reads the whole stream with outputs of the given size and returns everything that was written.
+fn read_all<F: FnMut(&mut [u8]) -> usize>(output_size: usize, mut read: F) -> Vec<u8> {
+    let mut result = vec![];
+    let mut output = vec![0u8; output_size];
+    loop {
+        let written = read(&mut output);
+        if written == 0 {
+            return result;
+        }
+        result.extend_from_slice(&output[0..written]);
+    }
+}
+
+/// Returns the byte offset of the first frame, which follows the last metadata block.
+fn flac_first_frame_offset(input: &[u8]) -> u64 {
+    let mut position = 4;
+    loop {
+        let last = input[position] & 0x80 != 0;
+        let length = u32::from_be_bytes([
+            0,
+            input[position + 1],
+            input[position + 2],
+            input[position + 3],
+        ]);
+        position += 4 + length as usize;
+        if last {
+            return position as u64;
+        }
+    }
+}
+
+/// Returns the offset and length of the data chunk, the block size and the number of channels of a wav file.
+fn wav_data_chunk(input: &[u8]) -> (u64, u64, usize, usize) {
+    let mut position = 12;
+    let mut block_size = 0;
+    let mut num_channels = 0;
+    loop {
+        let chunk_id = &input[position..position + 4];
+        let chunk_size =
+            u32::from_le_bytes(input[position + 4..position + 8].try_into().unwrap()) as usize;
+        if chunk_id == b"fmt " {
+            num_channels =
+                u16::from_le_bytes([input[position + 10], input[position + 11]]) as usize;
+            block_size =
+                u16::from_le_bytes([input[position + 20], input[position + 21]]) as usize;
+        } else if chunk_id == b"data" {
+            return ((position + 8) as u64, chunk_size as u64, block_size, num_channels);
+        }
+        position += 8 + chunk_size + (chunk_size & 1);
+    }
+}
+
+#[test]
+fn test_flac_stream_read_matches_decode() {
+    for file_path in FLAC_FILES {
+        let input = fs::read(file_path).expect("Failed to read FLAC file");
+        let expected = to_openal_format(&decode(&input).expect("Failed to decode FLAC file"));
+
+        // 7 bytes don't fit a whole number of sample frames, the rest is kept for the next read
+        for output_size in [7, 4096, 65536] {
+            let mut decoder = FlacStreamDecoder::open(file_path).expect("Failed to open FLAC file");
+            let result = read_all(output_size, |output| {
+                decoder.read(output).expect("Failed to read FLAC stream")
+            });
+            assert!(result == expected, "{file_path}, output size {output_size}");
+        }
+    }
+}
+
+#[test]
+fn test_flac_stream_seek() {
+    for file_path in FLAC_FILES {
+        let input = fs::read(file_path).expect("Failed to read FLAC file");
+        let decoded = decode(&input).expect("Failed to decode FLAC file");
+        let expected = to_openal_format(&decoded);
+        let frame_bytes = (decoded.num_channels * decoded.bits_per_sample / 8) as usize;
+        let total_samples = (expected.len() / frame_bytes) as u64;
+        let first_frame = flac_first_frame_offset(&input);
+
+        let mut decoder = FlacStreamDecoder::open(file_path).expect("Failed to open FLAC file");
+        for target in [total_samples / 2, 1, 4095, 4096, total_samples - 1, 0] {
+            if target >= total_samples {
+                continue;
+            }
+            let position = decoder
+                .seek(first_frame, 0, target)
+                .expect("Failed to seek FLAC stream");
+            assert_eq!(position, target, "{file_path}");
+
+            let result = read_all(4099, |output| {
+                decoder.read(output).expect("Failed to read FLAC stream")
+            });
+            let start = target as usize * frame_bytes;
+            assert!(result[..] == expected[start..], "{file_path}, target {target}");
+        }
+    }
+}
+
+#[test]
+fn test_ima_adpcm_stream_read_matches_decode() {
+    for file_path in IMA_ADPCM_FILES {
+        let input = fs::read(file_path).expect("Failed to read wav file");
+        let expected = decode_wav_file(file_path).expect("Failed to decode wav file").pcm_data;
+        let (data_offset, data_length, block_size, num_channels) = wav_data_chunk(&input);
+
+        // odd sizes split samples and blocks between reads
+        for output_size in [333, 4096, 65537] {
+            let mut decoder = ImaAdpcmStreamDecoder::open(
+                file_path,
+                data_offset,
+                data_length,
+                block_size,
+                num_channels,
+            )
+            .expect("Failed to open wav file");
+            let result = read_all(output_size, |output| {
+                decoder.read(output).expect("Failed to read IMA ADPCM stream")
+            });
+            assert!(result == expected, "{file_path}, output size {output_size}");
+        }
+    }
+}
+
+#[test]
+fn test_ima_adpcm_stream_seek() {
+    for file_path in IMA_ADPCM_FILES {
+        let input = fs::read(file_path).expect("Failed to read wav file");
+        let expected = decode_wav_file(file_path).expect("Failed to decode wav file").pcm_data;
+        let (data_offset, data_length, block_size, num_channels) = wav_data_chunk(&input);
+        let frame_bytes = 2 * num_channels;
+        let total_samples = (expected.len() / frame_bytes) as u64;
+        let samples_per_block = ((block_size / num_channels - 4) * 2) as u64;
+
+        let mut decoder = ImaAdpcmStreamDecoder::open(
+            file_path,
+            data_offset,
+            data_length,
+            block_size,
+            num_channels,
+        )
+        .expect("Failed to open wav file");
+        for target in [samples_per_block * 3 + 5, 1, samples_per_block - 1, samples_per_block, 0] {
+            if target >= total_samples {
+                continue;
+            }
+            let position = decoder.seek(target).expect("Failed to seek IMA ADPCM stream");
+            assert_eq!(position, target, "{file_path}");
+
+            let result = read_all(4096, |output| {
+                decoder.read(output).expect("Failed to read IMA ADPCM stream")
+            });
+            let start = target as usize * frame_bytes;
+            assert!(result[..] == expected[start..], "{file_path}, target {target}");
+        }
+    }
+}
+
 //use std::fs::File;
 //use std::io::BufReader;
 //use std::time::Instant;